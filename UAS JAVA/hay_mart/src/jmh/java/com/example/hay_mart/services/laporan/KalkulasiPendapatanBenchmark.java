@@ -0,0 +1,94 @@
+package com.example.hay_mart.services.laporan;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.example.hay_mart.dto.laporan.LaporanPendapatanResponse;
+
+/**
+ * Membandingkan perhitungan laporan lama (BigDecimal per pemesanan, modal dikali 0.85 per
+ * pemesanan, DecimalFormat baru per laporan) dengan kernel sen {@link KalkulasiPendapatan}
+ * atas larik total_harga yang sama, dibagi ke 12 periode seperti laporan bulanan.
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="KalkulasiPendapatanBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KalkulasiPendapatanBenchmark {
+    private static final int JUMLAH_PERIODE = 12;
+
+    @Param({ "1000", "100000" })
+    int jumlahPemesanan;
+
+    long[] totalHarga;
+
+    @Setup
+    public void siapkan() {
+        Random random = new Random(42);
+        totalHarga = new long[jumlahPemesanan];
+        for (int i = 0; i < jumlahPemesanan; i++) {
+            totalHarga[i] = 1_000 + random.nextInt(2_000_000);
+        }
+    }
+
+    @Benchmark
+    public void bigDecimalPerPemesanan(Blackhole bh) {
+        int perPeriode = jumlahPemesanan / JUMLAH_PERIODE;
+        for (int p = 0; p < JUMLAH_PERIODE; p++) {
+            DecimalFormat format = new DecimalFormat("#,###.00");
+            format.setDecimalFormatSymbols(new DecimalFormatSymbols(Locale.forLanguageTag("id-ID")));
+            BigDecimal persenModal = new BigDecimal("0.85");
+
+            BigDecimal totalPendapatan = BigDecimal.ZERO;
+            BigDecimal totalModal = BigDecimal.ZERO;
+            for (int i = p * perPeriode; i < (p + 1) * perPeriode; i++) {
+                BigDecimal harga = BigDecimal.valueOf(totalHarga[i]);
+                totalPendapatan = totalPendapatan.add(harga);
+                totalModal = totalModal.add(harga.multiply(persenModal));
+            }
+            BigDecimal totalKeuntungan = totalPendapatan.subtract(totalModal);
+
+            LaporanPendapatanResponse laporan = new LaporanPendapatanResponse();
+            laporan.setPeriode("periode " + p);
+            laporan.setPendapatan(totalPendapatan.setScale(2, RoundingMode.HALF_UP));
+            laporan.setModal(totalModal.setScale(2, RoundingMode.HALF_UP));
+            laporan.setKeuntungan(totalKeuntungan.setScale(2, RoundingMode.HALF_UP));
+            bh.consume(laporan);
+            bh.consume(format.format(totalPendapatan));
+            bh.consume(format.format(totalModal));
+            bh.consume(format.format(totalKeuntungan));
+        }
+    }
+
+    @Benchmark
+    public void longSen(Blackhole bh) {
+        int perPeriode = jumlahPemesanan / JUMLAH_PERIODE;
+        for (int p = 0; p < JUMLAH_PERIODE; p++) {
+            long pendapatan = 0;
+            for (int i = p * perPeriode; i < (p + 1) * perPeriode; i++) {
+                pendapatan += totalHarga[i];
+            }
+            bh.consume(KalkulasiPendapatan.laporan("periode " + p, pendapatan));
+        }
+    }
+}
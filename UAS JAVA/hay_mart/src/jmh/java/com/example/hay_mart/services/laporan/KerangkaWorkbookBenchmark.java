@@ -0,0 +1,78 @@
+package com.example.hay_mart.services.laporan;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.example.hay_mart.dto.laporan.LaporanPendapatanResponse;
+
+/**
+ * Biaya tetap per ekspor: membangun kerangka workbook (style, font, header) langsung
+ * dibanding membuka kerangka yang sudah diserialisasi sekali. Ekspor kecil 12 baris
+ * disertakan sebagai pembanding porsi kerangka dalam satu unduhan.
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="KerangkaWorkbookBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class KerangkaWorkbookBenchmark {
+    private static final String[] HEADERS = { "No", "Periode", "Modal", "Pendapatan", "Keuntungan", "Margin (%)" };
+
+    private final LaporanExcelWriter writer = new LaporanExcelWriter();
+    private byte[] kerangkaTersimpan;
+    private List<LaporanPendapatanResponse> dataBulanan;
+
+    @Setup
+    public void siapkan() throws IOException {
+        try (XSSFWorkbook workbook = bangun()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            workbook.write(out);
+            kerangkaTersimpan = out.toByteArray();
+        }
+        dataBulanan = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            dataBulanan.add(KalkulasiPendapatan.laporan("bulan " + i, 10_000_000L + i * 250_000L));
+        }
+    }
+
+    @Benchmark
+    public XSSFWorkbook bangunKerangka() throws IOException {
+        XSSFWorkbook workbook = bangun();
+        workbook.close();
+        return workbook;
+    }
+
+    @Benchmark
+    public XSSFWorkbook bukaKerangkaTersimpan() throws IOException {
+        XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(kerangkaTersimpan));
+        workbook.close();
+        return workbook;
+    }
+
+    @Benchmark
+    public void eksporKecil() throws IOException {
+        writer.write(dataBulanan, false, OutputStream.nullOutputStream());
+    }
+
+    private XSSFWorkbook bangun() {
+        return writer.buatKerangka("Laporan Pendapatan", "LAPORAN PENDAPATAN", HEADERS).workbook();
+    }
+}
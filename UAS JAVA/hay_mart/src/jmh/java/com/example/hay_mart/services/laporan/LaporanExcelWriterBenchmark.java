@@ -0,0 +1,68 @@
+package com.example.hay_mart.services.laporan;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Waktu dan alokasi {@link LaporanExcelWriter#writeTabel} untuk 100, 10 ribu dan 1 juta
+ * baris. Baris dibuat satu per satu oleh iterator dan hasilnya dibuang, jadi yang terukur
+ * hanya biaya penulis Excel. Heap fork dibatasi 256 MB: ekspor 1 juta baris harus selesai
+ * tanpa OutOfMemoryError.
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="LaporanExcelWriterBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class LaporanExcelWriterBenchmark {
+    private static final List<LaporanExcelWriter.Kolom> KOLOM = List.of(
+            new LaporanExcelWriter.Kolom("Kasir", false, false),
+            new LaporanExcelWriter.Kolom("Jumlah Transaksi", false, true),
+            new LaporanExcelWriter.Kolom("Pendapatan", true, true),
+            new LaporanExcelWriter.Kolom("Rata-rata", true, false));
+
+    @Param({ "100", "10000", "1000000" })
+    int jumlahBaris;
+
+    private final LaporanExcelWriter writer = new LaporanExcelWriter();
+
+    @Benchmark
+    public void writeTabel() throws IOException {
+        writer.writeTabel("Kinerja Kasir", KOLOM, baris(jumlahBaris), OutputStream.nullOutputStream());
+    }
+
+    private static Iterator<Object[]> baris(int jumlah) {
+        return new Iterator<>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < jumlah;
+            }
+
+            @Override
+            public Object[] next() {
+                i++;
+                long transaksi = 1 + i % 97;
+                long pendapatan = transaksi * (25_000 + i % 10_000);
+                return new Object[] { "Kasir " + i, transaksi, pendapatan, pendapatan / transaksi };
+            }
+        };
+    }
+}
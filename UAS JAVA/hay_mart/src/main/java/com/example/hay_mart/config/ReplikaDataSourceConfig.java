@@ -0,0 +1,76 @@
+package com.example.hay_mart.config;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Aktif bila app.replika.enabled = true. Tanpa properti itu Spring Boot tetap membuat
+ * satu datasource dari spring.datasource seperti biasa.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.replika", name = "enabled", havingValue = "true")
+public class ReplikaDataSourceConfig {
+    @Value("${app.replika.url}")
+    private String url;
+
+    @Value("${app.replika.username}")
+    private String username;
+
+    @Value("${app.replika.password:}")
+    private String password;
+
+    @Value("${app.replika.pool-size:10}")
+    private int poolSize;
+
+    @Value("${app.replika.timeout-ms:2000}")
+    private long timeoutMs;
+
+    @Value("${app.replika.lag-maks-detik:30}")
+    private long lagMaksDetik;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replikaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replika");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setReadOnly(true);
+        // Timeout pendek supaya replika yang mati cepat dialihkan ke primary, dan
+        // aplikasi tetap bisa start walaupun replika belum siap
+        dataSource.setConnectionTimeout(timeoutMs);
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public RuteDataSource ruteDataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replikaDataSource") DataSource replika) {
+        return new RuteDataSource(primary, replika, lagMaksDetik);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RuteDataSource ruteDataSource) {
+        return new LazyConnectionDataSourceProxy(ruteDataSource);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.hay_mart.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mengarahkan transaksi read-only (laporan, riwayat, katalog, query AI) ke replika dan
+ * semua yang lain ke primary.
+ *
+ * Dibungkus LazyConnectionDataSourceProxy supaya koneksi baru diambil saat statement
+ * pertama, setelah status read-only transaksi sudah terpasang. Replika dilewati bila
+ * koneksinya gagal, bila pemeriksaan terakhir gagal, atau bila lag-nya melebihi batas;
+ * dalam semua kasus itu bacaan tetap jalan di primary.
+ *
+ * Bacaan yang harus melihat data terbaru (mis. struk tepat setelah checkout) dibungkus
+ * {@link #segar()} dan selalu dibaca dari primary. Lag dari SHOW REPLICA STATUS dibulatkan
+ * per detik, jadi lag 0 tidak menjamin transaksi yang baru di-commit sudah ada di replika.
+ */
+@Slf4j
+public class RuteDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "PRIMARY";
+    public static final String REPLIKA = "REPLIKA";
+
+    private static final ThreadLocal<Boolean> SEGAR = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replika;
+    private final JdbcTemplate replikaTemplate;
+    private final long lagMaksDetik;
+
+    private volatile boolean sehat = true;
+    // -1 bila lag tidak diketahui (bukan replika MySQL atau tanpa hak REPLICATION CLIENT)
+    private volatile long lagDetik = -1;
+
+    public RuteDataSource(DataSource primary, DataSource replika, long lagMaksDetik) {
+        this.primary = primary;
+        this.replika = replika;
+        this.replikaTemplate = new JdbcTemplate(replika);
+        this.lagMaksDetik = lagMaksDetik;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLIKA, replika));
+        setDefaultTargetDataSource(primary);
+    }
+
+    public interface Penanda extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static Penanda segar() {
+        SEGAR.set(Boolean.TRUE);
+        return SEGAR::remove;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !sehat
+                || Boolean.TRUE.equals(SEGAR.get())) {
+            return PRIMARY;
+        }
+        return lagDetik <= lagMaksDetik ? REPLIKA : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!REPLIKA.equals(determineCurrentLookupKey())) {
+            return primary.getConnection();
+        }
+        try {
+            return replika.getConnection();
+        } catch (SQLException e) {
+            tandai(false, "koneksi gagal: " + e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.replika.periksa-ms:5000}")
+    public void periksa() {
+        try {
+            long lag = -1;
+            try {
+                List<Map<String, Object>> status = replikaTemplate.queryForList("SHOW REPLICA STATUS");
+                if (!status.isEmpty()) {
+                    // NULL berarti thread replikasi berhenti: data replika tidak akan mengejar
+                    Object detik = status.get(0).get("Seconds_Behind_Source");
+                    lag = detik != null ? ((Number) detik).longValue() : Long.MAX_VALUE;
+                }
+            } catch (DataAccessException e) {
+                replikaTemplate.queryForObject("SELECT 1", Integer.class);
+            }
+            if (lag > lagMaksDetik && lagDetik <= lagMaksDetik) {
+                log.warn("Lag replika {} detik melebihi batas {} detik, bacaan dialihkan ke primary",
+                        lag == Long.MAX_VALUE ? "tak hingga" : lag, lagMaksDetik);
+            }
+            lagDetik = lag;
+            tandai(true, null);
+        } catch (DataAccessException e) {
+            tandai(false, e.getMessage());
+        }
+    }
+
+    public boolean isSehat() {
+        return sehat;
+    }
+
+    public long getLagDetik() {
+        return lagDetik;
+    }
+
+    private void tandai(boolean status, String alasan) {
+        if (sehat == status) {
+            return;
+        }
+        sehat = status;
+        if (status) {
+            log.info("Replika kembali tersedia, bacaan read-only diarahkan ke replika");
+        } else {
+            log.warn("Replika tidak tersedia ({}), bacaan read-only dialihkan ke primary", alasan);
+        }
+    }
+}
@@ -52,7 +52,7 @@ public class SecurityConfig {
                         .accessDeniedHandler(new CustomAccessDeniedException()))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/auth/**").permitAll()
-                        .requestMatchers("/produk/get-all-produks").hasAnyAuthority(RoleConstant.ROLE_ADMIN ,RoleConstant.ROLE_KASIR)
+                        .requestMatchers("/produk/get-all-produks", "/produk/facets", "/produk/changes").hasAnyAuthority(RoleConstant.ROLE_ADMIN ,RoleConstant.ROLE_KASIR)
                         .requestMatchers("/produk/**", "/laporan/**", "/kasir/get-all-kasir", "/kasir/update-status/**",
                                 "/kasir/history-all-kasir", "/ai/**")
                         .hasAuthority(RoleConstant.ROLE_ADMIN)
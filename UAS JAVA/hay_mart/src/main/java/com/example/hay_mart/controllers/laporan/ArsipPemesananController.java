@@ -0,0 +1,56 @@
+package com.example.hay_mart.controllers.laporan;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import com.example.hay_mart.dto.GenericResponse;
+import com.example.hay_mart.dto.laporan.ArsipSegmenResponse;
+import com.example.hay_mart.dto.pemesanan.PemesananResponse;
+import com.example.hay_mart.services.arsip.ArsipPemesananService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+
+@RestController
+@RequestMapping("/laporan/arsip")
+public class ArsipPemesananController {
+
+    @Autowired
+    ArsipPemesananService arsipPemesananService;
+
+    @PostMapping
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> arsipkan() {
+        try {
+            List<ArsipSegmenResponse> response = arsipPemesananService.arsipkan();
+            return ResponseEntity.ok()
+                    .body(GenericResponse.success(response, response.size() + " bulan pemesanan diarsipkan"));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(GenericResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> daftar() {
+        return ResponseEntity.ok()
+                .body(GenericResponse.success(arsipPemesananService.daftar(), "Segmen arsip pemesanan"));
+    }
+
+    @GetMapping("/pemesanan/{id}")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> cari(@PathVariable("id") int id) {
+        try {
+            PemesananResponse response = arsipPemesananService.cari(id);
+            return ResponseEntity.ok().body(GenericResponse.success(response, "Pemesanan dari arsip"));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        }
+    }
+}
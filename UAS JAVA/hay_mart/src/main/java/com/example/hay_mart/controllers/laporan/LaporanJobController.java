@@ -0,0 +1,75 @@
+package com.example.hay_mart.controllers.laporan;
+
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import com.example.hay_mart.dto.GenericResponse;
+import com.example.hay_mart.dto.laporan.LaporanJobRequest;
+import com.example.hay_mart.dto.laporan.LaporanJobResponse;
+import com.example.hay_mart.services.laporan.LaporanJobService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+
+@RestController
+@RequestMapping("/laporan/jobs")
+public class LaporanJobController {
+
+    @Autowired
+    LaporanJobService laporanJobService;
+
+    @PostMapping
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> submit(@RequestBody LaporanJobRequest request) {
+        try {
+            LaporanJobResponse response = laporanJobService.submit(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(GenericResponse.success(response, "Job laporan berhasil dibuat"));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(GenericResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> status(@PathVariable String jobId) {
+        try {
+            LaporanJobResponse response = laporanJobService.getStatus(jobId);
+            return ResponseEntity.ok().body(GenericResponse.success(response, "Status job laporan"));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(GenericResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{jobId}/download")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> download(@PathVariable String jobId) {
+        try {
+            Path file = laporanJobService.getFile(jobId);
+            String namaFile = laporanJobService.getNamaFile(jobId);
+
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + namaFile)
+                    .contentType(MediaType
+                            .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                    .body(new FileSystemResource(file));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(GenericResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.hay_mart.controllers.laporan;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.example.hay_mart.dto.GenericResponse;
+import com.example.hay_mart.dto.laporan.LaporanKasirResponse;
+import com.example.hay_mart.services.laporan.LaporanKasirService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/laporan")
+@Slf4j
+public class LaporanKasirController {
+
+    @Autowired
+    private LaporanKasirService laporanKasirService;
+
+    @GetMapping("/kasir")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> getLaporanKasir(
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "satuan", defaultValue = "total") String satuan) {
+        try {
+            List<LaporanKasirResponse> data = laporanKasirService.getLaporanKasir(startDate, endDate, satuan);
+            return ResponseEntity.ok().body(GenericResponse.success(data, "Laporan kinerja kasir"));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            log.info(e.getMessage());
+            return ResponseEntity.internalServerError().body(GenericResponse.error("Internal Server Error!"));
+        }
+    }
+
+    @GetMapping("/kasir/excel")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<StreamingResponseBody> downloadLaporanKasir(
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "satuan", defaultValue = "total") String satuan) {
+        List<LaporanKasirResponse> data;
+        try {
+            data = laporanKasirService.getLaporanKasir(startDate, endDate, satuan);
+        } catch (ResponseStatusException e) {
+            return pesan(HttpStatus.valueOf(e.getStatusCode().value()), e.getReason());
+        }
+        if (data.isEmpty()) {
+            return pesan(HttpStatus.NO_CONTENT, "Tidak ada data untuk periode ini.");
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=laporan_kasir.xlsx")
+                .contentType(MediaType
+                        .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(out -> laporanKasirService.writeExcel(data, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> pesan(HttpStatus status, String pesan) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(out -> out.write(pesan.getBytes(StandardCharsets.UTF_8)));
+    }
+}
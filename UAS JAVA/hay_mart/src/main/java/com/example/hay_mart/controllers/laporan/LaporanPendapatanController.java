@@ -1,21 +1,27 @@
 package com.example.hay_mart.controllers.laporan;
 
-import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import com.example.hay_mart.dto.laporan.LaporanPendapatanResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.example.hay_mart.dto.GenericResponse;
+import com.example.hay_mart.dto.laporan.HeatmapPenjualanResponse;
+import com.example.hay_mart.dto.laporan.RebuildRekapResponse;
+import com.example.hay_mart.services.laporan.LaporanCache;
 import com.example.hay_mart.services.laporan.LaporanPendapatanService;
+import com.example.hay_mart.services.laporan.PartisiPemesananService;
+import com.example.hay_mart.services.laporan.RekapPendapatanService;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,127 +34,181 @@ public class LaporanPendapatanController {
 
     private LaporanPendapatanService laporanPendapatanService;
 
+    private RekapPendapatanService rekapPendapatanService;
+
+    private LaporanCache laporanCache;
+
+    private PartisiPemesananService partisiPemesananService;
+
     @Autowired
-    LaporanPendapatanController(LaporanPendapatanService laporanPendapatanService) {
+    LaporanPendapatanController(LaporanPendapatanService laporanPendapatanService,
+            RekapPendapatanService rekapPendapatanService, LaporanCache laporanCache,
+            PartisiPemesananService partisiPemesananService) {
         this.laporanPendapatanService = laporanPendapatanService;
+        this.rekapPendapatanService = rekapPendapatanService;
+        this.laporanCache = laporanCache;
+        this.partisiPemesananService = partisiPemesananService;
     }
 
     @GetMapping("/pendapatan-harian")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<Object> downloadHarian() {
+    public ResponseEntity<StreamingResponseBody> downloadHarian(
+            @RequestParam(value = "grafik", defaultValue = "true") boolean grafik) {
         try {
-            List<LaporanPendapatanResponse> data = laporanPendapatanService.generateLaporanHarian();
-            if (data == null || data.isEmpty()) {
-                return ResponseEntity.badRequest().body("Data laporan harian tidak tersedia.");
+            byte[] file = laporanPendapatanService.getExcel(LaporanPendapatanService.HARIAN, null, null, grafik);
+            if (file == null) {
+                return pesan(HttpStatus.BAD_REQUEST, "Data laporan harian tidak tersedia.");
             }
-
-            ByteArrayInputStream stream = laporanPendapatanService.generateExcel(data);
-            InputStreamResource file = new InputStreamResource(stream);
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=laporan_harian.xlsx")
-                    .contentType(MediaType
-                            .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(file);
-
+            return unduh(file, "laporan_harian.xlsx");
         } catch (Exception e) {
             e.printStackTrace();
-            return ResponseEntity.internalServerError().body("Gagal mengunduh laporan harian.");
+            return pesan(HttpStatus.INTERNAL_SERVER_ERROR, "Gagal mengunduh laporan harian.");
         }
     }
 
     @GetMapping("/pendapatan-mingguan")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<Object> downloadMingguan() {
+    public ResponseEntity<StreamingResponseBody> downloadMingguan(
+            @RequestParam(value = "grafik", defaultValue = "true") boolean grafik) {
         try {
-            List<LaporanPendapatanResponse> laporanList = laporanPendapatanService.generateLaporanMingguan();
-            if (laporanList.isEmpty() || laporanList.stream().allMatch(laporan -> laporan.getPendapatan() == null)) {
-                return ResponseEntity.badRequest().body("Data laporan mingguan tidak tersedia.");
+            byte[] file = laporanPendapatanService.getExcel(LaporanPendapatanService.MINGGUAN, null, null, grafik);
+            if (file == null) {
+                return pesan(HttpStatus.BAD_REQUEST, "Data laporan mingguan tidak tersedia.");
             }
-
-            ByteArrayInputStream stream = laporanPendapatanService.generateExcel(laporanList);
-            InputStreamResource file = new InputStreamResource(stream);
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=laporan_mingguan.xlsx")
-                    .contentType(MediaType
-                            .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(file);
-
+            return unduh(file, "laporan_mingguan.xlsx");
         } catch (Exception e) {
             e.printStackTrace();
-            return ResponseEntity.internalServerError().body("Gagal mengunduh laporan mingguan.");
+            return pesan(HttpStatus.INTERNAL_SERVER_ERROR, "Gagal mengunduh laporan mingguan.");
         }
     }
 
     @GetMapping("/pendapatan-bulanan")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<Object> downloadBulanan() {
+    public ResponseEntity<StreamingResponseBody> downloadBulanan(
+            @RequestParam(value = "grafik", defaultValue = "true") boolean grafik) {
         try {
-            List<LaporanPendapatanResponse> data = laporanPendapatanService.generateLaporanBulanan();
-            if (data.isEmpty()) {
-                return ResponseEntity.badRequest().body("Data laporan bulanan tidak tersedia.");
+            byte[] file = laporanPendapatanService.getExcel(LaporanPendapatanService.BULANAN, null, null, grafik);
+            if (file == null) {
+                return pesan(HttpStatus.BAD_REQUEST, "Data laporan bulanan tidak tersedia.");
             }
-
-            ByteArrayInputStream stream = laporanPendapatanService.generateExcel(data);
-            InputStreamResource file = new InputStreamResource(stream);
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=laporan_bulanan.xlsx")
-                    .contentType(MediaType
-                            .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(file);
-
+            return unduh(file, "laporan_bulanan.xlsx");
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Gagal mengunduh laporan bulanan.");
+            return pesan(HttpStatus.INTERNAL_SERVER_ERROR, "Gagal mengunduh laporan bulanan.");
         }
     }
 
     @GetMapping("/pendapatan-tahunan")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<Object> downloadTahunan() {
+    public ResponseEntity<StreamingResponseBody> downloadTahunan(
+            @RequestParam(value = "grafik", defaultValue = "true") boolean grafik) {
         try {
-            List<LaporanPendapatanResponse> dataList = laporanPendapatanService.generateLaporanTahunan();
-            if (dataList.isEmpty()) {
-                return ResponseEntity.badRequest().body("Data laporan tahunan tidak tersedia.");
+            byte[] file = laporanPendapatanService.getExcel(LaporanPendapatanService.TAHUNAN, null, null, grafik);
+            if (file == null) {
+                return pesan(HttpStatus.BAD_REQUEST, "Data laporan tahunan tidak tersedia.");
             }
-
-            ByteArrayInputStream stream = laporanPendapatanService.generateExcel(dataList);
-            InputStreamResource file = new InputStreamResource(stream);
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=laporan_tahunan.xlsx")
-                    .contentType(MediaType
-                            .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(file);
-
+            return unduh(file, "laporan_tahunan.xlsx");
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Gagal mengunduh laporan tahunan.");
+            return pesan(HttpStatus.INTERNAL_SERVER_ERROR, "Gagal mengunduh laporan tahunan.");
         }
     }
 
     @GetMapping("/pendapatan-permintaan")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<Object> laporanPendapatan(
+    public ResponseEntity<StreamingResponseBody> laporanPendapatan(
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "grafik", defaultValue = "true") boolean grafik) {
+        try {
+            byte[] file = laporanPendapatanService.getExcel(LaporanPendapatanService.PERMINTAAN, startDate, endDate,
+                    grafik);
+            if (file == null) {
+                return pesan(HttpStatus.NO_CONTENT, "Tidak ada data untuk periode ini.");
+            }
+            return unduh(file, "laporan_pendapatan.xlsx");
+        } catch (Exception e) {
+            return pesan(HttpStatus.INTERNAL_SERVER_ERROR, "Gagal mengunduh laporan.");
+        }
+    }
+
+    @GetMapping("/heatmap")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> heatmap(
             @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         try {
-            List<LaporanPendapatanResponse> data = laporanPendapatanService.laporanPendapatan(startDate, endDate);
+            HeatmapPenjualanResponse response = laporanPendapatanService.getHeatmap(startDate, endDate);
+            return ResponseEntity.ok().body(GenericResponse.success(response, "Heatmap penjualan per hari dan jam"));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(GenericResponse.error(e.getMessage()));
+        }
+    }
 
-            if (data.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body("Tidak ada data untuk periode ini.");
-            }
+    @GetMapping("/heatmap/excel")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<StreamingResponseBody> downloadHeatmap(
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "nilai", defaultValue = "transaksi") String nilai) {
+        HeatmapPenjualanResponse heatmap;
+        try {
+            heatmap = laporanPendapatanService.getHeatmap(startDate, endDate);
+        } catch (ResponseStatusException e) {
+            return pesan(HttpStatus.BAD_REQUEST, e.getReason());
+        }
+        boolean pendapatan = "pendapatan".equalsIgnoreCase(nilai);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=heatmap_" + (pendapatan ? "pendapatan" : "transaksi") + ".xlsx")
+                .contentType(MediaType
+                        .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(out -> laporanPendapatanService.writeHeatmapExcel(heatmap, pendapatan, out));
+    }
 
-            ByteArrayInputStream stream = laporanPendapatanService.generateExcel(data);
-            InputStreamResource file = new InputStreamResource(stream);
+    private ResponseEntity<StreamingResponseBody> unduh(byte[] file, String namaFile) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + namaFile)
+                .contentType(MediaType
+                        .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .contentLength(file.length)
+                .body(out -> out.write(file));
+    }
+
+    private ResponseEntity<StreamingResponseBody> pesan(HttpStatus status, String pesan) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(out -> out.write(pesan.getBytes(StandardCharsets.UTF_8)));
+    }
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=laporan_pendapatan.xlsx")
-                    .contentType(MediaType
-                            .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(file);
+    @PostMapping("/rekap/rebuild")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> rebuildRekap() {
+        try {
+            RebuildRekapResponse response = rekapPendapatanService.rebuild();
+            return ResponseEntity.ok().body(GenericResponse.success(response, "Rekap pendapatan berhasil dihitung ulang"));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(GenericResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/cache/metrics")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> cacheMetrics() {
+        return ResponseEntity.ok()
+                .body(GenericResponse.success(laporanCache.getMetrics(), "Statistik cache laporan pendapatan"));
+    }
+
+    @PostMapping("/partisi")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> siapkanPartisi() {
+        try {
+            int dibuat = partisiPemesananService.siapkanPartisi();
+            return ResponseEntity.ok().body(GenericResponse.success(dibuat, dibuat + " partisi baru dibuat"));
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Gagal mengunduh laporan.");
+            return ResponseEntity.internalServerError().body(GenericResponse.error(e.getMessage()));
         }
     }
-}
\ No newline at end of file
+}
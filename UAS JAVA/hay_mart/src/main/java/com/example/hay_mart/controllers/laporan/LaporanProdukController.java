@@ -1,14 +1,29 @@
 package com.example.hay_mart.controllers.laporan;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.example.hay_mart.dto.PageResponse;
 import com.example.hay_mart.dto.GenericResponse;
 import com.example.hay_mart.dto.laporan.LaporanProdukResponse;
+import com.example.hay_mart.dto.laporan.ProdukTerlarisResponse;
+import com.example.hay_mart.dto.laporan.RekonsiliasiProdukResponse;
 import com.example.hay_mart.services.laporan.LaporanProdukService;
+import com.example.hay_mart.services.laporan.RekonsiliasiProdukService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.extern.slf4j.Slf4j;
 
 @RestController
@@ -19,6 +34,9 @@ public class LaporanProdukController {
     @Autowired
     private LaporanProdukService laporanProdukService;
 
+    @Autowired
+    private RekonsiliasiProdukService rekonsiliasiProdukService;
+
     @GetMapping("laporan-produk")
     public ResponseEntity<GenericResponse<List<LaporanProdukResponse>>> getLaporanProduk() {
         List<LaporanProdukResponse> data = laporanProdukService.getLaporanProduk();
@@ -29,4 +47,99 @@ public class LaporanProdukController {
             return ResponseEntity.internalServerError().body(GenericResponse.error("Internal Server Error!"));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/produk")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> getLaporanProdukPage(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String sortOrder) {
+        try {
+            PageResponse<LaporanProdukResponse> response = laporanProdukService.getLaporanProduk(page, size, sortBy,
+                    sortOrder);
+            return ResponseEntity.ok().body(GenericResponse.success(response, "Laporan produk"));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            log.info(e.getMessage());
+            return ResponseEntity.internalServerError().body(GenericResponse.error("Internal Server Error!"));
+        }
+    }
+
+    @GetMapping("/produk/export")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<StreamingResponseBody> exportLaporanProduk(
+            @RequestParam(defaultValue = LaporanProdukService.FORMAT_XLSX) String format,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String sortOrder) {
+        String jenis = format.toLowerCase();
+        MediaType mediaType;
+        if (LaporanProdukService.FORMAT_CSV.equals(jenis)) {
+            mediaType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+        } else if (LaporanProdukService.FORMAT_XLSX.equals(jenis)) {
+            mediaType = MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        } else {
+            return pesan(HttpStatus.BAD_REQUEST, "format harus csv atau xlsx");
+        }
+        // Validasi sortBy sebelum respons mulai dikirim
+        if (sortBy != null && !sortBy.isBlank() && !LaporanProdukService.KOLOM_URUT.contains(sortBy)) {
+            return pesan(HttpStatus.BAD_REQUEST,
+                    "sortBy harus salah satu dari: " + String.join(", ", LaporanProdukService.KOLOM_URUT));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=laporan_produk." + jenis)
+                .contentType(mediaType)
+                .body(out -> laporanProdukService.export(jenis, sortBy, sortOrder, out));
+    }
+
+    @PostMapping("/produk/rekonsiliasi")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> mulaiRekonsiliasi() {
+        try {
+            RekonsiliasiProdukResponse response = rekonsiliasiProdukService.mulai();
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(GenericResponse.success(response, "Rekonsiliasi laporan produk dimulai"));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            log.info(e.getMessage());
+            return ResponseEntity.internalServerError().body(GenericResponse.error("Internal Server Error!"));
+        }
+    }
+
+    @GetMapping("/produk/rekonsiliasi")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> statusRekonsiliasi() {
+        try {
+            RekonsiliasiProdukResponse response = rekonsiliasiProdukService.getStatus();
+            return ResponseEntity.ok().body(GenericResponse.success(response, "Status rekonsiliasi laporan produk"));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> pesan(HttpStatus status, String pesan) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(out -> out.write(pesan.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @GetMapping("/produk/top")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> getProdukTerlaris(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "n", defaultValue = "10") int n,
+            @RequestParam(value = "urut", defaultValue = "jumlah") String urut) {
+        try {
+            List<ProdukTerlarisResponse> data = laporanProdukService.getProdukTerlaris(from, to, n, urut);
+            return ResponseEntity.ok().body(GenericResponse.success(data, "Produk terlaris " + from + " - " + to));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            log.info(e.getMessage());
+            return ResponseEntity.internalServerError().body(GenericResponse.error("Internal Server Error!"));
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import com.example.hay_mart.config.RuteDataSource;
 import com.example.hay_mart.dto.GenericResponse;
 import com.example.hay_mart.dto.pemesanan.PemesananRequest;
 import com.example.hay_mart.dto.pemesanan.PemesananResponse;
@@ -42,7 +43,11 @@ public class PemesananController {
 
     @GetMapping("/history")
     public ResponseEntity<GenericResponse<List<PemesananResponse>>> getHistory() {
-        List<PemesananResponse> data = pemesananService.getRiwayatPemesanan();
+        // Kasir melihat riwayat tepat setelah transaksi, jadi dibaca dari primary
+        List<PemesananResponse> data;
+        try (RuteDataSource.Penanda segar = RuteDataSource.segar()) {
+            data = pemesananService.getRiwayatPemesanan();
+        }
         try {
             return ResponseEntity.ok(GenericResponse.success(data, "Historys"));
         } catch (Exception e) {
@@ -54,7 +59,10 @@ public class PemesananController {
     @GetMapping("/struk/{pemesananId}")
     public ResponseEntity<byte[]> downloadStruk(@PathVariable Integer pemesananId) {
         try {
-            ByteArrayOutputStream pdfStream = pemesananService.generateStrukPdf(pemesananId);
+            ByteArrayOutputStream pdfStream;
+            try (RuteDataSource.Penanda segar = RuteDataSource.segar()) {
+                pdfStream = pemesananService.generateStrukPdf(pemesananId);
+            }
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
@@ -1,5 +1,7 @@
 package com.example.hay_mart.controllers.produk;
 
+import java.io.ByteArrayInputStream;
+import java.net.URLConnection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -9,8 +11,12 @@ import org.springframework.web.server.ResponseStatusException;
 
 import com.example.hay_mart.dto.GenericResponse;
 import com.example.hay_mart.dto.PageResponse;
+import com.example.hay_mart.dto.produk.BulkAdjustRequest;
+import com.example.hay_mart.dto.produk.ImportProdukResponse;
+import com.example.hay_mart.dto.produk.ProdukFacetResponse;
 import com.example.hay_mart.dto.produk.ProdukRequest;
 import com.example.hay_mart.dto.produk.ProdukResponse;
+import com.example.hay_mart.services.produk.ProdukImportService;
 import com.example.hay_mart.services.produk.ProdukService;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -24,6 +30,9 @@ public class ProdukController {
     @Autowired
     ProdukService produkService;
 
+    @Autowired
+    ProdukImportService produkImportService;
+
     @PostMapping(value = "/create", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Object> create(ProdukRequest prequest,
             @RequestParam("Product Image") MultipartFile file) {
@@ -38,6 +47,22 @@ public class ProdukController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> importProduk(@RequestParam("file") MultipartFile file) {
+        try {
+            ImportProdukResponse response = produkImportService.importProduk(file);
+            return ResponseEntity.ok().body(GenericResponse.success(response,
+                    "Import selesai: " + response.getBerhasil() + " berhasil, " + response.getGagal() + " gagal"));
+        } catch (ResponseStatusException e) {
+            log.info(e.getMessage());
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            log.error("Error saat import produk: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(GenericResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/get-produk-page")
     public ResponseEntity<Object> getProdukPagEntity() {
         try {
@@ -69,6 +94,52 @@ public class ProdukController {
         }
     }
 
+    @GetMapping("/facets")
+    public ResponseEntity<Object> getFacets(
+            @RequestParam(required = false) String nama,
+            @RequestParam(required = false) String kategori,
+            @RequestParam(required = false) Integer minPrice,
+            @RequestParam(required = false) Integer maxPrice,
+            @RequestParam(required = false) int[] batasHarga) {
+        try {
+            ProdukFacetResponse response = produkService.getFacets(nama, kategori, minPrice, maxPrice, batasHarga);
+            return ResponseEntity.ok().body(GenericResponse.success(response, "Berhasil mengambil facet produk"));
+        } catch (Exception e) {
+            log.error("Error saat mengambil facet produk: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(GenericResponse.error("Gagal mengambil facet produk"));
+        }
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<Object> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        try {
+            return ResponseEntity.ok().body(GenericResponse.success(produkService.getChanges(since, limit),
+                    "Berhasil mengambil perubahan produk"));
+        } catch (Exception e) {
+            log.error("Error saat mengambil perubahan produk: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(GenericResponse.error("Gagal mengambil perubahan produk"));
+        }
+    }
+
+    @GetMapping("/image/{id}")
+    public ResponseEntity<Object> getImage(@PathVariable int id) {
+        try {
+            byte[] image = produkService.getImage(id);
+            String jenis = URLConnection.guessContentTypeFromStream(new ByteArrayInputStream(image));
+            return ResponseEntity.ok()
+                    .contentType(jenis != null ? MediaType.parseMediaType(jenis) : MediaType.APPLICATION_OCTET_STREAM)
+                    .body(image);
+        } catch (ResponseStatusException e) {
+            log.info(e.getMessage());
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            log.error("Error saat mengambil foto produk: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(GenericResponse.error("Gagal mengambil foto produk"));
+        }
+    }
+
     @PutMapping(value = "/update/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @SecurityRequirement(name = "Bearer Authentication")
     public ResponseEntity<Object> update(
@@ -87,6 +158,21 @@ public class ProdukController {
         }
     }
 
+    @PutMapping("/bulk-adjust")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Object> bulkAdjust(@RequestBody BulkAdjustRequest request) {
+        try {
+            int jumlah = produkService.bulkAdjust(request);
+            return ResponseEntity.ok().body(GenericResponse.success(jumlah, jumlah + " produk berhasil disesuaikan"));
+        } catch (ResponseStatusException e) {
+            log.info(e.getMessage());
+            return ResponseEntity.status(e.getStatusCode()).body(GenericResponse.error(e.getReason()));
+        } catch (Exception e) {
+            log.error("Error saat penyesuaian massal produk: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(GenericResponse.error("Gagal menyesuaikan produk"));
+        }
+    }
+
     @DeleteMapping("/delete-produk/{id}")
     public ResponseEntity<Object> deleteProduk(@PathVariable Integer id) {
         try {
@@ -0,0 +1,9 @@
+package com.example.hay_mart.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+import com.example.hay_mart.dto.laporan.LaporanKasirResponse;
+
+public interface LaporanKasirDao {
+    List<LaporanKasirResponse> getPerKasir(LocalDate startDate, LocalDate endDate, String satuan);
+}
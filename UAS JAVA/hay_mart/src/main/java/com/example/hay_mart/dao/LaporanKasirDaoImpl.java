@@ -0,0 +1,66 @@
+package com.example.hay_mart.dao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import com.example.hay_mart.dto.laporan.LaporanKasirResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * Kinerja kasir per periode dari rekap HARI. Satu query GROUP BY untuk seluruh kasir;
+ * periode bisa per hari, per bulan, atau total untuk seluruh rentang.
+ */
+@Repository
+public class LaporanKasirDaoImpl implements LaporanKasirDao {
+    public static final String SATUAN_TOTAL = "total";
+    public static final String SATUAN_HARI = "hari";
+    public static final String SATUAN_BULAN = "bulan";
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Override
+    public List<LaporanKasirResponse> getPerKasir(LocalDate startDate, LocalDate endDate, String satuan) {
+        String periode = switch (satuan) {
+            case SATUAN_HARI -> "DATE_FORMAT(r.periode, '%Y-%m-%d')";
+            case SATUAN_BULAN -> "DATE_FORMAT(r.periode, '%Y-%m')";
+            default -> "'" + startDate + " - " + endDate + "'";
+        };
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT " + periode + " AS periode_laporan, r.kasir_id, u.nama, "
+                        + "SUM(r.jumlah_transaksi), SUM(r.pendapatan), SUM(r.jumlah_item) "
+                        + "FROM rekap_pendapatan r JOIN user u ON u.user_id = r.kasir_id "
+                        + "WHERE r.grain = 'HARI' AND r.periode >= :start AND r.periode < :end "
+                        + "GROUP BY periode_laporan, r.kasir_id, u.nama "
+                        + "ORDER BY periode_laporan, SUM(r.pendapatan) DESC");
+        query.setParameter("start", startDate.atStartOfDay());
+        query.setParameter("end", endDate.plusDays(1).atStartOfDay());
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        List<LaporanKasirResponse> hasil = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            long transaksi = ((Number) row[3]).longValue();
+            long pendapatan = ((Number) row[4]).longValue();
+            hasil.add(LaporanKasirResponse.builder()
+                    .periode((String) row[0])
+                    .kasirId(((Number) row[1]).intValue())
+                    .namaKasir((String) row[2])
+                    .jumlahTransaksi(transaksi)
+                    .pendapatan(pendapatan)
+                    .jumlahItem(((Number) row[5]).longValue())
+                    .rataRataBelanja(transaksi > 0
+                            ? BigDecimal.valueOf(pendapatan).divide(BigDecimal.valueOf(transaksi), 2,
+                                    RoundingMode.HALF_UP)
+                            : BigDecimal.ZERO.setScale(2))
+                    .build());
+        }
+        return hasil;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.hay_mart.dao;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import com.example.hay_mart.dto.laporan.DeretPendapatan;
+import com.example.hay_mart.dto.laporan.HeatmapPenjualanResponse;
+
+public interface LaporanPendapatanDao {
+    DeretPendapatan deretMingguan(LocalDate seninAwal, int jumlahMinggu);
+
+    DeretPendapatan deretBulanan(YearMonth bulanAwal, int jumlahBulan);
+
+    DeretPendapatan deretTahunan(int tahunAwal, int jumlahTahun);
+
+    HeatmapPenjualanResponse heatmap(LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,119 @@
+package com.example.hay_mart.dao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import com.example.hay_mart.dto.laporan.DeretPendapatan;
+import com.example.hay_mart.dto.laporan.HeatmapPenjualanResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * Query laporan pendapatan yang mengembalikan seluruh deret periode dalam satu
+ * GROUP BY di atas tabel rekap_pendapatan (mingguan dari rekap HARI, bulanan dan
+ * tahunan dari rekap BULAN). Kolom pertama hasil query adalah nomor periode relatif terhadap
+ * awal rentang, sehingga bisa langsung dipakai sebagai index array.
+ */
+@Repository
+public class LaporanPendapatanDaoImpl implements LaporanPendapatanDao {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Override
+    public DeretPendapatan deretMingguan(LocalDate seninAwal, int jumlahMinggu) {
+        Query query = entityManager.createNativeQuery(
+                "SELECT FLOOR(DATEDIFF(r.periode, :awal) / 7) AS periode_ke, "
+                        + "SUM(r.jumlah_transaksi), SUM(r.pendapatan) "
+                        + "FROM rekap_pendapatan r "
+                        + "WHERE r.grain = 'HARI' AND r.periode >= :awal AND r.periode < :akhir "
+                        + "GROUP BY periode_ke");
+        query.setParameter("awal", seninAwal.atStartOfDay());
+        query.setParameter("akhir", seninAwal.plusWeeks(jumlahMinggu).atStartOfDay());
+        return kumpulkan(query, jumlahMinggu);
+    }
+
+    @Override
+    public DeretPendapatan deretBulanan(YearMonth bulanAwal, int jumlahBulan) {
+        Query query = entityManager.createNativeQuery(
+                "SELECT PERIOD_DIFF(EXTRACT(YEAR_MONTH FROM r.periode), :periodeAwal) AS periode_ke, "
+                        + "SUM(r.jumlah_transaksi), SUM(r.pendapatan) "
+                        + "FROM rekap_pendapatan r "
+                        + "WHERE r.grain = 'BULAN' AND r.periode >= :awal AND r.periode < :akhir "
+                        + "GROUP BY periode_ke");
+        query.setParameter("periodeAwal", bulanAwal.getYear() * 100 + bulanAwal.getMonthValue());
+        query.setParameter("awal", bulanAwal.atDay(1).atStartOfDay());
+        query.setParameter("akhir", bulanAwal.plusMonths(jumlahBulan).atDay(1).atStartOfDay());
+        return kumpulkan(query, jumlahBulan);
+    }
+
+    @Override
+    public DeretPendapatan deretTahunan(int tahunAwal, int jumlahTahun) {
+        Query query = entityManager.createNativeQuery(
+                "SELECT YEAR(r.periode) - :tahunAwal AS periode_ke, "
+                        + "SUM(r.jumlah_transaksi), SUM(r.pendapatan) "
+                        + "FROM rekap_pendapatan r "
+                        + "WHERE r.grain = 'BULAN' AND r.periode >= :awal AND r.periode < :akhir "
+                        + "GROUP BY periode_ke");
+        query.setParameter("tahunAwal", tahunAwal);
+        query.setParameter("awal", LocalDateTime.of(tahunAwal, 1, 1, 0, 0));
+        query.setParameter("akhir", LocalDateTime.of(tahunAwal + jumlahTahun, 1, 1, 0, 0));
+        return kumpulkan(query, jumlahTahun);
+    }
+
+    /**
+     * Matriks 7x24 dari rekap JAM. Database sudah mengelompokkan per (hari, jam) sehingga
+     * hasil query paling banyak 168 baris yang langsung diisikan ke array long.
+     */
+    @Override
+    public HeatmapPenjualanResponse heatmap(LocalDate startDate, LocalDate endDate) {
+        Query query = entityManager.createNativeQuery(
+                "SELECT WEEKDAY(r.periode) AS hari, HOUR(r.periode) AS jam, "
+                        + "SUM(r.jumlah_transaksi), SUM(r.pendapatan) "
+                        + "FROM rekap_pendapatan r "
+                        + "WHERE r.grain = 'JAM' AND r.periode >= :awal AND r.periode < :akhir "
+                        + "GROUP BY hari, jam");
+        query.setParameter("awal", startDate.atStartOfDay());
+        query.setParameter("akhir", endDate.plusDays(1).atStartOfDay());
+
+        long[][] jumlahTransaksi = new long[7][24];
+        long[][] pendapatan = new long[7][24];
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        for (Object[] row : rows) {
+            int hari = ((Number) row[0]).intValue();
+            int jam = ((Number) row[1]).intValue();
+            jumlahTransaksi[hari][jam] = ((Number) row[2]).longValue();
+            pendapatan[hari][jam] = ((Number) row[3]).longValue();
+        }
+
+        return HeatmapPenjualanResponse.builder()
+                .startDate(startDate.toString())
+                .endDate(endDate.toString())
+                .hari(HeatmapPenjualanResponse.NAMA_HARI)
+                .jumlahTransaksi(jumlahTransaksi)
+                .pendapatan(pendapatan)
+                .build();
+    }
+
+    private DeretPendapatan kumpulkan(Query query, int jumlahPeriode) {
+        long[] jumlahTransaksi = new long[jumlahPeriode];
+        long[] pendapatan = new long[jumlahPeriode];
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        for (Object[] row : rows) {
+            int periode = ((Number) row[0]).intValue();
+            if (periode < 0 || periode >= jumlahPeriode) {
+                continue;
+            }
+            jumlahTransaksi[periode] = ((Number) row[1]).longValue();
+            pendapatan[periode] = ((Number) row[2]).longValue();
+        }
+        return new DeretPendapatan(jumlahTransaksi, pendapatan);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.hay_mart.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+import com.example.hay_mart.dto.laporan.ProdukTerlarisResponse;
+
+public interface LaporanProdukDao {
+    List<ProdukTerlarisResponse> getTerlaris(LocalDate from, LocalDate to, int n, String urut);
+}
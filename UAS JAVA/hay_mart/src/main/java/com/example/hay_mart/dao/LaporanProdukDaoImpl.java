@@ -0,0 +1,113 @@
+package com.example.hay_mart.dao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import com.example.hay_mart.dto.laporan.ProdukTerlarisResponse;
+import com.example.hay_mart.services.arsip.ArsipPemesananService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * Produk terlaris dalam rentang tanggal. Penjualan per produk dijumlahkan oleh database
+ * dengan satu GROUP BY di atas detail_pemesanan; hasilnya dibaca sebagai stream dan disaring
+ * dengan min-heap berukuran n, sehingga memori yang dipakai tetap O(n) berapa pun jumlah
+ * produk di katalog.
+ *
+ * Pemesanan bulan yang sudah diarsipkan tidak ada lagi di tabel; penjualannya dalam rentang
+ * dijumlahkan dari segmen arsip dan digabung per produk sebelum masuk heap, seperti yang
+ * dilakukan rekonsiliasi laporan produk.
+ */
+@Repository
+public class LaporanProdukDaoImpl implements LaporanProdukDao {
+    public static final String URUT_JUMLAH = "jumlah";
+    public static final String URUT_PENDAPATAN = "pendapatan";
+
+    private static final int FETCH_SIZE = 500;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    ArsipPemesananService arsipPemesananService;
+
+    @Override
+    public List<ProdukTerlarisResponse> getTerlaris(LocalDate from, LocalDate to, int n, String urut) {
+        Query query = entityManager.createNativeQuery(
+                "SELECT d.produk_id, p.nama, SUM(d.jumlah), COUNT(DISTINCT d.pemesanan_id), SUM(d.subtotal) "
+                        + "FROM pemesanan o "
+                        + "JOIN detail_pemesanan d ON d.pemesanan_id = o.pemesanan_id "
+                        + "JOIN produk p ON p.produk_id = d.produk_id "
+                        + "WHERE o.tanggal_pembelian >= :awal AND o.tanggal_pembelian < :akhir "
+                        + "AND d.tanggal_pembelian >= :awal AND d.tanggal_pembelian < :akhir "
+                        + "GROUP BY d.produk_id, p.nama");
+        LocalDateTime awal = from.atStartOfDay();
+        LocalDateTime akhir = to.plusDays(1).atStartOfDay();
+        query.setParameter("awal", awal);
+        query.setParameter("akhir", akhir);
+        query.setHint("org.hibernate.fetchSize", FETCH_SIZE);
+
+        int kolomUrut = URUT_PENDAPATAN.equals(urut) ? 4 : 2;
+        // Urutan naik: elemen terkecil di kepala heap dan yang pertama dibuang
+        Comparator<Object[]> urutan = Comparator
+                .<Object[]>comparingLong(row -> ((Number) row[kolomUrut]).longValue())
+                .thenComparing(row -> ((Number) row[0]).intValue(), Comparator.reverseOrder());
+
+        // Produk yang juga ada di tabel dikeluarkan dari map saat digabung; sisanya hanya terjual
+        // di bulan terarsip
+        Map<Integer, Object[]> arsip = arsipPemesananService.penjualanProduk(awal, akhir);
+
+        PriorityQueue<Object[]> heap = new PriorityQueue<>(n + 1, urutan);
+        @SuppressWarnings("unchecked")
+        Stream<Object[]> rows = query.getResultStream();
+        try (rows) {
+            rows.forEach(row -> {
+                Object[] terarsip = arsip.remove(((Number) row[0]).intValue());
+                tawarkan(heap, n, urutan, terarsip != null ? gabung(row, terarsip) : row);
+            });
+        }
+        for (Object[] row : arsip.values()) {
+            tawarkan(heap, n, urutan, row);
+        }
+
+        List<Object[]> teratas = new ArrayList<>(heap);
+        teratas.sort(urutan.reversed());
+
+        List<ProdukTerlarisResponse> hasil = new ArrayList<>(teratas.size());
+        for (Object[] row : teratas) {
+            hasil.add(ProdukTerlarisResponse.builder()
+                    .peringkat(hasil.size() + 1)
+                    .produkId(((Number) row[0]).intValue())
+                    .namaProduk((String) row[1])
+                    .jumlahTerjual(((Number) row[2]).longValue())
+                    .jumlahTransaksi(((Number) row[3]).longValue())
+                    .pendapatan(((Number) row[4]).longValue())
+                    .build());
+        }
+        return hasil;
+    }
+
+    private static void tawarkan(PriorityQueue<Object[]> heap, int n, Comparator<Object[]> urutan, Object[] row) {
+        if (heap.size() < n) {
+            heap.add(row);
+        } else if (urutan.compare(row, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(row);
+        }
+    }
+
+    // Nama dari tabel (nama produk sekarang) dipertahankan, angka dijumlahkan
+    private static Object[] gabung(Object[] row, Object[] terarsip) {
+        return new Object[] { row[0], row[1],
+                ((Number) row[2]).longValue() + ((Number) terarsip[2]).longValue(),
+                ((Number) row[3]).longValue() + ((Number) terarsip[3]).longValue(),
+                ((Number) row[4]).longValue() + ((Number) terarsip[4]).longValue() };
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.hay_mart.dto.laporan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArsipSegmenResponse {
+    private String bulan;
+    private Integer jumlahPemesanan;
+    private Integer jumlahDetail;
+    private Long totalHarga;
+    private Long ukuranByte;
+}
@@ -0,0 +1,19 @@
+package com.example.hay_mart.dto.laporan;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Hasil agregasi pendapatan per periode. Index array adalah urutan periode
+ * dihitung dari periode paling awal (index 0) pada rentang laporan.
+ */
+@Data
+@AllArgsConstructor
+public class DeretPendapatan {
+    private long[] jumlahTransaksi;
+    private long[] pendapatan;
+
+    public int size() {
+        return pendapatan.length;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.hay_mart.dto.laporan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Penjualan per sel (hari, jam). Baris matriks adalah hari dengan urutan {@link #hari}
+ * (Senin = 0), kolom adalah jam 0-23.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeatmapPenjualanResponse {
+    public static final String[] NAMA_HARI = { "Senin", "Selasa", "Rabu", "Kamis", "Jumat", "Sabtu", "Minggu" };
+
+    private String startDate;
+    private String endDate;
+    private String[] hari;
+    private long[][] jumlahTransaksi;
+    private long[][] pendapatan;
+}
@@ -0,0 +1,19 @@
+package com.example.hay_mart.dto.laporan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LaporanCacheMetricsResponse {
+    private Long permintaan;
+    private Long cacheHit;
+    private Long dihitung;
+    private Long digabung;
+    private Integer sedangBerjalan;
+    private Integer jumlahEntri;
+}
@@ -0,0 +1,20 @@
+package com.example.hay_mart.dto.laporan;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LaporanJobRequest {
+    // harian, mingguan, bulanan, tahunan atau pendapatan (rentang startDate - endDate)
+    private String jenis;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    @Builder.Default
+    private Boolean grafik = true;
+}
@@ -0,0 +1,22 @@
+package com.example.hay_mart.dto.laporan;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LaporanJobResponse {
+    private String jobId;
+    private String jenis;
+    private String status;
+    private Integer progress;
+    private String pesan;
+    private LocalDateTime dibuat;
+    private LocalDateTime selesai;
+    private LocalDateTime kedaluwarsa;
+}
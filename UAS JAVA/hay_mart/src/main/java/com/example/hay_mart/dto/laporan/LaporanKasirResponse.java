@@ -0,0 +1,21 @@
+package com.example.hay_mart.dto.laporan;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LaporanKasirResponse {
+    private String periode;
+    private Integer kasirId;
+    private String namaKasir;
+    private Long jumlahTransaksi;
+    private Long pendapatan;
+    private Long jumlahItem;
+    private BigDecimal rataRataBelanja;
+}
@@ -0,0 +1,19 @@
+package com.example.hay_mart.dto.laporan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProdukTerlarisResponse {
+    private Integer peringkat;
+    private Integer produkId;
+    private String namaProduk;
+    private Long jumlahTerjual;
+    private Long jumlahTransaksi;
+    private Long pendapatan;
+}
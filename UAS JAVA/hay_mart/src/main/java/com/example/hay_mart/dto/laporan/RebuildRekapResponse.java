@@ -0,0 +1,16 @@
+package com.example.hay_mart.dto.laporan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RebuildRekapResponse {
+    private Integer jumlahBulan;
+    private Long jumlahBarisJam;
+    private Long durasiMs;
+}
@@ -0,0 +1,24 @@
+package com.example.hay_mart.dto.laporan;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RekonsiliasiProdukResponse {
+    private String status;
+    private Integer jumlahChunk;
+    private Integer chunkSelesai;
+    private Integer progress;
+    private Long produkDiperiksa;
+    private Long barisDiperbaiki;
+    private Long barisDilewati;
+    private LocalDateTime dimulai;
+    private LocalDateTime selesai;
+    private String pesan;
+}
@@ -0,0 +1,15 @@
+package com.example.hay_mart.dto.laporan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RingkasanPendapatan {
+    private Long jumlahTransaksi;
+    private Long totalPendapatan;
+}
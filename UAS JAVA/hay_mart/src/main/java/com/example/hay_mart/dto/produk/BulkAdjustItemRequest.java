@@ -0,0 +1,18 @@
+package com.example.hay_mart.dto.produk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkAdjustItemRequest {
+    private Integer produkId;
+    // "ABSOLUT" (default) mengganti nilai, "DELTA" menambah/mengurangi nilai saat ini
+    private String mode;
+    private Integer stok;
+    private Integer harga;
+}
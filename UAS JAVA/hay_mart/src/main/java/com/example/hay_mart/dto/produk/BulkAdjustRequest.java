@@ -0,0 +1,15 @@
+package com.example.hay_mart.dto.produk;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkAdjustRequest {
+    private List<BulkAdjustItemRequest> items;
+}
@@ -0,0 +1,16 @@
+package com.example.hay_mart.dto.produk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportProdukErrorResponse {
+    private int baris;
+    private String nama;
+    private String pesan;
+}
@@ -0,0 +1,18 @@
+package com.example.hay_mart.dto.produk;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportProdukResponse {
+    private int totalBaris;
+    private int berhasil;
+    private int gagal;
+    private List<ImportProdukErrorResponse> errors;
+}
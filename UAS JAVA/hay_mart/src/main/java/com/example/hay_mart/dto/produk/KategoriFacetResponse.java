@@ -0,0 +1,15 @@
+package com.example.hay_mart.dto.produk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KategoriFacetResponse {
+    private String kategori;
+    private long jumlah;
+}
@@ -0,0 +1,17 @@
+package com.example.hay_mart.dto.produk;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProdukFacetResponse {
+    private long totalItem;
+    private List<KategoriFacetResponse> kategori;
+    private List<HargaFacetResponse> harga;
+}
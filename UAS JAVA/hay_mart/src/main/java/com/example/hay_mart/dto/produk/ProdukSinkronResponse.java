@@ -0,0 +1,25 @@
+package com.example.hay_mart.dto.produk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data produk untuk sinkron klien POS, tanpa foto. Foto diambil terpisah lewat
+ * GET /produk/image/{id} hanya untuk produk yang fotonya perlu diperbarui.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProdukSinkronResponse {
+    private Integer id;
+    private String nama;
+    private Integer harga;
+    private Integer stok;
+    private String keterangan;
+    private String status;
+    private String kategori;
+    private Boolean deleted;
+}
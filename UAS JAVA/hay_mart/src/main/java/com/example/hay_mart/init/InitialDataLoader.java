@@ -21,6 +21,7 @@ import com.example.hay_mart.models.User;
 import com.example.hay_mart.repositorys.KategoriRepository;
 import com.example.hay_mart.repositorys.RoleRepository;
 import com.example.hay_mart.repositorys.UserRepository;
+import com.example.hay_mart.services.referensi.ReferensiDataCache;
 
 @Component
 public class InitialDataLoader implements ApplicationRunner {
@@ -36,6 +37,9 @@ public class InitialDataLoader implements ApplicationRunner {
     @Autowired
     private KategoriRepository kategoriRepository;
 
+    @Autowired
+    private ReferensiDataCache referensiDataCache;
+
     @Override
     public void run(ApplicationArguments args) throws Exception {
         if (roleRepository.findAll().isEmpty()) {
@@ -79,5 +83,7 @@ public class InitialDataLoader implements ApplicationRunner {
             Kategori obatan = new Kategori(null, "Obat-obatan");
             kategoriRepository.saveAll(List.of(makanan, minuman, kecantikan, aksesoris, elektronik, obatan));
         }
+
+        referensiDataCache.refresh();
     }
 }
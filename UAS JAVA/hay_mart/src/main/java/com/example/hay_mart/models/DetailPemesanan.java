@@ -1,8 +1,9 @@
 package com.example.hay_mart.models;
 
-import jakarta.persistence.CascadeType;
+import java.time.LocalDateTime;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -11,7 +12,9 @@ import jakarta.persistence.ManyToOne;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Data
@@ -24,13 +27,19 @@ public class DetailPemesanan {
     @Column(name = "detail_pemesanan_id", nullable = false)
     private Integer detailPemesananId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pemesanan_id", referencedColumnName = "pemesanan_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Pemesanan pemesanan;
 
-    @ManyToOne(cascade = CascadeType.ALL)
-    @JoinColumn(name = "produk_id", referencedColumnName = "produk_id", nullable = false)
-    private Produk produk;
+    // Produk cukup dirujuk lewat id; nama dan harga disalin saat checkout sehingga
+    // riwayat dan struk tidak perlu memuat entity Produk (beserta fotonya)
+    @Column(name = "produk_id", nullable = false)
+    private Integer produkId;
+
+    @Column(name = "nama_produk")
+    private String namaProduk;
 
     @Column(nullable = false)
     private Integer jumlah;
@@ -40,4 +49,8 @@ public class DetailPemesanan {
 
     @Column(nullable = false)
     private Integer subtotal;
+
+    // Salinan tanggal pemesanan, kunci partisi detail_pemesanan
+    @Column(name = "tanggal_pembelian")
+    private LocalDateTime tanggalPembelian;
 }
@@ -9,9 +9,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,22 +24,27 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+// Index dibuat oleh migrasi Flyway (V2__index_query_utama.sql); dicantumkan di sini sebagai dokumentasi
+@Table(indexes = {
+        @Index(name = "idx_pemesanan_tanggal", columnList = "tanggal_pembelian, total_harga"),
+        @Index(name = "idx_pemesanan_kasir_tanggal", columnList = "kasir_id, tanggal_pembelian, total_harga")
+})
 public class Pemesanan {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "pemesanan_id", nullable = false)
     private Integer pemesananId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "kasir_id", referencedColumnName = "user_id", nullable = false)
     private User userKasir;
 
-    @Column(nullable = false)
+    @Column(name = "tanggal_pembelian", nullable = false)
     private LocalDateTime tanggalPembelian;
 
     @Column(nullable = false)
     private Long totalHarga;
 
-    @OneToMany(mappedBy = "pemesanan", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "pemesanan", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<DetailPemesanan> details;
 }
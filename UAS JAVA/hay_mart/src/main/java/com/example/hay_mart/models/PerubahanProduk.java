@@ -0,0 +1,30 @@
+package com.example.hay_mart.models;
+
+import java.time.LocalDateTime;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PerubahanProduk {
+    @Id
+    @Column(name = "versi", nullable = false)
+    private Long versi;
+
+    @Column(nullable = false)
+    private Integer produkId;
+
+    @Column(nullable = false)
+    private String aksi;
+
+    @Column(nullable = false)
+    private LocalDateTime waktu;
+}
@@ -0,0 +1,55 @@
+package com.example.hay_mart.models;
+
+import java.time.LocalDateTime;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rekap pendapatan per periode dan per kasir. Satu baris untuk setiap kombinasi
+ * grain (JAM, HARI, BULAN), awal periode dan kasir; total semua kasir didapat
+ * dengan menjumlahkan baris pada periode yang sama.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_rekap_pendapatan", columnNames = { "grain", "periode",
+        "kasir_id" }))
+public class RekapPendapatan {
+    public static final String JAM = "JAM";
+    public static final String HARI = "HARI";
+    public static final String BULAN = "BULAN";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rekap_id", nullable = false)
+    private Long rekapId;
+
+    @Column(name = "grain", nullable = false, length = 5)
+    private String grain;
+
+    @Column(name = "periode", nullable = false)
+    private LocalDateTime periode;
+
+    @Column(name = "kasir_id", nullable = false)
+    private Integer kasirId;
+
+    @Column(name = "jumlah_transaksi", nullable = false)
+    private Long jumlahTransaksi;
+
+    @Column(name = "pendapatan", nullable = false)
+    private Long pendapatan;
+
+    @Column(name = "jumlah_item", nullable = false)
+    private Long jumlahItem;
+}
@@ -1,12 +1,57 @@
 package com.example.hay_mart.repositorys;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import com.example.hay_mart.dto.laporan.LaporanProdukResponse;
+import jakarta.persistence.QueryHint;
 import com.example.hay_mart.models.LaporanProduk;
 import com.example.hay_mart.models.Produk;
 
 public interface LaporanProdukRepository extends JpaRepository<LaporanProduk, Integer> {
+    // Projection hanya kolom laporan_produk; relasi Produk (foto, kategori) tidak ikut dimuat
+    String PROJEKSI = "SELECT new com.example.hay_mart.dto.laporan.LaporanProdukResponse("
+            + "l.namaProduk, l.jumlahTerjual, l.stok, l.hargaSatuan, l.total, COALESCE(l.deleted, false)) "
+            + "FROM LaporanProduk l";
+
+    @Query(value = PROJEKSI, countQuery = "SELECT COUNT(l) FROM LaporanProduk l")
+    Page<LaporanProdukResponse> findRingkasan(Pageable pageable);
+
+    @Query(PROJEKSI)
+    List<LaporanProdukResponse> findAllRingkasan();
+
+    // Integer.MIN_VALUE membuat driver MySQL membaca baris satu per satu dari server
+    @Query(PROJEKSI)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<LaporanProdukResponse> streamRingkasan(Sort sort);
+
     Optional<LaporanProduk> findByProduk(Produk produk);
 
     LaporanProduk findByProdukProdukId(Integer produkId);
-}
\ No newline at end of file
+
+    // Checkout: tanpa memuat LaporanProduk, yang relasi Produk-nya eager (ikut membaca foto).
+    // Mengembalikan 0 bila produk belum punya baris laporan.
+    @Modifying
+    @Query("UPDATE LaporanProduk l SET l.jumlahTerjual = l.jumlahTerjual + :jumlah, l.total = l.total + :subtotal "
+            + "WHERE l.produk.produkId = :produkId")
+    int tambahPenjualan(@Param("produkId") Integer produkId, @Param("jumlah") Integer jumlah,
+            @Param("subtotal") Integer subtotal);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE laporan_produk l JOIN produk p ON p.produk_id = l.produk_id "
+            + "SET l.stok = p.stok, l.harga_satuan = p.harga WHERE l.produk_id IN (:ids)", nativeQuery = true)
+    int sinkronStokHarga(@Param("ids") Collection<Integer> ids);
+}
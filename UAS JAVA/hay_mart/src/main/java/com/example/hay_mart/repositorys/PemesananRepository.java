@@ -3,15 +3,33 @@ package com.example.hay_mart.repositorys;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import com.example.hay_mart.dto.laporan.RingkasanPendapatan;
 import com.example.hay_mart.models.Pemesanan;
 import com.example.hay_mart.models.User;
+import jakarta.persistence.QueryHint;
 
 public interface PemesananRepository extends JpaRepository<Pemesanan, Integer> {
+        // Detail dan kasir bersifat lazy; method untuk riwayat/struk memuatnya dalam satu query.
+        // Hasilnya hanya dibaca, jadi Hibernate tidak perlu menyimpan snapshot untuk dirty checking.
+        @EntityGraph(attributePaths = { "details" })
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
         List<Pemesanan> findByUserKasir(User userKasir);
 
+        @EntityGraph(attributePaths = { "userKasir", "details" })
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+        @Query("SELECT p FROM Pemesanan p")
+        List<Pemesanan> findAllRiwayat();
+
+        @EntityGraph(attributePaths = { "userKasir", "details" })
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+        Optional<Pemesanan> findStrukByPemesananId(Integer pemesananId);
+
         Optional<Pemesanan> findById(int id);
 
         @Query("SELECT p FROM Pemesanan p WHERE p.tanggalPembelian BETWEEN :startDate AND :endDate")
@@ -22,8 +40,11 @@ public interface PemesananRepository extends JpaRepository<Pemesanan, Integer> {
         List<Pemesanan> bulanan(@Param("user") User user, @Param("start") LocalDateTime start,
                         @Param("end") LocalDateTime end);
 
-        @Query("select p from Pemesanan p where p.userKasir = :user and Year(p.tanggalPembelian) = :year")
-        List<Pemesanan> tahunan(User user, String year);
+        // Rentang langsung pada kolom (bukan YEAR(...)) supaya index dan partisi bisa dipakai
+        @Query("SELECT p FROM Pemesanan p WHERE p.userKasir = :user "
+                        + "AND p.tanggalPembelian >= :start AND p.tanggalPembelian < :end")
+        List<Pemesanan> tahunan(@Param("user") User user, @Param("start") LocalDateTime start,
+                        @Param("end") LocalDateTime end);
 
         @Query("SELECT p FROM Pemesanan p WHERE p.userKasir = :user AND p.tanggalPembelian BETWEEN :start AND :end")
         List<Pemesanan> findByUserAndTanggalPembelianBetween(@Param("user") User user,
@@ -41,4 +62,15 @@ public interface PemesananRepository extends JpaRepository<Pemesanan, Integer> {
         List<Pemesanan> findByUserKasirAndTanggalPembelianBetween(@Param("userKasir") User userKasir,
                         @Param("start") LocalDateTime start,
                         @Param("end") LocalDateTime end);
+
+        @Query("SELECT new com.example.hay_mart.dto.laporan.RingkasanPendapatan(COUNT(p), COALESCE(SUM(p.totalHarga), 0L)) "
+                        + "FROM Pemesanan p WHERE p.tanggalPembelian >= :start AND p.tanggalPembelian < :end")
+        RingkasanPendapatan ringkasanPendapatan(@Param("start") LocalDateTime start,
+                        @Param("end") LocalDateTime end);
+
+        @Query("SELECT MIN(p.tanggalPembelian) FROM Pemesanan p")
+        LocalDateTime findTanggalPertama();
+
+        @Query("SELECT MAX(p.tanggalPembelian) FROM Pemesanan p")
+        LocalDateTime findTanggalTerakhir();
 }
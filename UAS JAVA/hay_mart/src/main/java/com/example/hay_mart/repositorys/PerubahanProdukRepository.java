@@ -0,0 +1,14 @@
+package com.example.hay_mart.repositorys;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import com.example.hay_mart.models.PerubahanProduk;
+
+public interface PerubahanProdukRepository extends JpaRepository<PerubahanProduk, Long> {
+    List<PerubahanProduk> findByVersiGreaterThanOrderByVersiAsc(Long versi, Pageable pageable);
+
+    @Query("select coalesce(max(p.versi), 0) from PerubahanProduk p")
+    Long findVersiTerakhir();
+}
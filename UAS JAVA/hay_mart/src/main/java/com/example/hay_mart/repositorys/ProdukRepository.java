@@ -1,7 +1,12 @@
 package com.example.hay_mart.repositorys;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.example.hay_mart.dto.produk.ProdukSinkronResponse;
 import com.example.hay_mart.models.Produk;
 
 public interface ProdukRepository extends JpaRepository<Produk, Integer> {
@@ -13,4 +18,64 @@ public interface ProdukRepository extends JpaRepository<Produk, Integer> {
     Produk findByNamaIgnoreCaseAndDeletedTrue(String nama);
 
     List<Produk> findByDeletedFalse();
+
+    @Query("select p.produkId from Produk p order by p.produkId")
+    List<Integer> findAllIds();
+
+    @Query("select lower(p.nama) from Produk p where p.deleted is null or p.deleted = false")
+    List<String> findAllNamaLowerAktif();
+
+    @Query("select lower(p.nama), p.produkId from Produk p where p.deleted = true")
+    List<Object[]> findNamaLowerDihapus();
+
+    @Query("select p.produkId, p.nama from Produk p where p.produkId in :ids")
+    List<Object[]> findNamaByIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("select p.produkId, p.nama, p.harga, k.nama, p.deleted from Produk p join p.kategori k")
+    List<Object[]> findFacetRows();
+
+    @Query("select p.produkId, p.nama, p.harga, k.nama, p.deleted from Produk p join p.kategori k where p.produkId in :ids")
+    List<Object[]> findFacetRowsByIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("select new com.example.hay_mart.dto.produk.ProdukSinkronResponse(p.produkId, p.nama, p.harga, "
+            + "p.stok, p.keterangan, p.status, k.nama, p.deleted) from Produk p join p.kategori k where p.produkId in :ids")
+    List<ProdukSinkronResponse> findSinkronByIds(@Param("ids") Collection<Integer> ids);
+
+    // Checkout hanya butuh kolom ini; memuat entity Produk ikut membaca foto_produk
+    @Query("select p.produkId, p.nama, p.harga, p.stok from Produk p where p.produkId in :ids")
+    List<Object[]> findCheckoutRows(@Param("ids") Collection<Integer> ids);
+
+    // Status dihitung dari stok sebelum dikurangi: MySQL mengevaluasi SET dari kiri ke kanan.
+    // Mengembalikan 0 bila stok tidak cukup, termasuk bila stok berubah setelah dibaca.
+    @Modifying
+    @Query("update Produk p set p.status = case when p.stok = :jumlah then 'Tidak Tersedia' else p.status end, "
+            + "p.stok = p.stok - :jumlah where p.produkId = :id and p.stok >= :jumlah")
+    int kurangiStok(@Param("id") Integer id, @Param("jumlah") Integer jumlah);
+
+    @Query("select p.produkId from Produk p where p.produkId in :ids and p.deleted = false")
+    List<Integer> findAktifIds(@Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Produk p set p.stok = :stok where p.produkId in :ids")
+    int setStok(@Param("stok") Integer stok, @Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Produk p set p.stok = p.stok + :delta where p.produkId in :ids")
+    int tambahStok(@Param("delta") Integer delta, @Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Produk p set p.harga = :harga where p.produkId in :ids")
+    int setHarga(@Param("harga") Integer harga, @Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Produk p set p.harga = p.harga + :delta where p.produkId in :ids")
+    int tambahHarga(@Param("delta") Integer delta, @Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Produk p set p.status = case when p.stok > 0 then 'Tersedia' else 'Tidak Tersedia' end "
+            + "where p.produkId in :ids")
+    int perbaruiStatus(@Param("ids") Collection<Integer> ids);
+
+    @Query("select count(p) from Produk p where p.produkId in :ids and (p.stok < 0 or p.harga < 0)")
+    long countNilaiNegatif(@Param("ids") Collection<Integer> ids);
 }
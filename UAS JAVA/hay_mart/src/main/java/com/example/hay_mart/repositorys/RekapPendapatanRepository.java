@@ -0,0 +1,77 @@
+package com.example.hay_mart.repositorys;
+
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.example.hay_mart.dto.laporan.RingkasanPendapatan;
+import com.example.hay_mart.models.RekapPendapatan;
+
+public interface RekapPendapatanRepository extends JpaRepository<RekapPendapatan, Long> {
+
+        @Query("SELECT new com.example.hay_mart.dto.laporan.RingkasanPendapatan("
+                        + "COALESCE(SUM(r.jumlahTransaksi), 0L), COALESCE(SUM(r.pendapatan), 0L)) "
+                        + "FROM RekapPendapatan r "
+                        + "WHERE r.grain = :grain AND r.periode >= :start AND r.periode < :end")
+        RingkasanPendapatan ringkasan(@Param("grain") String grain,
+                        @Param("start") LocalDateTime start,
+                        @Param("end") LocalDateTime end);
+
+        @Modifying
+        @Query(value = "INSERT INTO rekap_pendapatan "
+                        + "(grain, periode, kasir_id, jumlah_transaksi, pendapatan, jumlah_item) "
+                        + "VALUES (:grain, :periode, :kasirId, 1, :pendapatan, :jumlahItem) "
+                        + "ON DUPLICATE KEY UPDATE jumlah_transaksi = jumlah_transaksi + 1, "
+                        + "pendapatan = pendapatan + VALUES(pendapatan), "
+                        + "jumlah_item = jumlah_item + VALUES(jumlah_item)", nativeQuery = true)
+        void tambah(@Param("grain") String grain,
+                        @Param("periode") LocalDateTime periode,
+                        @Param("kasirId") Integer kasirId,
+                        @Param("pendapatan") long pendapatan,
+                        @Param("jumlahItem") long jumlahItem);
+
+        @Modifying
+        @Query(value = "INSERT INTO rekap_pendapatan "
+                        + "(grain, periode, kasir_id, jumlah_transaksi, pendapatan, jumlah_item) "
+                        + "VALUES (:grain, :periode, :kasirId, :jumlahTransaksi, :pendapatan, :jumlahItem)",
+                        nativeQuery = true)
+        void simpan(@Param("grain") String grain,
+                        @Param("periode") LocalDateTime periode,
+                        @Param("kasirId") Integer kasirId,
+                        @Param("jumlahTransaksi") long jumlahTransaksi,
+                        @Param("pendapatan") long pendapatan,
+                        @Param("jumlahItem") long jumlahItem);
+
+        @Modifying
+        @Query(value = "DELETE FROM rekap_pendapatan WHERE periode >= :start AND periode < :end", nativeQuery = true)
+        int hapusRentang(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+        @Modifying
+        @Query(value = "INSERT INTO rekap_pendapatan "
+                        + "(grain, periode, kasir_id, jumlah_transaksi, pendapatan, jumlah_item) "
+                        + "SELECT 'JAM', DATE_FORMAT(p.tanggal_pembelian, '%Y-%m-%d %H:00:00'), p.kasir_id, "
+                        + "COUNT(*), SUM(p.total_harga), COALESCE(SUM(d.jumlah_item), 0) "
+                        + "FROM pemesanan p "
+                        + "LEFT JOIN (SELECT dp.pemesanan_id, SUM(dp.jumlah) AS jumlah_item "
+                        + "FROM detail_pemesanan dp "
+                        + "WHERE dp.tanggal_pembelian >= :start AND dp.tanggal_pembelian < :end "
+                        + "GROUP BY dp.pemesanan_id) d ON d.pemesanan_id = p.pemesanan_id "
+                        + "WHERE p.tanggal_pembelian >= :start AND p.tanggal_pembelian < :end "
+                        + "GROUP BY 2, 3", nativeQuery = true)
+        int isiPerJam(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+        // Rekap harian dan bulanan diturunkan dari rekap per jam pada rentang yang sama
+        @Modifying
+        @Query(value = "INSERT INTO rekap_pendapatan "
+                        + "(grain, periode, kasir_id, jumlah_transaksi, pendapatan, jumlah_item) "
+                        + "SELECT :grain, DATE_FORMAT(r.periode, :format), r.kasir_id, "
+                        + "SUM(r.jumlah_transaksi), SUM(r.pendapatan), SUM(r.jumlah_item) "
+                        + "FROM rekap_pendapatan r "
+                        + "WHERE r.grain = 'JAM' AND r.periode >= :start AND r.periode < :end "
+                        + "GROUP BY 2, 3", nativeQuery = true)
+        int isiDariJam(@Param("grain") String grain,
+                        @Param("format") String format,
+                        @Param("start") LocalDateTime start,
+                        @Param("end") LocalDateTime end);
+}
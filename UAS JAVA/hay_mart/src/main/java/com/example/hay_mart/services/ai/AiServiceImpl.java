@@ -1,14 +1,18 @@
 package com.example.hay_mart.services.ai;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 import com.example.hay_mart.dto.ai.PromptRequestAi;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 
@@ -20,6 +24,12 @@ public class AiServiceImpl implements AiService {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Query buatan AI dijalankan read-only: diarahkan ke replika bila ada, dan koneksinya menolak tulis
+    private TransactionTemplate bacaSaja;
+
     private final Random random = new Random();
 
     @Value("${spring.ai.openai.api-key}")
@@ -29,6 +39,12 @@ public class AiServiceImpl implements AiService {
     private final RestTemplate restTemplate = new RestTemplate();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @PostConstruct
+    void init() {
+        bacaSaja = new TransactionTemplate(transactionManager);
+        bacaSaja.setReadOnly(true);
+    }
+
     private static final String DB_SCHEMA = """
             Database Schema (MySQL):
 
@@ -74,9 +90,11 @@ public class AiServiceImpl implements AiService {
             - detail_pemesanan_id (INT, PK)
             - pemesanan_id (FK ke pemesanan.pemesanan_id)
             - produk_id (FK ke produk.produk_id)
+            - nama_produk (VARCHAR, nama produk saat transaksi)
             - jumlah (INT)
             - harga_satuan (INT)
             - subtotal (INT)
+            - tanggal_pembelian (DATETIME, sama dengan pemesanan.tanggal_pembelian)
 
             Tabel: laporan_produk
             - laporan_produk_id (INT, PK)
@@ -123,7 +141,7 @@ public class AiServiceImpl implements AiService {
             }
 
             // 3. Eksekusi query
-            List<?> result = entityManager.createNativeQuery(sql).getResultList();
+            List<?> result = bacaSaja.execute(status -> entityManager.createNativeQuery(sql).getResultList());
 
             if (result.isEmpty()) {
                 return "📭 Tidak ada data ditemukan untuk pertanyaan: \"" + userPrompt + "\"";
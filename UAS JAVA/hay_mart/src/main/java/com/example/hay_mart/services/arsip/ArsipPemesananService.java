@@ -0,0 +1,30 @@
+package com.example.hay_mart.services.arsip;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import com.example.hay_mart.dto.laporan.ArsipSegmenResponse;
+import com.example.hay_mart.dto.pemesanan.PemesananResponse;
+
+public interface ArsipPemesananService {
+    List<ArsipSegmenResponse> arsipkan();
+
+    List<ArsipSegmenResponse> daftar();
+
+    PemesananResponse cari(int pemesananId);
+
+    List<YearMonth> bulanTerarsip();
+
+    /** Baris {jam (LocalDateTime), kasirId, jumlahTransaksi, pendapatan, jumlahItem} per jam per kasir. */
+    List<Object[]> rekapPerJam(YearMonth bulan);
+
+    /** Per produk: {jumlah terjual, total subtotal} dari seluruh segmen arsip. */
+    Map<Integer, long[]> penjualanProduk();
+
+    /**
+     * Per produk dari pemesanan arsip dengan tanggal di [awal, akhir): {produkId, nama,
+     * jumlah terjual, jumlah transaksi, total subtotal}. Map baru setiap panggilan.
+     */
+    Map<Integer, Object[]> penjualanProduk(LocalDateTime awal, LocalDateTime akhir);
+}
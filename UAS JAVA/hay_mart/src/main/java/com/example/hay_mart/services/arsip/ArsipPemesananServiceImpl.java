@@ -0,0 +1,424 @@
+package com.example.hay_mart.services.arsip;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import com.example.hay_mart.dto.laporan.ArsipSegmenResponse;
+import com.example.hay_mart.dto.pemesanan.DetailPemesananResponse;
+import com.example.hay_mart.dto.pemesanan.PemesananResponse;
+import com.example.hay_mart.repositorys.PemesananRepository;
+import com.example.hay_mart.repositorys.ProdukRepository;
+import com.example.hay_mart.repositorys.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Memindahkan pemesanan bulan yang sudah lama tertutup dari tabel ke file segmen arsip
+ * ({@link SegmenPemesanan}). Rekap pendapatan dan laporan_produk tidak disentuh, sehingga
+ * laporan historis tetap berjalan; data mentah arsip tetap bisa dicari per id dan
+ * diagregasi ulang saat rebuild rekap atau rekonsiliasi laporan produk.
+ *
+ * Segmen ditulis dan diverifikasi lebih dulu, baru baris di tabel dihapus. Bila proses
+ * berhenti di tengah, run berikutnya melihat segmen sudah ada dan hanya menyelesaikan
+ * penghapusan.
+ */
+@Service
+@Slf4j
+public class ArsipPemesananServiceImpl implements ArsipPemesananService {
+    private static final int UKURAN_BATCH_HAPUS = 1000;
+    private static final DateTimeFormatter NAMA_PARTISI = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    PemesananRepository pemesananRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ProdukRepository produkRepository;
+
+    @Value("${app.arsip.dir:${java.io.tmpdir}/hay-mart-arsip}")
+    String direktori;
+
+    @Value("${app.arsip.enabled:false}")
+    boolean aktif;
+
+    @Value("${app.arsip.bulan-tersimpan:13}")
+    int bulanTersimpan;
+
+    private JdbcTemplate jdbcTemplate;
+    private final NavigableMap<YearMonth, SegmenPemesanan> segmen = new ConcurrentSkipListMap<>();
+    private final AtomicBoolean berjalan = new AtomicBoolean(false);
+
+    @PostConstruct
+    void init() throws IOException {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        Path dir = Paths.get(direktori);
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "pemesanan-*.seg")) {
+            for (Path file : files) {
+                SegmenPemesanan s = SegmenPemesanan.buka(file);
+                segmen.put(s.getBulan(), s);
+            }
+        }
+        if (!segmen.isEmpty()) {
+            log.info("{} segmen arsip pemesanan dimuat dari {}", segmen.size(), dir);
+        }
+    }
+
+    @Scheduled(cron = "${app.arsip.cron:0 30 3 1 * *}")
+    public void arsipkanTerjadwal() {
+        if (aktif) {
+            arsipkan();
+        }
+    }
+
+    @Override
+    public List<ArsipSegmenResponse> arsipkan() {
+        if (!berjalan.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Pengarsipan pemesanan sedang berjalan");
+        }
+        try {
+            YearMonth batas = YearMonth.now().minusMonths(bulanTersimpan);
+            LocalDateTime pertama = pemesananRepository.findTanggalPertama();
+            List<ArsipSegmenResponse> hasil = new ArrayList<>();
+            if (pertama == null) {
+                return hasil;
+            }
+            for (YearMonth bulan = YearMonth.from(pertama); bulan.isBefore(batas); bulan = bulan.plusMonths(1)) {
+                SegmenPemesanan s = arsipkanBulan(bulan);
+                if (s != null) {
+                    hasil.add(toResponse(s));
+                }
+            }
+            return hasil;
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Gagal menulis segmen arsip: " + e.getMessage());
+        } finally {
+            berjalan.set(false);
+        }
+    }
+
+    @Override
+    public List<ArsipSegmenResponse> daftar() {
+        return segmen.values().stream().map(this::toResponse).collect(Collectors.toList());
+    }
+
+    @Override
+    public PemesananResponse cari(int pemesananId) {
+        for (SegmenPemesanan s : segmen.values()) {
+            int i = s.cari(pemesananId);
+            if (i < 0) {
+                continue;
+            }
+            int[] detailAwal = s.kolomInt(SegmenPemesanan.P_DETAIL_AWAL);
+            int dari = detailAwal[i];
+            int sampai = detailAwal[i + 1];
+            int[] produk = Arrays.copyOfRange(s.kolomInt(SegmenPemesanan.D_PRODUK), dari, sampai);
+            int[] jumlah = s.kolomInt(SegmenPemesanan.D_JUMLAH);
+            int[] harga = s.kolomInt(SegmenPemesanan.D_HARGA);
+            int[] subtotal = s.kolomInt(SegmenPemesanan.D_SUBTOTAL);
+            String[] namaTransaksi = s.kolomString(SegmenPemesanan.D_NAMA);
+
+            // Nama saat transaksi dari segmen; nama produk sekarang hanya untuk segmen versi lama
+            // atau detail yang belum punya snapshot nama
+            List<Integer> tanpaNama = new ArrayList<>();
+            for (int d = dari; d < sampai; d++) {
+                if (namaTransaksi == null || namaTransaksi[d] == null) {
+                    tanpaNama.add(produk[d - dari]);
+                }
+            }
+            Map<Integer, String> namaProduk = new HashMap<>();
+            if (!tanpaNama.isEmpty()) {
+                for (Object[] row : produkRepository.findNamaByIds(tanpaNama)) {
+                    namaProduk.put((Integer) row[0], (String) row[1]);
+                }
+            }
+
+            List<DetailPemesananResponse> items = new ArrayList<>(produk.length);
+            for (int d = dari; d < sampai; d++) {
+                String nama = namaTransaksi != null ? namaTransaksi[d] : null;
+                items.add(DetailPemesananResponse.builder()
+                        .namaProduk(nama != null ? nama
+                                : namaProduk.getOrDefault(produk[d - dari], "Produk #" + produk[d - dari]))
+                        .jumlah(jumlah[d])
+                        .hargaSatuan(harga[d])
+                        .subtotal(subtotal[d])
+                        .build());
+            }
+
+            int kasirId = s.kolomInt(SegmenPemesanan.P_KASIR)[i];
+            return PemesananResponse.builder()
+                    .pemesananId(pemesananId)
+                    .namaKasir(userRepository.findById(kasirId).map(u -> u.getNama()).orElse("Kasir #" + kasirId))
+                    .tanggalPembelian(SegmenPemesanan.keTanggal(s.kolomLong(SegmenPemesanan.P_TANGGAL)[i]))
+                    .totalHarga(s.kolomLong(SegmenPemesanan.P_TOTAL)[i])
+                    .items(items)
+                    .build();
+        }
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Pemesanan tidak ditemukan di arsip");
+    }
+
+    @Override
+    public List<YearMonth> bulanTerarsip() {
+        return new ArrayList<>(segmen.keySet());
+    }
+
+    @Override
+    public List<Object[]> rekapPerJam(YearMonth bulan) {
+        SegmenPemesanan s = segmen.get(bulan);
+        if (s == null) {
+            return Collections.emptyList();
+        }
+        long[] tanggal = s.kolomLong(SegmenPemesanan.P_TANGGAL);
+        int[] kasir = s.kolomInt(SegmenPemesanan.P_KASIR);
+        long[] total = s.kolomLong(SegmenPemesanan.P_TOTAL);
+        int[] detailAwal = s.kolomInt(SegmenPemesanan.P_DETAIL_AWAL);
+        int[] jumlah = s.kolomInt(SegmenPemesanan.D_JUMLAH);
+
+        Map<String, Object[]> perJam = new HashMap<>();
+        for (int i = 0; i < tanggal.length; i++) {
+            LocalDateTime jam = SegmenPemesanan.keTanggal(tanggal[i]).truncatedTo(ChronoUnit.HOURS);
+            int kasirId = kasir[i];
+            Object[] baris = perJam.computeIfAbsent(jam + "|" + kasirId,
+                    k -> new Object[] { jam, kasirId, 0L, 0L, 0L });
+            long item = 0;
+            for (int d = detailAwal[i]; d < detailAwal[i + 1]; d++) {
+                item += jumlah[d];
+            }
+            baris[2] = (Long) baris[2] + 1;
+            baris[3] = (Long) baris[3] + total[i];
+            baris[4] = (Long) baris[4] + item;
+        }
+        return new ArrayList<>(perJam.values());
+    }
+
+    @Override
+    public Map<Integer, long[]> penjualanProduk() {
+        Map<Integer, long[]> hasil = new HashMap<>();
+        for (SegmenPemesanan s : segmen.values()) {
+            int[] produk = s.kolomInt(SegmenPemesanan.D_PRODUK);
+            int[] jumlah = s.kolomInt(SegmenPemesanan.D_JUMLAH);
+            int[] subtotal = s.kolomInt(SegmenPemesanan.D_SUBTOTAL);
+            for (int d = 0; d < produk.length; d++) {
+                long[] nilai = hasil.computeIfAbsent(produk[d], k -> new long[2]);
+                nilai[0] += jumlah[d];
+                nilai[1] += subtotal[d];
+            }
+        }
+        return hasil;
+    }
+
+    @Override
+    public Map<Integer, Object[]> penjualanProduk(LocalDateTime awal, LocalDateTime akhir) {
+        Map<Integer, Object[]> hasil = new HashMap<>();
+        if (!awal.isBefore(akhir)) {
+            return hasil;
+        }
+        long dari = SegmenPemesanan.dariTanggal(awal);
+        long sampai = SegmenPemesanan.dariTanggal(akhir);
+        // Pemesanan terakhir yang sudah dihitung per produk, untuk jumlah transaksi yang unik
+        Map<Integer, Integer> pemesananTerakhir = new HashMap<>();
+        for (SegmenPemesanan s : segmen.subMap(YearMonth.from(awal), true,
+                YearMonth.from(akhir.minusNanos(1000)), true).values()) {
+            int[] id = s.kolomInt(SegmenPemesanan.P_ID);
+            long[] tanggal = s.kolomLong(SegmenPemesanan.P_TANGGAL);
+            int[] detailAwal = s.kolomInt(SegmenPemesanan.P_DETAIL_AWAL);
+            int[] produk = s.kolomInt(SegmenPemesanan.D_PRODUK);
+            int[] jumlah = s.kolomInt(SegmenPemesanan.D_JUMLAH);
+            int[] subtotal = s.kolomInt(SegmenPemesanan.D_SUBTOTAL);
+            String[] nama = s.kolomString(SegmenPemesanan.D_NAMA);
+            for (int i = 0; i < id.length; i++) {
+                if (tanggal[i] < dari || tanggal[i] >= sampai) {
+                    continue;
+                }
+                for (int d = detailAwal[i]; d < detailAwal[i + 1]; d++) {
+                    Object[] baris = hasil.computeIfAbsent(produk[d], k -> new Object[] { k, null, 0L, 0L, 0L });
+                    if (nama != null && nama[d] != null) {
+                        baris[1] = nama[d];
+                    }
+                    baris[2] = (Long) baris[2] + jumlah[d];
+                    Integer sebelumnya = pemesananTerakhir.put(produk[d], id[i]);
+                    if (sebelumnya == null || sebelumnya != id[i]) {
+                        baris[3] = (Long) baris[3] + 1;
+                    }
+                    baris[4] = (Long) baris[4] + subtotal[d];
+                }
+            }
+        }
+
+        List<Integer> tanpaNama = hasil.values().stream()
+                .filter(baris -> baris[1] == null)
+                .map(baris -> (Integer) baris[0])
+                .toList();
+        if (!tanpaNama.isEmpty()) {
+            for (Object[] row : produkRepository.findNamaByIds(tanpaNama)) {
+                hasil.get((Integer) row[0])[1] = row[1];
+            }
+            hasil.values().stream()
+                    .filter(baris -> baris[1] == null)
+                    .forEach(baris -> baris[1] = "Produk #" + baris[0]);
+        }
+        return hasil;
+    }
+
+    private SegmenPemesanan arsipkanBulan(YearMonth bulan) throws IOException {
+        LocalDateTime start = bulan.atDay(1).atStartOfDay();
+        LocalDateTime end = bulan.plusMonths(1).atDay(1).atStartOfDay();
+
+        SegmenPemesanan s = segmen.get(bulan);
+        if (s == null) {
+            SegmenPemesanan.Isi isi = baca(start, end);
+            if (isi.id().length == 0) {
+                return null;
+            }
+            Path file = Paths.get(direktori).resolve("pemesanan-" + bulan + ".seg");
+            SegmenPemesanan.tulis(file, bulan, isi);
+            s = SegmenPemesanan.buka(file);
+
+            long totalDb = Arrays.stream(isi.total()).sum();
+            if (s.getJumlahPemesanan() != isi.id().length || s.getTotalHarga() != totalDb) {
+                Files.delete(file);
+                throw new IOException("Verifikasi segmen " + bulan + " gagal");
+            }
+            segmen.put(bulan, s);
+            log.info("Segmen arsip {} ditulis: {} pemesanan, {} detail, {} byte", bulan, s.getJumlahPemesanan(),
+                    s.getJumlahDetail(), s.getUkuran());
+        }
+
+        hapus(bulan, s, start, end);
+        return s;
+    }
+
+    private SegmenPemesanan.Isi baca(LocalDateTime start, LocalDateTime end) {
+        IntStream.Builder id = IntStream.builder();
+        LongStream.Builder tanggal = LongStream.builder();
+        IntStream.Builder kasir = IntStream.builder();
+        LongStream.Builder total = LongStream.builder();
+        jdbcTemplate.query("SELECT pemesanan_id, tanggal_pembelian, kasir_id, total_harga FROM pemesanan "
+                + "WHERE tanggal_pembelian >= ? AND tanggal_pembelian < ? ORDER BY pemesanan_id",
+                rs -> {
+                    id.add(rs.getInt(1));
+                    tanggal.add(SegmenPemesanan.dariTanggal(rs.getObject(2, LocalDateTime.class)));
+                    kasir.add(rs.getInt(3));
+                    total.add(rs.getLong(4));
+                },
+                start, end);
+        int[] ids = id.build().toArray();
+
+        IntStream.Builder detailPemesanan = IntStream.builder();
+        IntStream.Builder detailId = IntStream.builder();
+        IntStream.Builder produk = IntStream.builder();
+        IntStream.Builder jumlah = IntStream.builder();
+        IntStream.Builder harga = IntStream.builder();
+        IntStream.Builder subtotal = IntStream.builder();
+        List<String> nama = new ArrayList<>();
+        jdbcTemplate.query("SELECT d.pemesanan_id, d.detail_pemesanan_id, d.produk_id, d.jumlah, d.harga_satuan, "
+                + "d.subtotal, d.nama_produk "
+                + "FROM detail_pemesanan d JOIN pemesanan p ON p.pemesanan_id = d.pemesanan_id "
+                + "WHERE p.tanggal_pembelian >= ? AND p.tanggal_pembelian < ? "
+                + "ORDER BY d.pemesanan_id, d.detail_pemesanan_id",
+                rs -> {
+                    detailPemesanan.add(rs.getInt(1));
+                    detailId.add(rs.getInt(2));
+                    produk.add(rs.getInt(3));
+                    jumlah.add(rs.getInt(4));
+                    harga.add(rs.getInt(5));
+                    subtotal.add(rs.getInt(6));
+                    nama.add(rs.getString(7));
+                },
+                start, end);
+        int[] milik = detailPemesanan.build().toArray();
+
+        // Detail dan pemesanan sama-sama urut menurut pemesanan_id, jadi cukup satu kali jalan
+        int[] detailAwal = new int[ids.length + 1];
+        int d = 0;
+        for (int i = 0; i < ids.length; i++) {
+            detailAwal[i] = d;
+            while (d < milik.length && milik[d] == ids[i]) {
+                d++;
+            }
+        }
+        detailAwal[ids.length] = d;
+
+        return new SegmenPemesanan.Isi(ids, tanggal.build().toArray(), kasir.build().toArray(),
+                total.build().toArray(), detailAwal, detailId.build().toArray(), produk.build().toArray(),
+                jumlah.build().toArray(), harga.build().toArray(), subtotal.build().toArray(),
+                nama.toArray(new String[0]));
+    }
+
+    private void hapus(YearMonth bulan, SegmenPemesanan s, LocalDateTime start, LocalDateTime end) {
+        // Pada mode partisi, bulan yang diarsipkan cukup dibuang partisinya
+        String partisi = bulan.format(NAMA_PARTISI);
+        if (adaPartisi("pemesanan", partisi) && adaPartisi("detail_pemesanan", partisi)) {
+            jdbcTemplate.execute("ALTER TABLE detail_pemesanan DROP PARTITION " + partisi);
+            jdbcTemplate.execute("ALTER TABLE pemesanan DROP PARTITION " + partisi);
+            return;
+        }
+
+        int[] ids = s.kolomInt(SegmenPemesanan.P_ID);
+        TransactionTemplate transaksi = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < ids.length; i += UKURAN_BATCH_HAPUS) {
+            int[] batch = Arrays.copyOfRange(ids, i, Math.min(ids.length, i + UKURAN_BATCH_HAPUS));
+            String placeholder = String.join(",", Collections.nCopies(batch.length, "?"));
+            Object[] parameter = Arrays.stream(batch).boxed().toArray();
+            transaksi.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM detail_pemesanan WHERE pemesanan_id IN (" + placeholder + ")",
+                        parameter);
+                jdbcTemplate.update("DELETE FROM pemesanan WHERE pemesanan_id IN (" + placeholder + ")", parameter);
+            });
+        }
+    }
+
+    private boolean adaPartisi(String tabel, String partisi) {
+        Integer jumlah = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.partitions "
+                + "WHERE table_schema = DATABASE() AND table_name = ? AND partition_name = ?", Integer.class,
+                tabel, partisi);
+        return jumlah != null && jumlah > 0;
+    }
+
+    private ArsipSegmenResponse toResponse(SegmenPemesanan s) {
+        return ArsipSegmenResponse.builder()
+                .bulan(s.getBulan().toString())
+                .jumlahPemesanan(s.getJumlahPemesanan())
+                .jumlahDetail(s.getJumlahDetail())
+                .totalHarga(s.getTotalHarga())
+                .ukuranByte(s.getUkuran())
+                .build();
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.hay_mart.services.arsip;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * File segmen arsip berisi pemesanan dan detail_pemesanan satu bulan.
+ *
+ * Setiap kolom disimpan sebagai blok terpisah yang dikompresi deflate; kolom id dan
+ * tanggal di-delta-encode lebih dulu karena nilainya berurutan, dan nama produk disimpan
+ * sebagai kamus string unik ditambah kode per detail. Header di awal file
+ * adalah index kecil segmen: rentang id, jumlah baris, total harga dan posisi tiap blok.
+ * File ditulis sekali lewat file sementara lalu dipindahkan, dan tidak pernah diubah.
+ * Pembacaan memakai memory-mapped file sehingga hanya blok kolom yang dibutuhkan yang
+ * didekompresi.
+ */
+public final class SegmenPemesanan {
+    private static final int MAGIC = 0x484D5347;
+    // Versi 1 belum memuat kolom nama produk; file lama tetap bisa dibaca
+    private static final short VERSI = 2;
+
+    public static final byte P_ID = 1;
+    public static final byte P_TANGGAL = 2;
+    public static final byte P_KASIR = 3;
+    public static final byte P_TOTAL = 4;
+    public static final byte P_DETAIL_AWAL = 5;
+    public static final byte D_ID = 6;
+    public static final byte D_PRODUK = 7;
+    public static final byte D_JUMLAH = 8;
+    public static final byte D_HARGA = 9;
+    public static final byte D_SUBTOTAL = 10;
+    public static final byte D_NAMA = 11;
+    private static final int JUMLAH_KOLOM = 11;
+
+    // 4 magic + 2 versi + 4 bulan + 4 + 4 jumlah baris + 4 + 4 rentang id + 8 total + 2 jumlah kolom
+    private static final int UKURAN_HEADER = 36;
+    // 1 kode + 4 panjang asli + 4 panjang terkompresi + 8 offset
+    private static final int UKURAN_ENTRI_KOLOM = 17;
+
+    /**
+     * Isi satu bulan. Baris pemesanan urut menurut id; detail milik pemesanan ke-i ada di
+     * rentang [detailAwal[i], detailAwal[i + 1]) dengan elemen terakhir detailAwal =
+     * jumlah detail. namaProduk adalah nama saat transaksi (boleh null untuk detail lama).
+     */
+    public record Isi(int[] id, long[] tanggal, int[] kasir, long[] total, int[] detailAwal,
+            int[] detailId, int[] produk, int[] jumlah, int[] harga, int[] subtotal, String[] namaProduk) {
+    }
+
+    private final YearMonth bulan;
+    private final int jumlahPemesanan;
+    private final int jumlahDetail;
+    private final int minId;
+    private final int maxId;
+    private final long totalHarga;
+    private final long ukuran;
+    private final MappedByteBuffer buffer;
+    private final int[] posisi = new int[JUMLAH_KOLOM + 1];
+    private final int[] panjangAsli = new int[JUMLAH_KOLOM + 1];
+    private final int[] panjangTerkompresi = new int[JUMLAH_KOLOM + 1];
+
+    private SegmenPemesanan(MappedByteBuffer buffer, long ukuran) throws IOException {
+        this.buffer = buffer;
+        this.ukuran = ukuran;
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) < 1 || buffer.getShort(4) > VERSI) {
+            throw new IOException("Bukan file segmen arsip pemesanan");
+        }
+        int kodeBulan = buffer.getInt(6);
+        this.bulan = YearMonth.of(kodeBulan / 100, kodeBulan % 100);
+        this.jumlahPemesanan = buffer.getInt(10);
+        this.jumlahDetail = buffer.getInt(14);
+        this.minId = buffer.getInt(18);
+        this.maxId = buffer.getInt(22);
+        this.totalHarga = buffer.getLong(26);
+        int jumlahKolom = buffer.getShort(34);
+        for (int i = 0; i < jumlahKolom; i++) {
+            int entri = UKURAN_HEADER + i * UKURAN_ENTRI_KOLOM;
+            byte kode = buffer.get(entri);
+            panjangAsli[kode] = buffer.getInt(entri + 1);
+            panjangTerkompresi[kode] = buffer.getInt(entri + 5);
+            posisi[kode] = (int) buffer.getLong(entri + 9);
+        }
+    }
+
+    public static SegmenPemesanan buka(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long ukuran = channel.size();
+            return new SegmenPemesanan(channel.map(FileChannel.MapMode.READ_ONLY, 0, ukuran), ukuran);
+        }
+    }
+
+    public static void tulis(Path tujuan, YearMonth bulan, Isi isi) throws IOException {
+        int n = isi.id().length;
+        byte[][] blok = new byte[JUMLAH_KOLOM + 1][];
+        int[] asli = new int[JUMLAH_KOLOM + 1];
+
+        blok[P_ID] = kompres(intBytes(delta(isi.id())), asli, P_ID);
+        blok[P_TANGGAL] = kompres(longBytes(delta(isi.tanggal())), asli, P_TANGGAL);
+        blok[P_KASIR] = kompres(intBytes(isi.kasir()), asli, P_KASIR);
+        blok[P_TOTAL] = kompres(longBytes(isi.total()), asli, P_TOTAL);
+        blok[P_DETAIL_AWAL] = kompres(intBytes(delta(isi.detailAwal())), asli, P_DETAIL_AWAL);
+        blok[D_ID] = kompres(intBytes(delta(isi.detailId())), asli, D_ID);
+        blok[D_PRODUK] = kompres(intBytes(isi.produk()), asli, D_PRODUK);
+        blok[D_JUMLAH] = kompres(intBytes(isi.jumlah()), asli, D_JUMLAH);
+        blok[D_HARGA] = kompres(intBytes(isi.harga()), asli, D_HARGA);
+        blok[D_SUBTOTAL] = kompres(intBytes(isi.subtotal()), asli, D_SUBTOTAL);
+        blok[D_NAMA] = kompres(kamusBytes(isi.namaProduk()), asli, D_NAMA);
+
+        ByteBuffer header = ByteBuffer.allocate(UKURAN_HEADER + JUMLAH_KOLOM * UKURAN_ENTRI_KOLOM);
+        header.putInt(MAGIC).putShort(VERSI).putInt(bulan.getYear() * 100 + bulan.getMonthValue());
+        header.putInt(n).putInt(isi.detailId().length);
+        header.putInt(n > 0 ? isi.id()[0] : 0).putInt(n > 0 ? isi.id()[n - 1] : 0);
+        header.putLong(Arrays.stream(isi.total()).sum());
+        header.putShort((short) JUMLAH_KOLOM);
+        long offset = header.capacity();
+        for (byte kode = 1; kode <= JUMLAH_KOLOM; kode++) {
+            header.put(kode).putInt(asli[kode]).putInt(blok[kode].length).putLong(offset);
+            offset += blok[kode].length;
+        }
+
+        Path sementara = tujuan.resolveSibling(tujuan.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(sementara, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                OutputStream out = Channels.newOutputStream(channel)) {
+            out.write(header.array());
+            for (byte kode = 1; kode <= JUMLAH_KOLOM; kode++) {
+                out.write(blok[kode]);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(sementara, tujuan, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public YearMonth getBulan() {
+        return bulan;
+    }
+
+    public int getJumlahPemesanan() {
+        return jumlahPemesanan;
+    }
+
+    public int getJumlahDetail() {
+        return jumlahDetail;
+    }
+
+    public int getMinId() {
+        return minId;
+    }
+
+    public int getMaxId() {
+        return maxId;
+    }
+
+    public long getTotalHarga() {
+        return totalHarga;
+    }
+
+    public long getUkuran() {
+        return ukuran;
+    }
+
+    public boolean mungkinMemuat(int pemesananId) {
+        return jumlahPemesanan > 0 && pemesananId >= minId && pemesananId <= maxId;
+    }
+
+    /** Index baris pemesanan dengan id tersebut, atau -1 bila tidak ada di segmen ini. */
+    public int cari(int pemesananId) {
+        if (!mungkinMemuat(pemesananId)) {
+            return -1;
+        }
+        int indeks = Arrays.binarySearch(kolomInt(P_ID), pemesananId);
+        return indeks >= 0 ? indeks : -1;
+    }
+
+    public static LocalDateTime keTanggal(long mikrodetik) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(mikrodetik, 1_000_000L),
+                (int) Math.floorMod(mikrodetik, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    public static long dariTanggal(LocalDateTime tanggal) {
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), tanggal);
+    }
+
+    public int[] kolomInt(byte kode) {
+        ByteBuffer data = dekompres(kode);
+        int[] hasil = new int[data.remaining() / Integer.BYTES];
+        data.asIntBuffer().get(hasil);
+        if (kode == P_ID || kode == P_DETAIL_AWAL || kode == D_ID) {
+            for (int i = 1; i < hasil.length; i++) {
+                hasil[i] += hasil[i - 1];
+            }
+        }
+        return hasil;
+    }
+
+    public long[] kolomLong(byte kode) {
+        ByteBuffer data = dekompres(kode);
+        long[] hasil = new long[data.remaining() / Long.BYTES];
+        data.asLongBuffer().get(hasil);
+        if (kode == P_TANGGAL) {
+            for (int i = 1; i < hasil.length; i++) {
+                hasil[i] += hasil[i - 1];
+            }
+        }
+        return hasil;
+    }
+
+    /**
+     * Kolom string dari kamus: elemen dengan nilai yang sama memakai instance String yang
+     * sama. Null bila segmen ditulis versi lama yang belum memuat kolom ini.
+     */
+    public String[] kolomString(byte kode) {
+        if (panjangTerkompresi[kode] == 0) {
+            return null;
+        }
+        ByteBuffer data = dekompres(kode);
+        String[] kamus = new String[data.getInt()];
+        for (int k = 0; k < kamus.length; k++) {
+            byte[] utf8 = new byte[data.getInt()];
+            data.get(utf8);
+            kamus[k] = new String(utf8, StandardCharsets.UTF_8);
+        }
+        String[] hasil = new String[data.remaining() / Integer.BYTES];
+        for (int i = 0; i < hasil.length; i++) {
+            int k = data.getInt();
+            hasil[i] = k < 0 ? null : kamus[k];
+        }
+        return hasil;
+    }
+
+    private ByteBuffer dekompres(byte kode) {
+        ByteBuffer hasil = ByteBuffer.allocate(panjangAsli[kode]);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice(posisi[kode], panjangTerkompresi[kode]));
+            while (!inflater.finished() && hasil.hasRemaining()) {
+                if (inflater.inflate(hasil) == 0 && inflater.needsInput()) {
+                    break;
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Segmen arsip " + bulan + " rusak", e);
+        } finally {
+            inflater.end();
+        }
+        return hasil.flip();
+    }
+
+    private static byte[] kompres(byte[] data, int[] asli, byte kode) {
+        asli[kode] = data.length;
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buf = new byte[Math.max(64, data.length / 2)];
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static int[] delta(int[] nilai) {
+        int[] hasil = new int[nilai.length];
+        for (int i = 0; i < nilai.length; i++) {
+            hasil[i] = i == 0 ? nilai[0] : nilai[i] - nilai[i - 1];
+        }
+        return hasil;
+    }
+
+    private static long[] delta(long[] nilai) {
+        long[] hasil = new long[nilai.length];
+        for (int i = 0; i < nilai.length; i++) {
+            hasil[i] = i == 0 ? nilai[0] : nilai[i] - nilai[i - 1];
+        }
+        return hasil;
+    }
+
+    // [jumlah kamus][panjang + UTF-8 per entri][kode kamus per baris, -1 untuk null]
+    private static byte[] kamusBytes(String[] nilai) {
+        Map<String, Integer> kode = new LinkedHashMap<>();
+        int[] kodeBaris = new int[nilai.length];
+        int ukuranKamus = 0;
+        for (int i = 0; i < nilai.length; i++) {
+            if (nilai[i] == null) {
+                kodeBaris[i] = -1;
+                continue;
+            }
+            Integer k = kode.get(nilai[i]);
+            if (k == null) {
+                k = kode.size();
+                kode.put(nilai[i], k);
+                ukuranKamus += Integer.BYTES + nilai[i].getBytes(StandardCharsets.UTF_8).length;
+            }
+            kodeBaris[i] = k;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(Integer.BYTES + ukuranKamus + nilai.length * Integer.BYTES);
+        buf.putInt(kode.size());
+        for (String entri : kode.keySet()) {
+            byte[] utf8 = entri.getBytes(StandardCharsets.UTF_8);
+            buf.putInt(utf8.length).put(utf8);
+        }
+        buf.asIntBuffer().put(kodeBaris);
+        return buf.array();
+    }
+
+    private static byte[] intBytes(int[] nilai) {
+        ByteBuffer buf = ByteBuffer.allocate(nilai.length * Integer.BYTES);
+        buf.asIntBuffer().put(nilai);
+        return buf.array();
+    }
+
+    private static byte[] longBytes(long[] nilai) {
+        ByteBuffer buf = ByteBuffer.allocate(nilai.length * Long.BYTES);
+        buf.asLongBuffer().put(nilai);
+        return buf.array();
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.example.hay_mart.config.RuteDataSource;
 import com.example.hay_mart.models.User;
 import com.example.hay_mart.repositorys.UserRepository;
 
@@ -87,6 +88,14 @@ public class EmailServiceImpl implements EmailService {
     @Override
     // @Transactional
     public void verifyEmail(String email, String code) {
+        // Tanpa transaksi supaya kode baru tetap tersimpan walau method melempar exception; bacaan
+        // user dipaksa ke primary agar yang disimpan ulang bukan salinan dari replika
+        try (RuteDataSource.Penanda segar = RuteDataSource.segar()) {
+            verifikasi(email, code);
+        }
+    }
+
+    private void verifikasi(String email, String code) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User tidak ditemukan"));
 
@@ -15,6 +15,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.hay_mart.constant.RoleConstant;
@@ -33,7 +34,6 @@ import com.example.hay_mart.repositorys.UserRepository;
 import com.example.hay_mart.services.email.EmailService;
 import com.example.hay_mart.services.image.ConvertImageService;
 
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -86,6 +86,7 @@ public class KasirServiceImpl implements KasirService {
     }
 
     @Override
+    @Transactional
     public void update(int id, KasirUpdateSatatusRequest req) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Kasir dengan id: " + id + " tidak ditemukan"));
@@ -95,9 +96,9 @@ public class KasirServiceImpl implements KasirService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<PemesananResponse> getAllHistorysKasir() {
-        List<Pemesanan> riwayat = pemesananRepository.findAll();
+        List<Pemesanan> riwayat = pemesananRepository.findAllRiwayat();
         List<PemesananResponse> responseList = new ArrayList<>();
 
         for (Pemesanan pemesanan : riwayat) {
@@ -105,7 +106,7 @@ public class KasirServiceImpl implements KasirService {
 
             for (DetailPemesanan detail : pemesanan.getDetails()) {
                 detailList.add(DetailPemesananResponse.builder()
-                        .namaProduk(detail.getProduk().getNama())
+                        .namaProduk(detail.getNamaProduk())
                         .jumlah(detail.getJumlah())
                         .hargaSatuan(detail.getHargaSatuan())
                         .subtotal(detail.getSubtotal())
@@ -154,6 +155,7 @@ public class KasirServiceImpl implements KasirService {
     }
 
     @Override
+    @Transactional
     public void editKasir(int id, EditKasirRequest req, MultipartFile image) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
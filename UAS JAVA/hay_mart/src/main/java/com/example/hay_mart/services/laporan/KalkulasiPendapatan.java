@@ -0,0 +1,34 @@
+package com.example.hay_mart.services.laporan;
+
+import java.math.BigDecimal;
+import com.example.hay_mart.dto.laporan.LaporanPendapatanResponse;
+
+/**
+ * Perhitungan modal dan keuntungan dalam satuan sen ({@code long}). Pendapatan selalu
+ * rupiah bulat, sehingga modal 85% = pendapatan x 85 sen tepat tanpa pembulatan.
+ * BigDecimal hanya dibuat saat mengisi response.
+ */
+public final class KalkulasiPendapatan {
+    // Modal dihitung 85% dari pendapatan
+    public static final long PERSEN_MODAL = 85;
+
+    private KalkulasiPendapatan() {
+    }
+
+    public static long modalSen(long pendapatan) {
+        return Math.multiplyExact(pendapatan, PERSEN_MODAL);
+    }
+
+    public static long keuntunganSen(long pendapatan) {
+        return Math.multiplyExact(pendapatan, 100 - PERSEN_MODAL);
+    }
+
+    public static LaporanPendapatanResponse laporan(String periode, long pendapatan) {
+        return LaporanPendapatanResponse.builder()
+                .periode(periode)
+                .pendapatan(BigDecimal.valueOf(Math.multiplyExact(pendapatan, 100), 2))
+                .modal(BigDecimal.valueOf(modalSen(pendapatan), 2))
+                .keuntungan(BigDecimal.valueOf(keuntunganSen(pendapatan), 2))
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.hay_mart.services.laporan;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.example.hay_mart.dto.laporan.LaporanCacheMetricsResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache file laporan yang sudah dirender, dikunci per jenis laporan dan periode.
+ *
+ * Laporan untuk periode yang sudah tertutup tidak akan berubah lagi, jadi disimpan tanpa
+ * batas waktu di memori dan di disk. Laporan yang memuat periode berjalan hanya berlaku
+ * selama belum ada checkout baru dan umurnya belum melewati TTL.
+ */
+@Component
+@Slf4j
+public class LaporanCache {
+
+    @Value("${app.laporan.cache.dir:${java.io.tmpdir}/hay-mart-laporan}")
+    String direktori;
+
+    @Value("${app.laporan.cache.open-ttl-ms:60000}")
+    long ttlTerbukaMs;
+
+    @Value("${app.laporan.cache.max-entries:200}")
+    int maksEntri;
+
+    private final AtomicLong versi = new AtomicLong();
+    private final AtomicLong permintaan = new AtomicLong();
+    private final AtomicLong cacheHit = new AtomicLong();
+
+    // Admin yang membuka laporan yang sama bersamaan hanya memicu satu kali pembuatan file
+    private final SingleFlight<String, byte[]> singleFlight = new SingleFlight<>();
+
+    private final Map<String, Entri> entri = Collections.synchronizedMap(
+            new LinkedHashMap<String, Entri>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entri> eldest) {
+                    return size() > maksEntri;
+                }
+            });
+
+    private record Entri(byte[] isi, boolean tertutup, long versi, long dibuat) {
+    }
+
+    /**
+     * Mengembalikan isi laporan dari cache atau membuatnya dengan {@code pembuat}.
+     * Hasil null (data kosong) tidak disimpan.
+     */
+    public byte[] ambil(String kunci, boolean tertutup, Callable<byte[]> pembuat) throws Exception {
+        permintaan.incrementAndGet();
+        Entri ada = entri.get(kunci);
+        if (ada != null && masihBerlaku(ada)) {
+            cacheHit.incrementAndGet();
+            return ada.isi();
+        }
+
+        return singleFlight.jalankan(kunci, () -> buat(kunci, tertutup, pembuat));
+    }
+
+    public LaporanCacheMetricsResponse getMetrics() {
+        return LaporanCacheMetricsResponse.builder()
+                .permintaan(permintaan.get())
+                .cacheHit(cacheHit.get())
+                .dihitung(singleFlight.getDijalankan())
+                .digabung(singleFlight.getDigabung())
+                .sedangBerjalan(singleFlight.getSedangBerjalan())
+                .jumlahEntri(entri.size())
+                .build();
+    }
+
+    private byte[] buat(String kunci, boolean tertutup, Callable<byte[]> pembuat) throws Exception {
+        // Pemanggilan sebelumnya bisa saja baru selesai di antara cek cache dan single-flight
+        Entri ada = entri.get(kunci);
+        if (ada != null && masihBerlaku(ada)) {
+            cacheHit.incrementAndGet();
+            return ada.isi();
+        }
+
+        if (tertutup) {
+            byte[] dariDisk = bacaDisk(kunci);
+            if (dariDisk != null) {
+                entri.put(kunci, new Entri(dariDisk, true, versi.get(), System.currentTimeMillis()));
+                return dariDisk;
+            }
+        }
+
+        // Versi dicatat sebelum laporan dibuat agar checkout yang terjadi selama proses
+        // ini langsung membuat hasilnya kedaluwarsa
+        long versiAwal = versi.get();
+        byte[] isi = pembuat.call();
+        if (isi == null) {
+            return null;
+        }
+
+        entri.put(kunci, new Entri(isi, tertutup, versiAwal, System.currentTimeMillis()));
+        if (tertutup) {
+            tulisDisk(kunci, isi);
+        }
+        return isi;
+    }
+
+    // Dipanggil setelah checkout commit; hanya laporan periode berjalan yang terpengaruh
+    public void tandaiPerubahan() {
+        versi.incrementAndGet();
+    }
+
+    public void kosongkan() {
+        versi.incrementAndGet();
+        entri.clear();
+        Path dir = Paths.get(direktori);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(f -> f.getFileName().toString().endsWith(".xlsx")).forEach(f -> {
+                try {
+                    Files.deleteIfExists(f);
+                } catch (IOException e) {
+                    log.warn("Gagal menghapus cache laporan {}: {}", f, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Gagal membersihkan direktori cache laporan: {}", e.getMessage());
+        }
+    }
+
+    private boolean masihBerlaku(Entri e) {
+        return e.tertutup()
+                || (e.versi() == versi.get() && System.currentTimeMillis() - e.dibuat() < ttlTerbukaMs);
+    }
+
+    private Path fileUntuk(String kunci) {
+        return Paths.get(direktori, kunci.replaceAll("[^A-Za-z0-9_-]", "_") + ".xlsx");
+    }
+
+    private byte[] bacaDisk(String kunci) {
+        Path file = fileUntuk(kunci);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            log.warn("Gagal membaca cache laporan {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void tulisDisk(String kunci, byte[] isi) {
+        Path file = fileUntuk(kunci);
+        try {
+            Files.createDirectories(file.getParent());
+            Path sementara = Files.createTempFile(file.getParent(), "laporan", ".tmp");
+            Files.write(sementara, isi);
+            Files.move(sementara, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Gagal menyimpan cache laporan {}: {}", file, e.getMessage());
+        }
+    }
+}
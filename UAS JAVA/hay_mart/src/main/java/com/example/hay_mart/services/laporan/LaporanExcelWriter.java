@@ -0,0 +1,790 @@
+package com.example.hay_mart.services.laporan;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xddf.usermodel.XDDFColor;
+import org.apache.poi.xddf.usermodel.XDDFShapeProperties;
+import org.apache.poi.xddf.usermodel.XDDFSolidFillProperties;
+import org.apache.poi.xddf.usermodel.chart.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.*;
+import org.springframework.stereotype.Component;
+import com.example.hay_mart.dto.laporan.LaporanPendapatanResponse;
+
+/**
+ * Menulis laporan pendapatan ke format xlsx langsung ke output stream.
+ *
+ * Untuk laporan besar sheet utama ditulis dengan {@link SXSSFWorkbook}, sehingga hanya
+ * sejumlah kecil baris yang disimpan di memori dan sisanya di-flush ke file sementara.
+ * Lebar kolom dihitung dari data sebelum baris ditulis karena autoSizeColumn tidak bisa
+ * membaca baris yang sudah di-flush. Sheet grafik dibuat lebih dulu di workbook XSSF
+ * biasa dan hanya bila diminta.
+ */
+@Component
+public class LaporanExcelWriter {
+    private static final int JENDELA_BARIS = 100;
+    private static final int BARIS_DATA_AWAL = 9;
+    private static final String[] HEADERS = { "No", "Periode", "Modal", "Pendapatan", "Keuntungan", "Margin (%)" };
+
+    // Define color scheme
+    private static final IndexedColors PRIMARY_COLOR = IndexedColors.DARK_BLUE;
+    private static final IndexedColors ACCENT_COLOR = IndexedColors.LIGHT_BLUE;
+    private static final IndexedColors HIGHLIGHT_COLOR = IndexedColors.GOLD;
+    private static final IndexedColors SECONDARY_COLOR = IndexedColors.GREY_25_PERCENT;
+
+    // Posisi index style di dalam kerangka workbook
+    private static final int GAYA_TEXT_EVEN = 0;
+    private static final int GAYA_TEXT_ODD = 1;
+    private static final int GAYA_CURRENCY_EVEN = 2;
+    private static final int GAYA_CURRENCY_ODD = 3;
+    private static final int GAYA_TOTAL_LABEL = 4;
+    private static final int GAYA_TOTAL_VALUE = 5;
+    private static final int GAYA_FOOTER = 6;
+    private static final int GAYA_SUMMARY = 7;
+    private static final int JUMLAH_GAYA = 8;
+
+    record Kerangka(XSSFWorkbook workbook, int[] gaya) {
+    }
+
+    /**
+     * Definisi kolom untuk {@link #writeTabel}: kolom uang memakai format Rupiah, kolom
+     * dengan total ikut dijumlahkan di baris TOTAL.
+     */
+    public record Kolom(String judul, boolean uang, boolean total) {
+    }
+
+    public void write(List<LaporanPendapatanResponse> data, boolean grafik, OutputStream out) throws IOException {
+        Kerangka kerangka = buatKerangka("Laporan Pendapatan", "LAPORAN PENDAPATAN", HEADERS);
+        XSSFWorkbook base = kerangka.workbook();
+        if (grafik && !data.isEmpty()) {
+            createChartSheet(base, data);
+        }
+
+        // Laporan kecil langsung ditulis dari workbook XSSF; file sementara SXSSF
+        // hanya sepadan untuk laporan yang barisnya melebihi jendela
+        SXSSFWorkbook streaming = null;
+        Workbook workbook = base;
+        if (data.size() > JENDELA_BARIS) {
+            streaming = new SXSSFWorkbook(base, JENDELA_BARIS);
+            streaming.setCompressTempFiles(true);
+            workbook = streaming;
+        }
+        try {
+            Sheet sheet = workbook.getSheetAt(0);
+            int[] gaya = kerangka.gaya();
+            CellStyle textStyleEven = workbook.getCellStyleAt(gaya[GAYA_TEXT_EVEN]);
+            CellStyle textStyleOdd = workbook.getCellStyleAt(gaya[GAYA_TEXT_ODD]);
+            CellStyle currencyStyleEven = workbook.getCellStyleAt(gaya[GAYA_CURRENCY_EVEN]);
+            CellStyle currencyStyleOdd = workbook.getCellStyleAt(gaya[GAYA_CURRENCY_ODD]);
+            CellStyle totalLabelStyle = workbook.getCellStyleAt(gaya[GAYA_TOTAL_LABEL]);
+            CellStyle totalValueStyle = workbook.getCellStyleAt(gaya[GAYA_TOTAL_VALUE]);
+            CellStyle footerStyle = workbook.getCellStyleAt(gaya[GAYA_FOOTER]);
+            CellStyle summaryStyle = workbook.getCellStyleAt(gaya[GAYA_SUMMARY]);
+
+            // ========== FORMATTING ==========
+            formatColumns(sheet, data);
+
+            // ========== REPORT DATA ==========
+            int rowNum = BARIS_DATA_AWAL;
+            // Total dijumlahkan dalam sen supaya tidak ada selisih pembulatan double
+            long totalModalSen = 0, totalPendapatanSen = 0, totalKeuntunganSen = 0;
+
+            for (int i = 0; i < data.size(); i++) {
+                LaporanPendapatanResponse laporan = data.get(i);
+                if (laporan == null || laporan.getPeriode() == null)
+                    continue;
+
+                boolean isEvenRow = (i % 2 == 0);
+                Row row = sheet.createRow(rowNum++);
+
+                // Apply alternating row colors
+                CellStyle currentTextStyle = isEvenRow ? textStyleEven : textStyleOdd;
+                CellStyle currentCurrencyStyle = isEvenRow ? currencyStyleEven : currencyStyleOdd;
+
+                // No
+                Cell noCell = row.createCell(0);
+                noCell.setCellValue(i + 1);
+                noCell.setCellStyle(currentTextStyle);
+
+                // Periode
+                Cell periodeCell = row.createCell(1);
+                periodeCell.setCellValue(laporan.getPeriode());
+                periodeCell.setCellStyle(currentTextStyle);
+
+                // Modal
+                double modal = nilai(laporan.getModal());
+                createCurrencyCell(row, 2, modal, currentCurrencyStyle);
+                totalModalSen += sen(laporan.getModal());
+
+                // Pendapatan
+                double pendapatan = nilai(laporan.getPendapatan());
+                createCurrencyCell(row, 3, pendapatan, currentCurrencyStyle);
+                totalPendapatanSen += sen(laporan.getPendapatan());
+
+                // Keuntungan
+                double keuntungan = nilai(laporan.getKeuntungan());
+                createCurrencyCell(row, 4, keuntungan, currentCurrencyStyle);
+                totalKeuntunganSen += sen(laporan.getKeuntungan());
+
+                // Margin (%)
+                Cell marginCell = row.createCell(5);
+                double margin = (modal > 0) ? (keuntungan / modal) * 100 : 0;
+                marginCell.setCellValue(String.format("%.2f%%", margin));
+                marginCell.setCellStyle(currentTextStyle);
+            }
+
+            double totalModal = totalModalSen / 100.0;
+            double totalPendapatan = totalPendapatanSen / 100.0;
+            double totalKeuntungan = totalKeuntunganSen / 100.0;
+
+            // ========== TOTALS SECTION ==========
+            createTotalsSection(sheet, rowNum++, totalLabelStyle, totalValueStyle,
+                    totalModal, totalPendapatan, totalKeuntungan);
+
+            // ========== SUMMARY SECTION ==========
+            String[] summaryLabels = {
+                "Total Modal Investasi",
+                "Total Pendapatan Usaha",
+                "Total Keuntungan Bersih",
+                "Margin Keuntungan (%)",
+                "Rasio Pendapatan terhadap Modal"
+            };
+
+            int summaryStartRow = rowNum;
+            createSummarySection(sheet, rowNum, summaryStyle, textStyleEven, currencyStyleEven,
+                    totalModal, totalPendapatan, totalKeuntungan, summaryLabels);
+
+            // ========== FOOTER ==========
+            int footerRowNum = summaryStartRow + summaryLabels.length + 4; // 4 untuk jarak
+            createFooter(sheet, footerRowNum, footerStyle, HEADERS.length - 1);
+
+            sheet.createFreezePane(0, BARIS_DATA_AWAL); // Freeze header rows
+            workbook.setActiveSheet(0);
+
+            workbook.write(out);
+        } finally {
+            if (streaming != null) {
+                streaming.dispose();
+            }
+            workbook.close();
+        }
+    }
+
+    /**
+     * Menulis laporan tabel umum (mis. kinerja kasir) dengan kerangka dan style yang sama
+     * seperti laporan pendapatan. Baris dibaca satu per satu dari iterator; bila jumlahnya
+     * melebihi jendela, sheet ditulis dengan SXSSF sehingga data tidak perlu dimuat
+     * seluruhnya ke memori. Lebar kolom diperkirakan dari baris di jendela pertama.
+     */
+    public void writeTabel(String judul, List<Kolom> kolom, Iterator<Object[]> baris, OutputStream out)
+            throws IOException {
+        String[] headers = kolom.stream().map(Kolom::judul).toArray(String[]::new);
+        Kerangka kerangka = buatKerangka(judul, judul.toUpperCase(), headers);
+        XSSFWorkbook base = kerangka.workbook();
+
+        List<Object[]> jendela = new ArrayList<>();
+        while (jendela.size() <= JENDELA_BARIS && baris.hasNext()) {
+            jendela.add(baris.next());
+        }
+
+        SXSSFWorkbook streaming = null;
+        Workbook workbook = base;
+        if (jendela.size() > JENDELA_BARIS) {
+            streaming = new SXSSFWorkbook(base, JENDELA_BARIS);
+            streaming.setCompressTempFiles(true);
+            workbook = streaming;
+        }
+        try {
+            Sheet sheet = workbook.getSheetAt(0);
+            int[] gaya = kerangka.gaya();
+            CellStyle textStyleEven = workbook.getCellStyleAt(gaya[GAYA_TEXT_EVEN]);
+            CellStyle textStyleOdd = workbook.getCellStyleAt(gaya[GAYA_TEXT_ODD]);
+            CellStyle currencyStyleEven = workbook.getCellStyleAt(gaya[GAYA_CURRENCY_EVEN]);
+            CellStyle currencyStyleOdd = workbook.getCellStyleAt(gaya[GAYA_CURRENCY_ODD]);
+            CellStyle totalLabelStyle = workbook.getCellStyleAt(gaya[GAYA_TOTAL_LABEL]);
+            CellStyle totalValueStyle = workbook.getCellStyleAt(gaya[GAYA_TOTAL_VALUE]);
+            CellStyle footerStyle = workbook.getCellStyleAt(gaya[GAYA_FOOTER]);
+
+            formatColumns(sheet, kolom, jendela);
+
+            int rowNum = BARIS_DATA_AWAL;
+            BigDecimal[] total = new BigDecimal[kolom.size()];
+            Iterator<Object[]> awal = jendela.iterator();
+            for (int i = 0; awal.hasNext() || baris.hasNext(); i++) {
+                Object[] nilaiBaris = awal.hasNext() ? awal.next() : baris.next();
+                boolean isEvenRow = (i % 2 == 0);
+                Row row = sheet.createRow(rowNum++);
+
+                for (int k = 0; k < kolom.size(); k++) {
+                    Object nilai = k < nilaiBaris.length ? nilaiBaris[k] : null;
+                    Cell cell = row.createCell(k);
+                    if (nilai instanceof Number angka) {
+                        cell.setCellValue(angka.doubleValue());
+                        if (kolom.get(k).total()) {
+                            BigDecimal desimal = new BigDecimal(angka.toString());
+                            total[k] = total[k] == null ? desimal : total[k].add(desimal);
+                        }
+                    } else if (nilai != null) {
+                        cell.setCellValue(nilai.toString());
+                    }
+                    if (kolom.get(k).uang()) {
+                        cell.setCellStyle(isEvenRow ? currencyStyleEven : currencyStyleOdd);
+                    } else {
+                        cell.setCellStyle(isEvenRow ? textStyleEven : textStyleOdd);
+                    }
+                }
+            }
+
+            // ========== TOTALS SECTION ==========
+            sheet.createRow(rowNum++).setHeight((short) 200);
+            Row totalRow = sheet.createRow(rowNum++);
+            totalRow.setHeight((short) 500);
+            for (int k = 0; k < kolom.size(); k++) {
+                Cell cell = totalRow.createCell(k);
+                if (k == 0) {
+                    cell.setCellValue("TOTAL");
+                    cell.setCellStyle(totalLabelStyle);
+                } else if (total[k] != null) {
+                    cell.setCellValue(total[k].doubleValue());
+                    cell.setCellStyle(kolom.get(k).uang() ? totalValueStyle : totalLabelStyle);
+                } else {
+                    cell.setCellStyle(totalLabelStyle);
+                }
+            }
+
+            // ========== FOOTER ==========
+            createFooter(sheet, rowNum + 3, footerStyle, Math.max(headers.length - 1, 5));
+
+            sheet.createFreezePane(0, BARIS_DATA_AWAL);
+            workbook.setActiveSheet(0);
+
+            workbook.write(out);
+        } finally {
+            if (streaming != null) {
+                streaming.dispose();
+            }
+            workbook.close();
+        }
+    }
+
+    /**
+     * Kerangka workbook: style, header perusahaan, judul dan header kolom. Index style
+     * dicatat supaya bagian penulisan data tidak perlu tahu cara style itu dibuat.
+     */
+    Kerangka buatKerangka(String namaSheet, String judul, String[] headers) {
+        int kolomTerakhir = Math.max(headers.length - 1, 5);
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet(namaSheet);
+        DataFormat format = workbook.createDataFormat();
+
+        // ========== STYLE DEFINITIONS ==========
+        // Title Style
+        CellStyle titleStyle = workbook.createCellStyle();
+        Font titleFont = workbook.createFont();
+        titleFont.setBold(true);
+        titleFont.setFontHeightInPoints((short) 20);
+        titleFont.setFontName("Calibri");
+        titleFont.setColor(IndexedColors.WHITE.getIndex());
+        titleStyle.setFont(titleFont);
+        titleStyle.setFillForegroundColor(PRIMARY_COLOR.getIndex());
+        titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        titleStyle.setAlignment(HorizontalAlignment.CENTER);
+        titleStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+        titleStyle.setBorderBottom(BorderStyle.MEDIUM);
+
+        // Subtitle Style
+        CellStyle subtitleStyle = workbook.createCellStyle();
+        Font subtitleFont = workbook.createFont();
+        subtitleFont.setBold(true);
+        subtitleFont.setFontHeightInPoints((short) 12);
+        subtitleFont.setFontName("Calibri");
+        subtitleFont.setColor(PRIMARY_COLOR.getIndex());
+        subtitleStyle.setFont(subtitleFont);
+        subtitleStyle.setAlignment(HorizontalAlignment.CENTER);
+        subtitleStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+
+        // Header Style
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerFont.setFontHeightInPoints((short) 11);
+        headerFont.setFontName("Calibri");
+        headerFont.setColor(IndexedColors.WHITE.getIndex());
+        headerStyle.setFont(headerFont);
+        headerStyle.setFillForegroundColor(PRIMARY_COLOR.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        headerStyle.setAlignment(HorizontalAlignment.CENTER);
+        headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+        headerStyle.setBorderBottom(BorderStyle.MEDIUM);
+        headerStyle.setBorderTop(BorderStyle.MEDIUM);
+        headerStyle.setBorderLeft(BorderStyle.MEDIUM);
+        headerStyle.setBorderRight(BorderStyle.MEDIUM);
+
+        // Data Cell Styles
+        CellStyle textStyleEven = createDataCellStyle(workbook, false, SECONDARY_COLOR);
+        CellStyle textStyleOdd = createDataCellStyle(workbook, false, null);
+        CellStyle currencyStyleEven = createCurrencyCellStyle(workbook, format, false, SECONDARY_COLOR);
+        CellStyle currencyStyleOdd = createCurrencyCellStyle(workbook, format, false, null);
+
+        // Total Styles
+        CellStyle totalLabelStyle = createTotalLabelStyle(workbook, PRIMARY_COLOR);
+        CellStyle totalValueStyle = createTotalValueStyle(workbook, format, HIGHLIGHT_COLOR);
+
+        // Other Styles
+        CellStyle dateStyle = createDateStyle(workbook);
+        CellStyle companyStyle = createCompanyStyle(workbook, PRIMARY_COLOR);
+        CellStyle footerStyle = createFooterStyle(workbook);
+        CellStyle summaryStyle = createSummaryStyle(workbook, ACCENT_COLOR);
+
+        // ========== REPORT HEADER ==========
+        // Company Information
+        createCompanyHeader(sheet, companyStyle, textStyleEven, kolomTerakhir);
+
+        // Report Title
+        createReportTitle(sheet, judul, titleStyle, subtitleStyle, dateStyle, kolomTerakhir);
+
+        // Column Headers
+        createColumnHeaders(sheet, headers, headerStyle);
+
+        int[] gaya = new int[JUMLAH_GAYA];
+        gaya[GAYA_TEXT_EVEN] = textStyleEven.getIndex();
+        gaya[GAYA_TEXT_ODD] = textStyleOdd.getIndex();
+        gaya[GAYA_CURRENCY_EVEN] = currencyStyleEven.getIndex();
+        gaya[GAYA_CURRENCY_ODD] = currencyStyleOdd.getIndex();
+        gaya[GAYA_TOTAL_LABEL] = totalLabelStyle.getIndex();
+        gaya[GAYA_TOTAL_VALUE] = totalValueStyle.getIndex();
+        gaya[GAYA_FOOTER] = footerStyle.getIndex();
+        gaya[GAYA_SUMMARY] = summaryStyle.getIndex();
+
+        return new Kerangka(workbook, gaya);
+    }
+
+    private double nilai(Number angka) {
+        return angka != null ? angka.doubleValue() : 0.0;
+    }
+
+    private long sen(BigDecimal angka) {
+        return angka != null ? angka.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0L;
+    }
+
+    // Lebar kolom diperkirakan dari jumlah karakter terpanjang, meniru hasil autoSizeColumn + 1000
+    private void formatColumns(Sheet sheet, List<LaporanPendapatanResponse> data) {
+        int[] karakter = new int[HEADERS.length];
+        for (int i = 0; i < HEADERS.length; i++) {
+            karakter[i] = HEADERS[i].length();
+        }
+
+        double totalPendapatan = 0;
+        for (LaporanPendapatanResponse laporan : data) {
+            if (laporan == null || laporan.getPeriode() == null)
+                continue;
+            karakter[1] = Math.max(karakter[1], laporan.getPeriode().length());
+            totalPendapatan += nilai(laporan.getPendapatan());
+        }
+
+        karakter[0] = Math.max(karakter[0], String.valueOf(data.size()).length());
+        // Nilai terbesar di kolom mata uang adalah baris total pendapatan
+        int lebarMataUang = String.format("Rp%,.2f", totalPendapatan).length();
+        for (int i = 2; i <= 4; i++) {
+            karakter[i] = Math.max(karakter[i], lebarMataUang);
+        }
+        karakter[5] = Math.max(karakter[5], "100.00%".length());
+
+        for (int i = 0; i < HEADERS.length; i++) {
+            int desiredWidth = Math.min((karakter[i] + 1) * 256 + 1000, 255 * 256);
+
+            // Special handling for specific columns
+            if (i == 1) { // Periode column
+                desiredWidth = Math.max(desiredWidth, 4000); // Minimum width for period
+            } else if (i == 5) { // Margin column
+                desiredWidth = Math.max(desiredWidth, 3000); // Minimum width for margin
+            }
+
+            sheet.setColumnWidth(i, desiredWidth);
+        }
+    }
+
+    private void formatColumns(Sheet sheet, List<Kolom> kolom, List<Object[]> jendela) {
+        int[] karakter = new int[kolom.size()];
+        for (int k = 0; k < kolom.size(); k++) {
+            karakter[k] = kolom.get(k).judul().length();
+        }
+        for (Object[] nilaiBaris : jendela) {
+            for (int k = 0; k < kolom.size() && k < nilaiBaris.length; k++) {
+                Object nilai = nilaiBaris[k];
+                if (nilai == null) {
+                    continue;
+                }
+                String teks = kolom.get(k).uang() ? String.format("Rp%,.2f", ((Number) nilai).doubleValue())
+                        : nilai.toString();
+                karakter[k] = Math.max(karakter[k], teks.length());
+            }
+        }
+        for (int k = 0; k < kolom.size(); k++) {
+            // Baris total bisa lebih lebar dari data di jendela pertama
+            int lebar = kolom.get(k).total() ? karakter[k] + 4 : karakter[k];
+            sheet.setColumnWidth(k, Math.min((lebar + 1) * 256 + 1000, 255 * 256));
+        }
+    }
+
+    private void createChartSheet(XSSFWorkbook workbook, List<LaporanPendapatanResponse> data) {
+        XSSFSheet chartSheet = workbook.createSheet("Grafik Pendapatan");
+
+        // Create header row
+        Row chartHeaderRow = chartSheet.createRow(0);
+        String[] headers = { "Periode", "Modal", "Pendapatan", "Keuntungan" };
+        for (int i = 0; i < headers.length; i++) {
+            chartHeaderRow.createCell(i).setCellValue(headers[i]);
+        }
+
+        // Data grafik diambil dari baris yang sama dengan sheet utama
+        List<LaporanPendapatanResponse> baris = new ArrayList<>(data.size());
+        for (LaporanPendapatanResponse laporan : data) {
+            if (laporan != null && laporan.getPeriode() != null) {
+                baris.add(laporan);
+            }
+        }
+        if (baris.isEmpty()) {
+            return;
+        }
+
+        for (int i = 0; i < baris.size(); i++) {
+            LaporanPendapatanResponse laporan = baris.get(i);
+            Row chartDataRow = chartSheet.createRow(i + 1);
+            chartDataRow.createCell(0).setCellValue(laporan.getPeriode());
+            chartDataRow.createCell(1).setCellValue(nilai(laporan.getModal()));
+            chartDataRow.createCell(2).setCellValue(nilai(laporan.getPendapatan()));
+            chartDataRow.createCell(3).setCellValue(nilai(laporan.getKeuntungan()));
+        }
+
+        // Create chart
+        XSSFDrawing drawing = chartSheet.createDrawingPatriarch();
+        XSSFClientAnchor anchor = drawing.createAnchor(0, 0, 0, 0, 0, 5, 10, 25);
+        XSSFChart chart = drawing.createChart(anchor);
+
+        // Chart configuration
+        chart.setTitleText("Grafik Pendapatan dan Keuntungan");
+        chart.setTitleOverlay(false);
+        chart.getOrAddLegend().setPosition(LegendPosition.BOTTOM);
+
+        // Create axes
+        XDDFCategoryAxis bottomAxis = chart.createCategoryAxis(AxisPosition.BOTTOM);
+        bottomAxis.setTitle("Periode");
+        XDDFValueAxis leftAxis = chart.createValueAxis(AxisPosition.LEFT);
+        leftAxis.setTitle("Nilai (Rp)");
+        leftAxis.setCrosses(AxisCrosses.AUTO_ZERO);
+
+        // Data sources
+        XDDFDataSource<String> periodeSeries = XDDFDataSourcesFactory.fromStringCellRange(
+                chartSheet, new CellRangeAddress(1, baris.size(), 0, 0));
+
+        XDDFNumericalDataSource<Double> modalSeries = XDDFDataSourcesFactory.fromNumericCellRange(
+                chartSheet, new CellRangeAddress(1, baris.size(), 1, 1));
+
+        XDDFNumericalDataSource<Double> pendapatanSeries = XDDFDataSourcesFactory.fromNumericCellRange(
+                chartSheet, new CellRangeAddress(1, baris.size(), 2, 2));
+
+        XDDFNumericalDataSource<Double> keuntunganSeries = XDDFDataSourcesFactory.fromNumericCellRange(
+                chartSheet, new CellRangeAddress(1, baris.size(), 3, 3));
+
+        // Create chart data
+        XDDFChartData chartData = chart.createData(ChartTypes.BAR, bottomAxis, leftAxis);
+
+        // Add series with different colors
+        XDDFChartData.Series series1 = chartData.addSeries(periodeSeries, modalSeries);
+        series1.setTitle("Modal", null);
+        setSeriesColor(series1, new byte[] { (byte) 0, (byte) 102, (byte) 204 }); // Blue
+
+        XDDFChartData.Series series2 = chartData.addSeries(periodeSeries, pendapatanSeries);
+        series2.setTitle("Pendapatan", null);
+        setSeriesColor(series2, new byte[] { (byte) 0, (byte) 204, (byte) 102 }); // Green
+
+        XDDFChartData.Series series3 = chartData.addSeries(periodeSeries, keuntunganSeries);
+        series3.setTitle("Keuntungan", null);
+        setSeriesColor(series3, new byte[] { (byte) 204, (byte) 102, (byte) 0 }); // Orange
+
+        chart.plot(chartData);
+    }
+
+    // ========== HELPER METHODS ==========
+
+    private CellStyle createDataCellStyle(Workbook workbook, boolean isBold, IndexedColors fillColor) {
+        CellStyle style = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setFontName("Calibri");
+        font.setFontHeightInPoints((short) 10);
+        font.setBold(isBold);
+        style.setFont(font);
+
+        if (fillColor != null) {
+            style.setFillForegroundColor(fillColor.getIndex());
+            style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        }
+
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderTop(BorderStyle.THIN);
+        style.setBorderLeft(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+        style.setVerticalAlignment(VerticalAlignment.CENTER);
+
+        return style;
+    }
+
+    private CellStyle createCurrencyCellStyle(Workbook workbook, DataFormat format, boolean isBold,
+            IndexedColors fillColor) {
+        CellStyle style = createDataCellStyle(workbook, isBold, fillColor);
+        style.setDataFormat(format.getFormat("Rp#,##0.00"));
+        style.setAlignment(HorizontalAlignment.RIGHT);
+        return style;
+    }
+
+    private CellStyle createTotalLabelStyle(Workbook workbook, IndexedColors fillColor) {
+        CellStyle style = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setBold(true);
+        font.setFontHeightInPoints((short) 11);
+        font.setColor(IndexedColors.WHITE.getIndex());
+        style.setFont(font);
+        style.setFillForegroundColor(fillColor.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        style.setBorderBottom(BorderStyle.MEDIUM);
+        style.setBorderTop(BorderStyle.MEDIUM);
+        style.setBorderLeft(BorderStyle.MEDIUM);
+        style.setBorderRight(BorderStyle.MEDIUM);
+        style.setAlignment(HorizontalAlignment.CENTER);
+        style.setVerticalAlignment(VerticalAlignment.CENTER);
+        return style;
+    }
+
+    private CellStyle createTotalValueStyle(Workbook workbook, DataFormat format, IndexedColors fillColor) {
+        CellStyle style = createTotalLabelStyle(workbook, fillColor);
+        style.setDataFormat(format.getFormat("Rp#,##0.00"));
+        style.setAlignment(HorizontalAlignment.RIGHT);
+        return style;
+    }
+
+    private CellStyle createDateStyle(Workbook workbook) {
+        CellStyle style = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setItalic(true);
+        font.setFontHeightInPoints((short) 10);
+        style.setFont(font);
+        style.setAlignment(HorizontalAlignment.RIGHT);
+        return style;
+    }
+
+    private CellStyle createCompanyStyle(Workbook workbook, IndexedColors color) {
+        CellStyle style = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setBold(true);
+        font.setFontHeightInPoints((short) 12);
+        font.setColor(color.getIndex());
+        style.setFont(font);
+        style.setAlignment(HorizontalAlignment.LEFT);
+        return style;
+    }
+
+    private CellStyle createFooterStyle(Workbook workbook) {
+        CellStyle style = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setFontHeightInPoints((short) 8);
+        font.setItalic(true);
+        style.setFont(font);
+        style.setAlignment(HorizontalAlignment.CENTER);
+        return style;
+    }
+
+    private CellStyle createSummaryStyle(Workbook workbook, IndexedColors fillColor) {
+        CellStyle style = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setBold(true);
+        font.setFontHeightInPoints((short) 11);
+        font.setColor(IndexedColors.WHITE.getIndex());
+        style.setFont(font);
+        style.setFillForegroundColor(fillColor.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        style.setAlignment(HorizontalAlignment.LEFT);
+        style.setVerticalAlignment(VerticalAlignment.CENTER);
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderTop(BorderStyle.THIN);
+        style.setBorderLeft(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+        return style;
+    }
+
+    private void createCompanyHeader(Sheet sheet, CellStyle companyStyle, CellStyle textStyle, int kolomTerakhir) {
+        // Company Row 1
+        Row companyRow1 = sheet.createRow(0);
+        companyRow1.setHeight((short) 400);
+        Cell companyNameCell = companyRow1.createCell(0);
+        companyNameCell.setCellValue("SnapMart");
+        companyNameCell.setCellStyle(companyStyle);
+        sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, kolomTerakhir));
+
+        // Company Row 2
+        Row companyRow2 = sheet.createRow(1);
+        Cell companyAddressCell = companyRow2.createCell(0);
+        companyAddressCell.setCellValue("Jl. Sukaraja No. 123, Bandung");
+        companyAddressCell.setCellStyle(textStyle);
+        sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, kolomTerakhir));
+
+        // Company Row 3
+        Row companyRow3 = sheet.createRow(2);
+        Cell companyContactCell = companyRow3.createCell(0);
+        companyContactCell.setCellValue("Telp: (021) 123-4567 | Email: info@snapmart.com");
+        companyContactCell.setCellStyle(textStyle);
+        sheet.addMergedRegion(new CellRangeAddress(2, 2, 0, kolomTerakhir));
+
+        // Empty row
+        sheet.createRow(3).setHeight((short) 200);
+    }
+
+    private void createReportTitle(Sheet sheet, String judul, CellStyle titleStyle, CellStyle subtitleStyle,
+            CellStyle dateStyle, int kolomTerakhir) {
+        // Title Row
+        Row titleRow = sheet.createRow(4);
+        titleRow.setHeight((short) 800);
+        Cell titleCell = titleRow.createCell(0);
+        titleCell.setCellValue(judul);
+        titleCell.setCellStyle(titleStyle);
+        sheet.addMergedRegion(new CellRangeAddress(4, 4, 0, kolomTerakhir));
+
+        // Subtitle Row
+        Row subtitleRow = sheet.createRow(5);
+        subtitleRow.setHeight((short) 400);
+        Cell subtitleCell = subtitleRow.createCell(0);
+        subtitleCell.setCellValue("SnapMart - ANALISIS KEUANGAN");
+        subtitleCell.setCellStyle(subtitleStyle);
+        sheet.addMergedRegion(new CellRangeAddress(5, 5, 0, kolomTerakhir));
+
+        // Date Row
+        Row dateRow = sheet.createRow(6);
+        Cell dateCell = dateRow.createCell(kolomTerakhir - 2);
+        dateCell.setCellValue("Tanggal Cetak: " + new SimpleDateFormat("dd MMMM yyyy").format(new Date()));
+        dateCell.setCellStyle(dateStyle);
+        sheet.addMergedRegion(new CellRangeAddress(6, 6, kolomTerakhir - 2, kolomTerakhir));
+
+        // Empty row
+        sheet.createRow(7).setHeight((short) 300);
+    }
+
+    private void createColumnHeaders(Sheet sheet, String[] headers, CellStyle headerStyle) {
+        Row headerRow = sheet.createRow(8);
+        headerRow.setHeight((short) 450);
+
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+    }
+
+    private void createCurrencyCell(Row row, int column, double value, CellStyle style) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        cell.setCellStyle(style);
+    }
+
+    private void createTotalsSection(Sheet sheet, int rowNum, CellStyle labelStyle,
+            CellStyle valueStyle, double totalModal,
+            double totalPendapatan, double totalKeuntungan) {
+        // Empty row before totals
+        sheet.createRow(rowNum++).setHeight((short) 200);
+
+        // Totals Row
+        Row totalRow = sheet.createRow(rowNum++);
+        totalRow.setHeight((short) 500);
+
+        // Total Label
+        Cell totalLabelCell = totalRow.createCell(0);
+        totalLabelCell.setCellValue("TOTAL");
+        totalLabelCell.setCellStyle(labelStyle);
+        sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, 0, 1));
+
+        // Total Modal
+        createCurrencyCell(totalRow, 2, totalModal, valueStyle);
+
+        // Total Pendapatan
+        createCurrencyCell(totalRow, 3, totalPendapatan, valueStyle);
+
+        // Total Keuntungan
+        createCurrencyCell(totalRow, 4, totalKeuntungan, valueStyle);
+
+        // Total Margin
+        Cell totalMarginCell = totalRow.createCell(5);
+        double totalMargin = (totalModal > 0) ? (totalKeuntungan / totalModal) * 100 : 0;
+        totalMarginCell.setCellValue(String.format("%.2f%%", totalMargin));
+        totalMarginCell.setCellStyle(labelStyle);
+    }
+
+    private void createSummarySection(Sheet sheet, int rowNum, CellStyle headerStyle,
+            CellStyle textStyle, CellStyle currencyStyle,
+            double totalModal, double totalPendapatan,
+            double totalKeuntungan, String[] summaryLabels) {
+        // Empty rows before summary
+        rowNum += 2;
+
+        // Summary Header
+        Row summaryHeaderRow = sheet.createRow(rowNum++);
+        Cell summaryHeaderCell = summaryHeaderRow.createCell(0);
+        summaryHeaderCell.setCellValue("RINGKASAN KINERJA KEUANGAN");
+        summaryHeaderCell.setCellStyle(headerStyle);
+        sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, 0, 5));
+
+        Object[] summaryValues = {
+                totalModal,
+                totalPendapatan,
+                totalKeuntungan,
+                String.format("%.2f%%", (totalModal > 0) ? (totalKeuntungan / totalModal) * 100 : 0),
+                String.format("%.2f", totalModal > 0 ? totalPendapatan / totalModal : 0)
+        };
+
+        for (int i = 0; i < summaryLabels.length; i++) {
+            Row summaryRow = sheet.createRow(rowNum++);
+
+            // Label
+            Cell labelCell = summaryRow.createCell(0);
+            labelCell.setCellValue(summaryLabels[i]);
+            labelCell.setCellStyle(textStyle);
+            sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, 0, 2));
+
+            // Value
+            Cell valueCell = summaryRow.createCell(3);
+            if (summaryValues[i] instanceof Double) {
+                valueCell.setCellValue((Double) summaryValues[i]);
+                valueCell.setCellStyle(currencyStyle);
+            } else {
+                valueCell.setCellValue(summaryValues[i].toString());
+                valueCell.setCellStyle(textStyle);
+            }
+            sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, 3, 5));
+        }
+    }
+
+    private void setSeriesColor(XDDFChartData.Series series, byte[] rgb) {
+        XDDFSolidFillProperties fill = new XDDFSolidFillProperties();
+        fill.setColor(XDDFColor.from(rgb));
+        XDDFShapeProperties shapeProperties = new XDDFShapeProperties();
+        shapeProperties.setFillProperties(fill);
+        series.setShapeProperties(shapeProperties);
+    }
+
+    private void createFooter(Sheet sheet, int rowNum, CellStyle footerStyle, int kolomTerakhir) {
+        Row footerRow = sheet.createRow(rowNum);
+        Cell footerCell = footerRow.createCell(0);
+        footerCell.setCellValue("© SnapMart " + Calendar.getInstance().get(Calendar.YEAR) +
+                " - Laporan ini dibuat secara otomatis dan valid tanpa tanda tangan.");
+        footerCell.setCellStyle(footerStyle);
+        sheet.addMergedRegion(new CellRangeAddress(rowNum, rowNum, 0, kolomTerakhir));
+    }
+}
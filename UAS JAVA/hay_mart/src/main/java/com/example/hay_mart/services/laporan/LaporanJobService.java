@@ -0,0 +1,20 @@
+package com.example.hay_mart.services.laporan;
+
+import java.nio.file.Path;
+import com.example.hay_mart.dto.laporan.LaporanJobRequest;
+import com.example.hay_mart.dto.laporan.LaporanJobResponse;
+
+public interface LaporanJobService {
+    String MENUNGGU = "MENUNGGU";
+    String BERJALAN = "BERJALAN";
+    String SELESAI = "SELESAI";
+    String GAGAL = "GAGAL";
+
+    LaporanJobResponse submit(LaporanJobRequest request);
+
+    LaporanJobResponse getStatus(String jobId);
+
+    Path getFile(String jobId);
+
+    String getNamaFile(String jobId);
+}
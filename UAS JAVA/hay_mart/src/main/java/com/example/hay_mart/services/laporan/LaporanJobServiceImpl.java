@@ -0,0 +1,380 @@
+package com.example.hay_mart.services.laporan;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import com.example.hay_mart.dto.laporan.LaporanJobRequest;
+import com.example.hay_mart.dto.laporan.LaporanJobResponse;
+import com.example.hay_mart.services.GetAuthorities;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Menjalankan pembuatan laporan Excel di luar thread request. Job diantrekan ke worker
+ * pool berukuran tetap, setiap user dibatasi jumlah job aktifnya, dan file hasil
+ * disimpan di disk sampai TTL habis.
+ *
+ * Metadata setiap job ditulis sebagai file sidecar {@code <jobId>.json} di samping file
+ * hasil, sehingga job yang sudah selesai tetap bisa diunduh setelah aplikasi restart.
+ * Saat start, job yang belum selesai ditandai gagal dan file yang sudah kedaluwarsa dihapus.
+ */
+@Service
+@Slf4j
+public class LaporanJobServiceImpl implements LaporanJobService {
+    private static final Set<String> JENIS_VALID = Set.of(LaporanPendapatanService.HARIAN,
+            LaporanPendapatanService.MINGGUAN, LaporanPendapatanService.BULANAN, LaporanPendapatanService.TAHUNAN,
+            LaporanPendapatanService.PERMINTAAN);
+
+    @Autowired
+    LaporanPendapatanService laporanPendapatanService;
+
+    @Autowired
+    GetAuthorities getAuthorities;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${app.laporan.job.dir:${java.io.tmpdir}/hay-mart-laporan-job}")
+    String direktori;
+
+    @Value("${app.laporan.job.threads:2}")
+    int jumlahWorker;
+
+    @Value("${app.laporan.job.queue:50}")
+    int kapasitasAntrean;
+
+    @Value("${app.laporan.job.per-user:2}")
+    int batasPerUser;
+
+    @Value("${app.laporan.job.ttl-ms:3600000}")
+    long ttlMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> aktifPerUser = new ConcurrentHashMap<>();
+
+    private static class Job {
+        String id;
+        String pemilik;
+        LaporanJobRequest request;
+        volatile String status = MENUNGGU;
+        volatile int progress = 0;
+        volatile String pesan;
+        LocalDateTime dibuat = LocalDateTime.now();
+        volatile LocalDateTime selesai;
+        volatile Path file;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class MetadataJob {
+        private String id;
+        private String pemilik;
+        private LaporanJobRequest request;
+        private String status;
+        private String pesan;
+        private LocalDateTime dibuat;
+        private LocalDateTime selesai;
+    }
+
+    @PostConstruct
+    void init() {
+        pulihkan();
+
+        AtomicInteger nomor = new AtomicInteger();
+        executor = new ThreadPoolExecutor(jumlahWorker, jumlahWorker, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(kapasitasAntrean),
+                r -> {
+                    Thread t = new Thread(r, "laporan-job-" + nomor.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public LaporanJobResponse submit(LaporanJobRequest request) {
+        validasi(request);
+        String pemilik = getAuthorities.getAuthenticatedUser().getEmail();
+
+        AtomicInteger aktif = aktifPerUser.computeIfAbsent(pemilik, k -> new AtomicInteger());
+        if (aktif.incrementAndGet() > batasPerUser) {
+            aktif.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Maksimal " + batasPerUser + " job laporan aktif per user");
+        }
+
+        Job job = new Job();
+        job.id = UUID.randomUUID().toString();
+        job.pemilik = pemilik;
+        job.request = request;
+        jobs.put(job.id, job);
+        simpanMetadata(job);
+
+        try {
+            executor.execute(() -> jalankan(job, aktif));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            hapusFile(metadataFile(job.id));
+            aktif.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Antrean laporan penuh, coba lagi nanti");
+        }
+
+        return toResponse(job);
+    }
+
+    @Override
+    public LaporanJobResponse getStatus(String jobId) {
+        return toResponse(cariMilikUser(jobId));
+    }
+
+    @Override
+    public Path getFile(String jobId) {
+        Job job = cariMilikUser(jobId);
+        if (!SELESAI.equals(job.status)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Laporan belum selesai dibuat");
+        }
+        if (job.file == null || !Files.isRegularFile(job.file)) {
+            throw new ResponseStatusException(HttpStatus.GONE, "File laporan sudah kedaluwarsa");
+        }
+        return job.file;
+    }
+
+    @Override
+    public String getNamaFile(String jobId) {
+        Job job = cariMilikUser(jobId);
+        LaporanJobRequest request = job.request;
+        if (LaporanPendapatanService.PERMINTAAN.equals(request.getJenis())) {
+            return "laporan_pendapatan_" + request.getStartDate() + "_" + request.getEndDate() + ".xlsx";
+        }
+        return "laporan_" + request.getJenis() + ".xlsx";
+    }
+
+    @Scheduled(fixedDelayString = "${app.laporan.job.cleanup-ms:60000}")
+    public void bersihkan() {
+        LocalDateTime batas = LocalDateTime.now().minusNanos(ttlMs * 1_000_000);
+        jobs.values().removeIf(job -> {
+            if (job.selesai == null || job.selesai.isAfter(batas)) {
+                return false;
+            }
+            hapusFile(hasilFile(job.id));
+            hapusFile(metadataFile(job.id));
+            return true;
+        });
+    }
+
+    /**
+     * Memuat kembali job dari file sidecar. Job yang masih menunggu atau berjalan saat
+     * aplikasi berhenti tidak akan pernah selesai, jadi ditandai gagal. Job dan file hasil
+     * yang TTL-nya sudah habis, serta file hasil tanpa metadata, langsung dihapus.
+     */
+    void pulihkan() {
+        Path dir = Paths.get(direktori);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        LocalDateTime sekarang = LocalDateTime.now();
+        LocalDateTime batas = sekarang.minusNanos(ttlMs * 1_000_000);
+
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String nama = file.getFileName().toString();
+                if (nama.endsWith(".json")) {
+                    pulihkanJob(file, sekarang, batas);
+                } else if (nama.endsWith(".xlsx") || nama.endsWith(".tmp")) {
+                    String id = nama.substring(0, nama.lastIndexOf('.'));
+                    if (!Files.exists(metadataFile(id)) && diubahSebelum(file, batas)) {
+                        hapusFile(file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Gagal membaca direktori job laporan {}: {}", dir, e.getMessage());
+        }
+        log.info("{} job laporan dipulihkan dari {}", jobs.size(), dir);
+    }
+
+    private void pulihkanJob(Path file, LocalDateTime sekarang, LocalDateTime batas) {
+        MetadataJob metadata;
+        try {
+            metadata = objectMapper.readValue(file.toFile(), MetadataJob.class);
+        } catch (IOException e) {
+            log.warn("Metadata job laporan {} tidak terbaca, dihapus: {}", file, e.getMessage());
+            hapusFile(file);
+            return;
+        }
+
+        Job job = new Job();
+        job.id = metadata.getId();
+        job.pemilik = metadata.getPemilik();
+        job.request = metadata.getRequest();
+        job.status = metadata.getStatus();
+        job.pesan = metadata.getPesan();
+        job.dibuat = metadata.getDibuat();
+        job.selesai = metadata.getSelesai();
+
+        if (!SELESAI.equals(job.status) && !GAGAL.equals(job.status)) {
+            job.status = GAGAL;
+            job.pesan = "Aplikasi dimulai ulang sebelum laporan selesai dibuat";
+            job.selesai = sekarang;
+            hapusFile(hasilFile(job.id));
+            simpanMetadata(job);
+        }
+        if (job.selesai.isBefore(batas)) {
+            hapusFile(hasilFile(job.id));
+            hapusFile(file);
+            return;
+        }
+        if (SELESAI.equals(job.status)) {
+            job.progress = 100;
+            job.file = hasilFile(job.id);
+        }
+        jobs.put(job.id, job);
+    }
+
+    private void jalankan(Job job, AtomicInteger aktif) {
+        try {
+            job.status = BERJALAN;
+            job.progress = 10;
+
+            LaporanJobRequest request = job.request;
+            byte[] isi = laporanPendapatanService.getExcel(request.getJenis(), request.getStartDate(),
+                    request.getEndDate(), !Boolean.FALSE.equals(request.getGrafik()));
+            job.progress = 80;
+
+            if (isi == null) {
+                job.pesan = "Data laporan tidak tersedia";
+                job.status = GAGAL;
+                return;
+            }
+
+            Path file = hasilFile(job.id);
+            Files.createDirectories(file.getParent());
+            Files.write(file, isi);
+
+            job.file = file;
+            job.progress = 100;
+            job.status = SELESAI;
+        } catch (Exception e) {
+            log.error("Job laporan {} gagal: {}", job.id, e.getMessage());
+            job.pesan = "Gagal membuat laporan";
+            job.status = GAGAL;
+        } finally {
+            job.selesai = LocalDateTime.now();
+            simpanMetadata(job);
+            aktif.decrementAndGet();
+        }
+    }
+
+    private Path hasilFile(String jobId) {
+        return Paths.get(direktori).resolve(jobId + ".xlsx");
+    }
+
+    private Path metadataFile(String jobId) {
+        return Paths.get(direktori).resolve(jobId + ".json");
+    }
+
+    // Ditulis ke file sementara lalu dipindah, supaya restart tidak pernah membaca JSON setengah jadi
+    private void simpanMetadata(Job job) {
+        Path file = metadataFile(job.id);
+        Path tmp = file.resolveSibling(job.id + ".json.tmp");
+        MetadataJob metadata = new MetadataJob(job.id, job.pemilik, job.request, job.status, job.pesan,
+                job.dibuat, job.selesai);
+        try {
+            Files.createDirectories(file.getParent());
+            objectMapper.writeValue(tmp.toFile(), metadata);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Gagal menyimpan metadata job laporan {}: {}", job.id, e.getMessage());
+        }
+    }
+
+    private boolean diubahSebelum(Path file, LocalDateTime batas) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant()
+                    .isBefore(batas.atZone(ZoneId.systemDefault()).toInstant());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void validasi(LaporanJobRequest request) {
+        if (request == null || request.getJenis() == null || !JENIS_VALID.contains(request.getJenis())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Jenis laporan harus salah satu dari " + JENIS_VALID);
+        }
+        if (LaporanPendapatanService.PERMINTAAN.equals(request.getJenis())) {
+            LocalDate start = request.getStartDate();
+            LocalDate end = request.getEndDate();
+            if (start == null || end == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startDate dan endDate wajib diisi");
+            }
+            if (start.isAfter(end)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startDate tidak boleh setelah endDate");
+            }
+        }
+    }
+
+    // Job milik user lain diperlakukan sama seperti job yang tidak ada
+    private Job cariMilikUser(String jobId) {
+        Job job = jobs.get(jobId);
+        String user = getAuthorities.getAuthenticatedUser().getEmail();
+        if (job == null || !job.pemilik.equals(user)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Job laporan tidak ditemukan");
+        }
+        return job;
+    }
+
+    private void hapusFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Gagal menghapus file job laporan {}: {}", file, e.getMessage());
+        }
+    }
+
+    private LaporanJobResponse toResponse(Job job) {
+        return LaporanJobResponse.builder()
+                .jobId(job.id)
+                .jenis(job.request.getJenis())
+                .status(job.status)
+                .progress(job.progress)
+                .pesan(job.pesan)
+                .dibuat(job.dibuat)
+                .selesai(job.selesai)
+                .kedaluwarsa(job.selesai != null ? job.selesai.plusNanos(ttlMs * 1_000_000) : null)
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.hay_mart.services.laporan;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import com.example.hay_mart.dto.laporan.LaporanKasirResponse;
+
+public interface LaporanKasirService {
+    List<LaporanKasirResponse> getLaporanKasir(LocalDate startDate, LocalDate endDate, String satuan);
+
+    void writeExcel(List<LaporanKasirResponse> data, OutputStream out) throws IOException;
+}
@@ -0,0 +1,62 @@
+package com.example.hay_mart.services.laporan;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import com.example.hay_mart.dao.LaporanKasirDao;
+import com.example.hay_mart.dao.LaporanKasirDaoImpl;
+import com.example.hay_mart.dto.laporan.LaporanKasirResponse;
+
+@Service
+public class LaporanKasirServiceImpl implements LaporanKasirService {
+    private static final List<LaporanExcelWriter.Kolom> KOLOM = List.of(
+            new LaporanExcelWriter.Kolom("Periode", false, false),
+            new LaporanExcelWriter.Kolom("Kasir", false, false),
+            new LaporanExcelWriter.Kolom("Transaksi", false, true),
+            new LaporanExcelWriter.Kolom("Item Terjual", false, true),
+            new LaporanExcelWriter.Kolom("Pendapatan", true, true),
+            new LaporanExcelWriter.Kolom("Rata-rata Belanja", true, false));
+
+    @Autowired
+    private LaporanKasirDao laporanKasirDao;
+
+    @Autowired
+    private LaporanExcelWriter laporanExcelWriter;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LaporanKasirResponse> getLaporanKasir(LocalDate startDate, LocalDate endDate, String satuan) {
+        if (startDate.isAfter(endDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startDate tidak boleh setelah endDate");
+        }
+        String jenisSatuan = satuan != null ? satuan.toLowerCase() : LaporanKasirDaoImpl.SATUAN_TOTAL;
+        if (!List.of(LaporanKasirDaoImpl.SATUAN_TOTAL, LaporanKasirDaoImpl.SATUAN_HARI,
+                LaporanKasirDaoImpl.SATUAN_BULAN).contains(jenisSatuan)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Satuan harus salah satu dari: total, hari, bulan");
+        }
+        return laporanKasirDao.getPerKasir(startDate, endDate, jenisSatuan);
+    }
+
+    @Override
+    public void writeExcel(List<LaporanKasirResponse> data, OutputStream out) throws IOException {
+        laporanExcelWriter.writeTabel("Laporan Kinerja Kasir", KOLOM,
+                data.stream()
+                        .map(laporan -> new Object[] {
+                                laporan.getPeriode(),
+                                laporan.getNamaKasir(),
+                                laporan.getJumlahTransaksi(),
+                                laporan.getJumlahItem(),
+                                laporan.getPendapatan(),
+                                laporan.getRataRataBelanja()
+                        })
+                        .iterator(),
+                out);
+    }
+}
@@ -2,11 +2,19 @@ package com.example.hay_mart.services.laporan;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
+import com.example.hay_mart.dto.laporan.HeatmapPenjualanResponse;
 import com.example.hay_mart.dto.laporan.LaporanPendapatanResponse;
 
 public interface LaporanPendapatanService {
+    String HARIAN = "harian";
+    String MINGGUAN = "mingguan";
+    String BULANAN = "bulanan";
+    String TAHUNAN = "tahunan";
+    String PERMINTAAN = "pendapatan";
+
     List<LaporanPendapatanResponse> generateLaporanHarian();
 
     List<LaporanPendapatanResponse> generateLaporanMingguan();
@@ -18,4 +26,12 @@ public interface LaporanPendapatanService {
     List<LaporanPendapatanResponse> laporanPendapatan(LocalDate startDate, LocalDate endDate);
 
     ByteArrayInputStream generateExcel(List<LaporanPendapatanResponse> data) throws IOException;
+
+    void writeExcel(List<LaporanPendapatanResponse> data, boolean grafik, OutputStream out) throws IOException;
+
+    byte[] getExcel(String jenis, LocalDate startDate, LocalDate endDate, boolean grafik) throws Exception;
+
+    HeatmapPenjualanResponse getHeatmap(LocalDate startDate, LocalDate endDate);
+
+    void writeHeatmapExcel(HeatmapPenjualanResponse heatmap, boolean pendapatan, OutputStream out) throws IOException;
 }
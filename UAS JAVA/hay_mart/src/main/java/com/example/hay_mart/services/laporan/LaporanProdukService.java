@@ -1,8 +1,23 @@
 package com.example.hay_mart.services.laporan;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
+import com.example.hay_mart.dto.PageResponse;
 import com.example.hay_mart.dto.laporan.LaporanProdukResponse;
+import com.example.hay_mart.dto.laporan.ProdukTerlarisResponse;
 
 public interface LaporanProdukService {
+    String FORMAT_CSV = "csv";
+    String FORMAT_XLSX = "xlsx";
+    List<String> KOLOM_URUT = List.of("namaProduk", "jumlahTerjual", "stok", "hargaSatuan", "total");
+
     List<LaporanProdukResponse> getLaporanProduk();
+
+    PageResponse<LaporanProdukResponse> getLaporanProduk(int page, int size, String sortBy, String sortOrder);
+
+    void export(String format, String sortBy, String sortOrder, OutputStream out) throws IOException;
+
+    List<ProdukTerlarisResponse> getProdukTerlaris(LocalDate from, LocalDate to, int n, String urut);
 }
\ No newline at end of file
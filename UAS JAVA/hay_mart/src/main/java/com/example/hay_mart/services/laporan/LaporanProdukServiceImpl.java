@@ -1,30 +1,157 @@
 package com.example.hay_mart.services.laporan;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import com.example.hay_mart.dao.LaporanProdukDao;
+import com.example.hay_mart.dao.LaporanProdukDaoImpl;
+import com.example.hay_mart.dto.PageResponse;
 import com.example.hay_mart.dto.laporan.LaporanProdukResponse;
-import com.example.hay_mart.models.LaporanProduk;
+import com.example.hay_mart.dto.laporan.ProdukTerlarisResponse;
 import com.example.hay_mart.repositorys.LaporanProdukRepository;
 
 @Service
 public class LaporanProdukServiceImpl implements LaporanProdukService {
+    private static final int MAKS_TERLARIS = 100;
+    private static final int MAKS_UKURAN_HALAMAN = 100;
+    private static final List<LaporanExcelWriter.Kolom> KOLOM_EXPORT = List.of(
+            new LaporanExcelWriter.Kolom("Nama Produk", false, false),
+            new LaporanExcelWriter.Kolom("Jumlah Terjual", false, true),
+            new LaporanExcelWriter.Kolom("Stok", false, false),
+            new LaporanExcelWriter.Kolom("Harga Satuan", true, false),
+            new LaporanExcelWriter.Kolom("Total", true, true),
+            new LaporanExcelWriter.Kolom("Dihapus", false, false));
+
     @Autowired
     private LaporanProdukRepository laporanProdukRepository;
 
+    @Autowired
+    private LaporanProdukDao laporanProdukDao;
+
+    @Autowired
+    private LaporanExcelWriter laporanExcelWriter;
+
     @Override
+    @Transactional(readOnly = true)
     public List<LaporanProdukResponse> getLaporanProduk() {
-        List<LaporanProduk> laporanList = laporanProdukRepository.findAll();
-        return laporanList.stream()
-                .map(laporan -> LaporanProdukResponse.builder()
-                        .namaProduk(laporan.getNamaProduk())
-                        .jumlahTerjual(laporan.getJumlahTerjual())
-                        .stok(laporan.getStok())
-                        .hargaSatuan(laporan.getHargaSatuan())
-                        .total(laporan.getTotal())
-                        .deleted(laporan.getDeleted())
-                        .build())
-                .collect(Collectors.toList());
+        return laporanProdukRepository.findAllRingkasan();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<LaporanProdukResponse> getLaporanProduk(int page, int size, String sortBy, String sortOrder) {
+        if (page < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page dimulai dari 1");
+        }
+        if (size < 1 || size > MAKS_UKURAN_HALAMAN) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "size harus antara 1 dan " + MAKS_UKURAN_HALAMAN);
+        }
+        Page<LaporanProdukResponse> hasil = laporanProdukRepository
+                .findRingkasan(PageRequest.of(page - 1, size, urutan(sortBy, sortOrder)));
+        return PageResponse.success(hasil.getContent(), page, size, hasil.getTotalElements());
+    }
+
+    /**
+     * Export seluruh laporan produk. Baris dibaca sebagai stream dari database dan langsung
+     * ditulis ke output, jadi jumlah produk tidak menentukan pemakaian memori.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void export(String format, String sortBy, String sortOrder, OutputStream out) throws IOException {
+        Sort sort = urutan(sortBy, sortOrder);
+        try (Stream<LaporanProdukResponse> rows = laporanProdukRepository.streamRingkasan(sort)) {
+            if (FORMAT_CSV.equals(format)) {
+                tulisCsv(rows.iterator(), out);
+            } else {
+                laporanExcelWriter.writeTabel("Laporan Produk", KOLOM_EXPORT,
+                        rows.map(laporan -> new Object[] {
+                                laporan.getNamaProduk(),
+                                laporan.getJumlahTerjual(),
+                                laporan.getStok(),
+                                laporan.getHargaSatuan(),
+                                laporan.getTotal(),
+                                laporan.isDeleted() ? "Ya" : "Tidak"
+                        }).iterator(),
+                        out);
+            }
+        }
+    }
+
+    private Sort urutan(String sortBy, String sortOrder) {
+        if (sortBy == null || sortBy.isBlank()) {
+            return Sort.by("namaProduk");
+        }
+        if (!KOLOM_URUT.contains(sortBy)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "sortBy harus salah satu dari: " + String.join(", ", KOLOM_URUT));
+        }
+        Sort sort = Sort.by(sortBy);
+        return "desc".equalsIgnoreCase(sortOrder) ? sort.descending() : sort.ascending();
+    }
+
+    private void tulisCsv(Iterator<LaporanProdukResponse> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("nama_produk,jumlah_terjual,stok,harga_satuan,total,deleted\n");
+        while (rows.hasNext()) {
+            LaporanProdukResponse laporan = rows.next();
+            writer.write(csv(laporan.getNamaProduk()));
+            writer.write(',');
+            writer.write(angka(laporan.getJumlahTerjual()));
+            writer.write(',');
+            writer.write(angka(laporan.getStok()));
+            writer.write(',');
+            writer.write(angka(laporan.getHargaSatuan()));
+            writer.write(',');
+            writer.write(angka(laporan.getTotal()));
+            writer.write(',');
+            writer.write(String.valueOf(laporan.isDeleted()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private String angka(Integer nilai) {
+        return nilai != null ? nilai.toString() : "";
+    }
+
+    private String csv(String nilai) {
+        if (nilai == null) {
+            return "";
+        }
+        if (nilai.indexOf(',') < 0 && nilai.indexOf('"') < 0 && nilai.indexOf('\n') < 0 && nilai.indexOf('\r') < 0) {
+            return nilai;
+        }
+        return '"' + nilai.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProdukTerlarisResponse> getProdukTerlaris(LocalDate from, LocalDate to, int n, String urut) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from tidak boleh setelah to");
+        }
+        if (n < 1 || n > MAKS_TERLARIS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "n harus antara 1 dan " + MAKS_TERLARIS);
+        }
+        if (!LaporanProdukDaoImpl.URUT_JUMLAH.equals(urut) && !LaporanProdukDaoImpl.URUT_PENDAPATAN.equals(urut)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "urut harus jumlah atau pendapatan");
+        }
+        return laporanProdukDao.getTerlaris(from, to, n, urut);
     }
 }
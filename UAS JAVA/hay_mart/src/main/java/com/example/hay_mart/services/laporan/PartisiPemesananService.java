@@ -0,0 +1,5 @@
+package com.example.hay_mart.services.laporan;
+
+public interface PartisiPemesananService {
+    int siapkanPartisi();
+}
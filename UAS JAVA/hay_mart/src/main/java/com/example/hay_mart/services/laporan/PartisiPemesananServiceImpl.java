@@ -0,0 +1,153 @@
+package com.example.hay_mart.services.laporan;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Partisi bulanan (RANGE COLUMNS tanggal_pembelian) untuk pemesanan dan detail_pemesanan.
+ *
+ * Mode ini opt-in lewat app.partisi.enabled (lihat profile "partisi"). Saat diaktifkan,
+ * startup memigrasikan tabel yang belum dipartisi: foreign key dilepas karena MySQL tidak
+ * mendukung FK pada tabel berpartisi, tanggal_pembelian masuk ke primary key, lalu tabel
+ * dipecah per bulan dengan partisi pmax di ujung. Task terjadwal memecah pmax menjadi
+ * partisi bulan-bulan berikutnya sebelum datanya masuk.
+ *
+ * Kolom detail_pemesanan.tanggal_pembelian (dibuat migrasi Flyway) diisi untuk baris lama
+ * di kedua mode, karena query laporan memfilter detail dengan kolom itu supaya partisinya
+ * bisa dipangkas.
+ */
+@Service
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PartisiPemesananServiceImpl implements PartisiPemesananService, ApplicationRunner {
+    private static final String[] TABEL = { "pemesanan", "detail_pemesanan" };
+    private static final String PARTISI_MAX = "pmax";
+    private static final DateTimeFormatter NAMA_PARTISI = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    DataSource dataSource;
+
+    @Value("${app.partisi.enabled:false}")
+    boolean aktif;
+
+    @Value("${app.partisi.bulan-ke-depan:3}")
+    int bulanKeDepan;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int terisi = jdbcTemplate.update("UPDATE detail_pemesanan d JOIN pemesanan p ON p.pemesanan_id = d.pemesanan_id "
+                + "SET d.tanggal_pembelian = p.tanggal_pembelian WHERE d.tanggal_pembelian IS NULL");
+        if (terisi > 0) {
+            log.info("tanggal_pembelian diisi untuk {} baris detail_pemesanan lama", terisi);
+        }
+
+        if (!aktif) {
+            return;
+        }
+        for (String tabel : TABEL) {
+            if (daftarPartisi(tabel).isEmpty()) {
+                migrasi(tabel);
+            }
+        }
+        siapkanPartisi();
+    }
+
+    @Override
+    @Scheduled(cron = "${app.partisi.cron:0 0 2 * * *}")
+    public int siapkanPartisi() {
+        if (!aktif) {
+            return 0;
+        }
+        int dibuat = 0;
+        YearMonth batas = YearMonth.now().plusMonths(bulanKeDepan);
+        for (String tabel : TABEL) {
+            List<String> ada = daftarPartisi(tabel);
+            if (ada.isEmpty()) {
+                continue;
+            }
+
+            List<String> baru = new ArrayList<>();
+            for (YearMonth bulan = YearMonth.now(); !bulan.isAfter(batas); bulan = bulan.plusMonths(1)) {
+                if (!ada.contains(bulan.format(NAMA_PARTISI))) {
+                    baru.add(definisi(bulan));
+                }
+            }
+            if (baru.isEmpty()) {
+                continue;
+            }
+
+            // pmax selalu kosong selama partisi dibuat lebih dulu, jadi reorganize tidak memindahkan data
+            baru.add("PARTITION " + PARTISI_MAX + " VALUES LESS THAN (MAXVALUE)");
+            jdbcTemplate.execute("ALTER TABLE " + tabel + " REORGANIZE PARTITION " + PARTISI_MAX + " INTO ("
+                    + String.join(", ", baru) + ")");
+            dibuat += baru.size() - 1;
+            log.info("{} partisi baru dibuat untuk {}", baru.size() - 1, tabel);
+        }
+        return dibuat;
+    }
+
+    private void migrasi(String tabel) {
+        log.info("Memigrasikan {} ke partisi bulanan", tabel);
+
+        List<Map<String, Object>> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT table_name AS tabel, constraint_name AS nama FROM information_schema.referential_constraints "
+                        + "WHERE constraint_schema = DATABASE() AND (table_name = ? OR referenced_table_name = ?)",
+                tabel, tabel);
+        for (Map<String, Object> fk : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE `" + fk.get("tabel") + "` DROP FOREIGN KEY `" + fk.get("nama") + "`");
+        }
+
+        String id = tabel + "_id";
+        jdbcTemplate.execute("ALTER TABLE " + tabel + " MODIFY tanggal_pembelian DATETIME(6) NOT NULL, "
+                + "DROP PRIMARY KEY, ADD PRIMARY KEY (" + id + ", tanggal_pembelian)");
+
+        LocalDateTime pertama = jdbcTemplate.queryForObject("SELECT MIN(tanggal_pembelian) FROM " + tabel,
+                LocalDateTime.class);
+        YearMonth bulanAwal = pertama != null ? YearMonth.from(pertama) : YearMonth.now();
+        YearMonth batas = YearMonth.now().plusMonths(bulanKeDepan);
+
+        List<String> partisi = new ArrayList<>();
+        for (YearMonth bulan = bulanAwal; !bulan.isAfter(batas); bulan = bulan.plusMonths(1)) {
+            partisi.add(definisi(bulan));
+        }
+        partisi.add("PARTITION " + PARTISI_MAX + " VALUES LESS THAN (MAXVALUE)");
+
+        jdbcTemplate.execute("ALTER TABLE " + tabel + " PARTITION BY RANGE COLUMNS(tanggal_pembelian) ("
+                + String.join(", ", partisi) + ")");
+        log.info("{} dipartisi menjadi {} partisi", tabel, partisi.size());
+    }
+
+    private String definisi(YearMonth bulan) {
+        return "PARTITION " + bulan.format(NAMA_PARTISI) + " VALUES LESS THAN ('" + bulan.plusMonths(1).atDay(1)
+                + "')";
+    }
+
+    private List<String> daftarPartisi(String tabel) {
+        return jdbcTemplate.queryForList("SELECT partition_name FROM information_schema.partitions "
+                + "WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL "
+                + "ORDER BY partition_ordinal_position", String.class, tabel);
+    }
+}
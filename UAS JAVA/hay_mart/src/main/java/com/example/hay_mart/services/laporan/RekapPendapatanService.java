@@ -0,0 +1,10 @@
+package com.example.hay_mart.services.laporan;
+
+import com.example.hay_mart.dto.laporan.RebuildRekapResponse;
+import com.example.hay_mart.models.Pemesanan;
+
+public interface RekapPendapatanService {
+    void catat(Pemesanan pemesanan, long jumlahItem);
+
+    RebuildRekapResponse rebuild();
+}
@@ -0,0 +1,178 @@
+package com.example.hay_mart.services.laporan;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import com.example.hay_mart.dto.laporan.RebuildRekapResponse;
+import com.example.hay_mart.models.Pemesanan;
+import com.example.hay_mart.models.RekapPendapatan;
+import com.example.hay_mart.repositorys.PemesananRepository;
+import com.example.hay_mart.repositorys.RekapPendapatanRepository;
+import com.example.hay_mart.services.arsip.ArsipPemesananService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Menjaga tabel rekap_pendapatan. Setiap pemesanan menambah baris JAM, HARI dan BULAN
+ * di transaksi yang sama dengan checkout, jadi rekap selalu sudah memuat periode yang
+ * sedang berjalan dan laporan tidak perlu membaca ulang tabel pemesanan.
+ *
+ * Rebuild menghitung ulang rekap dari data mentah per bulan secara paralel; dijalankan
+ * otomatis saat startup bila rekap masih kosong padahal sudah ada pemesanan. Bulan yang
+ * sudah diarsipkan dihitung dari segmen arsip, bukan dari tabel pemesanan.
+ */
+@Service
+@Slf4j
+public class RekapPendapatanServiceImpl implements RekapPendapatanService, ApplicationRunner {
+    private static final String FORMAT_HARI = "%Y-%m-%d 00:00:00";
+    private static final String FORMAT_BULAN = "%Y-%m-01 00:00:00";
+
+    @Autowired
+    RekapPendapatanRepository rekapPendapatanRepository;
+
+    @Autowired
+    PemesananRepository pemesananRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    LaporanCache laporanCache;
+
+    @Autowired
+    ArsipPemesananService arsipPemesananService;
+
+    @Value("${app.laporan.rekap.rebuild-threads:4}")
+    int rebuildThreads;
+
+    private final AtomicBoolean rebuildBerjalan = new AtomicBoolean(false);
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rekapPendapatanRepository.count() == 0
+                && (pemesananRepository.count() > 0 || !arsipPemesananService.bulanTerarsip().isEmpty())) {
+            log.info("Rekap pendapatan kosong, menghitung ulang dari data pemesanan");
+            rebuild();
+        }
+    }
+
+    @Override
+    public void catat(Pemesanan pemesanan, long jumlahItem) {
+        LocalDateTime waktu = pemesanan.getTanggalPembelian();
+        Integer kasirId = pemesanan.getUserKasir().getUserId();
+        long pendapatan = pemesanan.getTotalHarga();
+
+        rekapPendapatanRepository.tambah(RekapPendapatan.JAM, waktu.truncatedTo(ChronoUnit.HOURS), kasirId,
+                pendapatan, jumlahItem);
+        rekapPendapatanRepository.tambah(RekapPendapatan.HARI, waktu.truncatedTo(ChronoUnit.DAYS), kasirId,
+                pendapatan, jumlahItem);
+        rekapPendapatanRepository.tambah(RekapPendapatan.BULAN, YearMonth.from(waktu).atDay(1).atStartOfDay(),
+                kasirId, pendapatan, jumlahItem);
+    }
+
+    @Override
+    public RebuildRekapResponse rebuild() {
+        if (!rebuildBerjalan.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Rebuild rekap pendapatan sedang berjalan");
+        }
+        try {
+            long mulai = System.currentTimeMillis();
+            LocalDateTime pertama = pemesananRepository.findTanggalPertama();
+            LocalDateTime terakhir = pemesananRepository.findTanggalTerakhir();
+            List<YearMonth> terarsip = arsipPemesananService.bulanTerarsip();
+
+            List<YearMonth> bulanList = new ArrayList<>(terarsip);
+            if (pertama != null) {
+                for (YearMonth bulan = YearMonth.from(pertama); !bulan.isAfter(YearMonth.from(terakhir)); bulan = bulan
+                        .plusMonths(1)) {
+                    if (!terarsip.contains(bulan)) {
+                        bulanList.add(bulan);
+                    }
+                }
+            }
+            if (bulanList.isEmpty()) {
+                return RebuildRekapResponse.builder().jumlahBulan(0).jumlahBarisJam(0L).durasiMs(0L).build();
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rebuildThreads));
+            long jumlahBarisJam = 0;
+            try {
+                List<Future<Integer>> hasil = new ArrayList<>(bulanList.size());
+                for (YearMonth bulan : bulanList) {
+                    boolean arsip = terarsip.contains(bulan);
+                    hasil.add(executor.submit(() -> rebuildBulan(bulan, arsip)));
+                }
+                for (Future<Integer> future : hasil) {
+                    jumlahBarisJam += future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Rebuild rekap dibatalkan");
+            } catch (ExecutionException e) {
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                        "Rebuild rekap gagal: " + e.getCause().getMessage());
+            } finally {
+                executor.shutdownNow();
+            }
+
+            // File laporan periode tertutup dibuat dari rekap lama, jadi ikut dibuang
+            laporanCache.kosongkan();
+
+            long durasi = System.currentTimeMillis() - mulai;
+            log.info("Rebuild rekap pendapatan selesai: {} bulan, {} baris per jam, {} ms",
+                    bulanList.size(), jumlahBarisJam, durasi);
+
+            return RebuildRekapResponse.builder()
+                    .jumlahBulan(bulanList.size())
+                    .jumlahBarisJam(jumlahBarisJam)
+                    .durasiMs(durasi)
+                    .build();
+        } finally {
+            rebuildBerjalan.set(false);
+        }
+    }
+
+    private int rebuildBulan(YearMonth bulan, boolean arsip) {
+        LocalDateTime start = bulan.atDay(1).atStartOfDay();
+        LocalDateTime end = bulan.plusMonths(1).atDay(1).atStartOfDay();
+        List<Object[]> rekapArsip = arsip ? arsipPemesananService.rekapPerJam(bulan) : null;
+
+        // READ COMMITTED: di REPEATABLE READ, DELETE dan INSERT ... SELECT bulan yang berdampingan
+        // saling mengunci gap uk_rekap_pendapatan (deadlock antar thread) dan INSERT ... SELECT ikut
+        // mengunci baris pemesanan yang dibaca sehingga checkout tertahan selama rebuild
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        return template.execute(status -> {
+            rekapPendapatanRepository.hapusRentang(start, end);
+            int barisJam;
+            if (rekapArsip != null) {
+                for (Object[] row : rekapArsip) {
+                    rekapPendapatanRepository.simpan(RekapPendapatan.JAM, (LocalDateTime) row[0], (Integer) row[1],
+                            (Long) row[2], (Long) row[3], (Long) row[4]);
+                }
+                barisJam = rekapArsip.size();
+            } else {
+                barisJam = rekapPendapatanRepository.isiPerJam(start, end);
+            }
+            rekapPendapatanRepository.isiDariJam(RekapPendapatan.HARI, FORMAT_HARI, start, end);
+            rekapPendapatanRepository.isiDariJam(RekapPendapatan.BULAN, FORMAT_BULAN, start, end);
+            return barisJam;
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.hay_mart.services.laporan;
+
+import com.example.hay_mart.dto.laporan.RekonsiliasiProdukResponse;
+
+public interface RekonsiliasiProdukService {
+    String BERJALAN = "BERJALAN";
+    String SELESAI = "SELESAI";
+    String GAGAL = "GAGAL";
+
+    RekonsiliasiProdukResponse mulai();
+
+    RekonsiliasiProdukResponse getStatus();
+}
@@ -0,0 +1,244 @@
+package com.example.hay_mart.services.laporan;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import com.example.hay_mart.dto.laporan.RekonsiliasiProdukResponse;
+import com.example.hay_mart.services.arsip.ArsipPemesananService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Menghitung ulang jumlah_terjual dan total di laporan_produk dari detail_pemesanan.
+ *
+ * Rentang produk_id dipecah menjadi chunk yang diproses paralel di {@link ForkJoinPool}.
+ * Setiap chunk membaca agregat detail_pemesanan dan baris laporan_produk dengan cursor
+ * streaming, lalu hanya baris yang berbeda yang di-update per batch. Kedua bacaan itu berjalan
+ * dalam satu transaksi REPEATABLE READ sehingga melihat snapshot yang sama; tanpa itu checkout
+ * di antara dua query membuat jumlah detail dan baris laporan tidak cocok. Update bersyarat pada
+ * nilai lama, sehingga baris yang berubah oleh checkout selama job berjalan dilewati dan
+ * tidak tertimpa. Jeda antar chunk menjaga beban database tetap rendah. Penjualan dari
+ * pemesanan yang sudah diarsipkan ikut dijumlahkan dari segmen arsip.
+ */
+@Service
+@Slf4j
+public class RekonsiliasiProdukServiceImpl implements RekonsiliasiProdukService {
+    private static final int UKURAN_BATCH = 500;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ArsipPemesananService arsipPemesananService;
+
+    @Value("${app.laporan.rekonsiliasi.threads:4}")
+    int jumlahThread;
+
+    @Value("${app.laporan.rekonsiliasi.chunk-size:1000}")
+    int ukuranChunk;
+
+    @Value("${app.laporan.rekonsiliasi.jeda-ms:50}")
+    long jedaMs;
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcTemplate streamingTemplate;
+    private TransactionTemplate snapshotTemplate;
+    private ExecutorService executor;
+
+    private volatile Proses proses;
+
+    private static class Proses {
+        volatile String status = BERJALAN;
+        volatile int jumlahChunk;
+        final AtomicInteger chunkSelesai = new AtomicInteger();
+        final AtomicLong produkDiperiksa = new AtomicLong();
+        final AtomicLong barisDiperbaiki = new AtomicLong();
+        final AtomicLong barisDilewati = new AtomicLong();
+        final LocalDateTime dimulai = LocalDateTime.now();
+        volatile LocalDateTime selesai;
+        volatile String pesan;
+    }
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Integer.MIN_VALUE membuat driver MySQL membaca hasil query baris per baris
+        streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(Integer.MIN_VALUE);
+        // Tidak read-only supaya tetap di primary: update bersyarat harus dibandingkan dengan
+        // data primary, bukan snapshot replika yang mungkin tertinggal
+        snapshotTemplate = new TransactionTemplate(transactionManager);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "rekonsiliasi-produk");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public synchronized RekonsiliasiProdukResponse mulai() {
+        if (proses != null && BERJALAN.equals(proses.status)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Rekonsiliasi laporan produk sedang berjalan");
+        }
+        Proses baru = new Proses();
+        proses = baru;
+        executor.execute(() -> jalankan(baru));
+        return toResponse(baru);
+    }
+
+    @Override
+    public RekonsiliasiProdukResponse getStatus() {
+        Proses sekarang = proses;
+        if (sekarang == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Rekonsiliasi belum pernah dijalankan");
+        }
+        return toResponse(sekarang);
+    }
+
+    private void jalankan(Proses proses) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, jumlahThread));
+        try {
+            Map<String, Object> batas = jdbcTemplate.queryForMap(
+                    "SELECT MIN(produk_id) AS awal, MAX(produk_id) AS akhir FROM laporan_produk");
+            if (batas.get("awal") == null) {
+                proses.status = SELESAI;
+                return;
+            }
+            int awal = ((Number) batas.get("awal")).intValue();
+            int akhir = ((Number) batas.get("akhir")).intValue();
+            int ukuran = Math.max(1, ukuranChunk);
+            Map<Integer, long[]> arsip = arsipPemesananService.penjualanProduk();
+            proses.jumlahChunk = (int) ((akhir - (long) awal) / ukuran + 1);
+
+            List<ForkJoinTask<?>> tugas = new ArrayList<>(proses.jumlahChunk);
+            for (long mulai = awal; mulai <= akhir; mulai += ukuran) {
+                int dari = (int) mulai;
+                int sampai = (int) Math.min(akhir, mulai + ukuran - 1);
+                tugas.add(pool.submit(() -> prosesChunk(proses, dari, sampai, arsip)));
+            }
+            for (ForkJoinTask<?> t : tugas) {
+                t.join();
+            }
+
+            proses.status = SELESAI;
+            log.info("Rekonsiliasi laporan produk selesai: {} produk, {} diperbaiki, {} dilewati",
+                    proses.produkDiperiksa.get(), proses.barisDiperbaiki.get(), proses.barisDilewati.get());
+        } catch (Exception e) {
+            log.error("Rekonsiliasi laporan produk gagal: {}", e.getMessage());
+            proses.pesan = "Rekonsiliasi gagal: " + e.getMessage();
+            proses.status = GAGAL;
+        } finally {
+            pool.shutdownNow();
+            proses.selesai = LocalDateTime.now();
+        }
+    }
+
+    private void prosesChunk(Proses proses, int dari, int sampai, Map<Integer, long[]> arsip) {
+        List<Object[]> koreksi = snapshotTemplate.execute(status -> bacaKoreksi(proses, dari, sampai, arsip));
+
+        for (int i = 0; i < koreksi.size(); i += UKURAN_BATCH) {
+            List<Object[]> batch = koreksi.subList(i, Math.min(koreksi.size(), i + UKURAN_BATCH));
+            int[] hasil = new TransactionTemplate(transactionManager).execute(status -> jdbcTemplate.batchUpdate(
+                    "UPDATE laporan_produk SET jumlah_terjual = ?, total = ? "
+                            + "WHERE produk_id = ? AND jumlah_terjual <=> ? AND total <=> ?",
+                    batch));
+            for (int n : hasil) {
+                if (n == 0) {
+                    proses.barisDilewati.incrementAndGet();
+                } else {
+                    proses.barisDiperbaiki.incrementAndGet();
+                }
+            }
+        }
+
+        proses.chunkSelesai.incrementAndGet();
+        if (jedaMs > 0) {
+            try {
+                Thread.sleep(jedaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Dijalankan di dalam satu transaksi REPEATABLE READ: kedua query memakai snapshot yang sama
+    private List<Object[]> bacaKoreksi(Proses proses, int dari, int sampai, Map<Integer, long[]> arsip) {
+        Map<Integer, long[]> terjual = new HashMap<>();
+        streamingTemplate.query(
+                "SELECT produk_id, SUM(jumlah), SUM(subtotal) FROM detail_pemesanan "
+                        + "WHERE produk_id BETWEEN ? AND ? GROUP BY produk_id",
+                rs -> {
+                    terjual.put(rs.getInt(1), new long[] { rs.getLong(2), rs.getLong(3) });
+                },
+                dari, sampai);
+        arsip.forEach((produkId, nilai) -> {
+            if (produkId >= dari && produkId <= sampai) {
+                long[] total = terjual.computeIfAbsent(produkId, k -> new long[2]);
+                total[0] += nilai[0];
+                total[1] += nilai[1];
+            }
+        });
+
+        List<Object[]> koreksi = new ArrayList<>();
+        streamingTemplate.query(
+                "SELECT produk_id, jumlah_terjual, total FROM laporan_produk WHERE produk_id BETWEEN ? AND ?",
+                rs -> {
+                    proses.produkDiperiksa.incrementAndGet();
+                    int produkId = rs.getInt(1);
+                    Integer jumlahLama = rs.getObject(2, Integer.class);
+                    Integer totalLama = rs.getObject(3, Integer.class);
+                    long[] benar = terjual.getOrDefault(produkId, new long[2]);
+                    if (jumlahLama == null || totalLama == null || jumlahLama != benar[0] || totalLama != benar[1]) {
+                        koreksi.add(new Object[] { benar[0], benar[1], produkId, jumlahLama, totalLama });
+                    }
+                }, dari, sampai);
+        return koreksi;
+    }
+
+    private RekonsiliasiProdukResponse toResponse(Proses proses) {
+        int jumlahChunk = proses.jumlahChunk;
+        int chunkSelesai = proses.chunkSelesai.get();
+        int progress = SELESAI.equals(proses.status) ? 100
+                : jumlahChunk > 0 ? chunkSelesai * 100 / jumlahChunk : 0;
+        return RekonsiliasiProdukResponse.builder()
+                .status(proses.status)
+                .jumlahChunk(jumlahChunk)
+                .chunkSelesai(chunkSelesai)
+                .progress(progress)
+                .produkDiperiksa(proses.produkDiperiksa.get())
+                .barisDiperbaiki(proses.barisDiperbaiki.get())
+                .barisDilewati(proses.barisDilewati.get())
+                .dimulai(proses.dimulai)
+                .selesai(proses.selesai)
+                .pesan(proses.pesan)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.hay_mart.services.laporan;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Menggabungkan pemanggilan yang identik dan berjalan bersamaan. Pemanggil pertama untuk
+ * sebuah kunci menjalankan komputasi, pemanggil lain dengan kunci yang sama menunggu dan
+ * menerima hasil yang sama. Setelah selesai, kunci dilepas sehingga pemanggilan berikutnya
+ * menghitung ulang (atau membaca cache di lapisan lain).
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> berjalan = new ConcurrentHashMap<>();
+    private final AtomicLong dijalankan = new AtomicLong();
+    private final AtomicLong digabung = new AtomicLong();
+
+    public V jalankan(K kunci, Callable<V> komputasi) throws Exception {
+        CompletableFuture<V> baru = new CompletableFuture<>();
+        CompletableFuture<V> ada = berjalan.putIfAbsent(kunci, baru);
+
+        if (ada != null) {
+            digabung.incrementAndGet();
+            try {
+                return ada.get();
+            } catch (ExecutionException e) {
+                throw unwrap(e.getCause());
+            }
+        }
+
+        dijalankan.incrementAndGet();
+        try {
+            V hasil = komputasi.call();
+            baru.complete(hasil);
+            return hasil;
+        } catch (Throwable t) {
+            // Termasuk Error (mis. OutOfMemoryError): tanpa ini pemanggil yang menunggu tidak pernah bangun
+            baru.completeExceptionally(t);
+            throw t;
+        } finally {
+            berjalan.remove(kunci, baru);
+        }
+    }
+
+    public long getDijalankan() {
+        return dijalankan.get();
+    }
+
+    public long getDigabung() {
+        return digabung.get();
+    }
+
+    public int getSedangBerjalan() {
+        return berjalan.size();
+    }
+
+    private Exception unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof Exception e) {
+            return e;
+        }
+        if (cause instanceof Error e) {
+            throw e;
+        }
+        return new RuntimeException(cause);
+    }
+}
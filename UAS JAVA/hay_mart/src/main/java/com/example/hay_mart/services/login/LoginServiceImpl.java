@@ -22,18 +22,18 @@ import com.example.hay_mart.dto.login.LoginResponse;
 import com.example.hay_mart.dto.login.RegisRequest;
 import com.example.hay_mart.filter.JwtUtil;
 import com.example.hay_mart.models.User;
-import com.example.hay_mart.repositorys.RoleRepository;
 import com.example.hay_mart.repositorys.UserRepository;
 import com.example.hay_mart.services.CustomUserDetails;
 import com.example.hay_mart.services.email.EmailService;
 import com.example.hay_mart.services.image.ConvertImageService;
+import com.example.hay_mart.services.referensi.ReferensiDataCache;
 
 @Service
 public class LoginServiceImpl implements LoginService {
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final ReferensiDataCache referensiDataCache;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
 
@@ -43,13 +43,13 @@ public class LoginServiceImpl implements LoginService {
     @Autowired
     public LoginServiceImpl(AuthenticationManager authenticationManager, UserRepository userRepository,
             PasswordEncoder passwordEncoder, JwtUtil jwtUtil, EmailService emailService,
-            RoleRepository roleRepository) {
+            ReferensiDataCache referensiDataCache) {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
-        this.roleRepository = roleRepository;
+        this.referensiDataCache = referensiDataCache;
     }
 
     @Override
@@ -120,7 +120,7 @@ public class LoginServiceImpl implements LoginService {
                     .email(request.getEmail())
                     .password(passwordEncoder.encode(request.getPassword()))
                     .status("pending")
-                    .role(roleRepository.findRoleByRoleName(RoleConstant.ROLE_KASIR))
+                    .role(referensiDataCache.getRole(RoleConstant.ROLE_KASIR))
                     .image(new SerialBlob(imageBytes))
                     .starDate(LocalDate.now())
                     .verificationCode(verificationCode)
@@ -18,6 +18,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 import com.example.hay_mart.dto.pemesanan.DetailPemesananResponse;
 import com.example.hay_mart.dto.pemesanan.ItemRequest;
@@ -26,12 +28,14 @@ import com.example.hay_mart.dto.pemesanan.PemesananResponse;
 import com.example.hay_mart.models.DetailPemesanan;
 import com.example.hay_mart.models.LaporanProduk;
 import com.example.hay_mart.models.Pemesanan;
-import com.example.hay_mart.models.Produk;
 import com.example.hay_mart.models.User;
 import com.example.hay_mart.repositorys.LaporanProdukRepository;
 import com.example.hay_mart.repositorys.PemesananRepository;
 import com.example.hay_mart.repositorys.ProdukRepository;
 import com.example.hay_mart.services.GetAuthorities;
+import com.example.hay_mart.services.laporan.LaporanCache;
+import com.example.hay_mart.services.laporan.RekapPendapatanService;
+import com.example.hay_mart.services.produk.PerubahanProdukLog;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -50,6 +54,15 @@ public class PemesananServiceImpl implements PemesananService {
     @Autowired
     private GetAuthorities getAuthorities;
 
+    @Autowired
+    private PerubahanProdukLog perubahanProdukLog;
+
+    @Autowired
+    private RekapPendapatanService rekapPendapatanService;
+
+    @Autowired
+    private LaporanCache laporanCache;
+
     @Override
     @Transactional
     public PemesananResponse buatPemesanan(PemesananRequest request) {
@@ -74,71 +87,80 @@ public class PemesananServiceImpl implements PemesananService {
         }
 
         long totalHarga = 0;
+        long totalItem = 0;
+
+        Map<Integer, Object[]> produkRows = new HashMap<>();
+        for (Object[] row : produkRepository.findCheckoutRows(combinedItems.keySet())) {
+            produkRows.put((Integer) row[0], row);
+        }
 
         for (ItemRequest item : combinedItems.values()) {
-            Produk produk = produkRepository.findById(item.getProdukId())
-                    .orElseThrow(() -> new RuntimeException("Produk tidak ditemukan"));
+            Object[] produk = produkRows.get(item.getProdukId());
+            if (produk == null) {
+                throw new RuntimeException("Produk tidak ditemukan");
+            }
 
             if (item.getJumlah() <= 0) {
                 throw new RuntimeException("Jumlah minimal adalah 1");
             }
 
+            Integer produkId = (Integer) produk[0];
+            String namaProduk = (String) produk[1];
             Integer jumlah = item.getJumlah();
 
-            if (produk.getStok() < jumlah) {
-                throw new RuntimeException("Stok produk \"" + produk.getNama() + "\" tidak cukup");
+            if ((Integer) produk[3] < jumlah || produkRepository.kurangiStok(produkId, jumlah) == 0) {
+                throw new RuntimeException("Stok produk \"" + namaProduk + "\" tidak cukup");
             }
 
-            produk.setStok(produk.getStok() - jumlah);
-            produkRepository.save(produk);
-
-            if (produk.getStok() == 0) {
-                produk.setStatus("Tidak Tersedia");
-                produkRepository.save(produk);
-            }
-
-            Integer hargaSatuan = produk.getHarga();
+            Integer hargaSatuan = (Integer) produk[2];
             Integer subtotal = jumlah * hargaSatuan;
 
             DetailPemesanan detail = DetailPemesanan.builder()
-                    .produk(produk)
+                    .produkId(produkId)
+                    .namaProduk(namaProduk)
                     .jumlah(jumlah)
                     .hargaSatuan(hargaSatuan)
                     .subtotal(subtotal)
                     .pemesanan(pemesanan)
+                    .tanggalPembelian(pemesanan.getTanggalPembelian())
                     .build();
 
             details.add(detail);
             totalHarga += subtotal;
+            totalItem += jumlah;
 
             detailResponses.add(DetailPemesananResponse.builder()
-                    .namaProduk(produk.getNama())
+                    .namaProduk(namaProduk)
                     .jumlah(jumlah)
                     .hargaSatuan(hargaSatuan)
                     .subtotal(subtotal)
                     .build());
 
-            LaporanProduk laporan = laporanProdukRepository.findByProduk(produk).orElse(null);
-
-            if (laporan != null) {
-                laporan.setJumlahTerjual(laporan.getJumlahTerjual() + jumlah);
-                laporan.setTotal(laporan.getTotal() + subtotal);
-            } else {
-                laporan = LaporanProduk.builder()
-                        .produk(produk)
-                        .namaProduk(produk.getNama())
+            if (laporanProdukRepository.tambahPenjualan(produkId, jumlah, subtotal) == 0) {
+                laporanProdukRepository.save(LaporanProduk.builder()
+                        .produk(produkRepository.getReferenceById(produkId))
+                        .namaProduk(namaProduk)
                         .jumlahTerjual(jumlah)
-                        .stok(produk.getStok())
+                        .stok((Integer) produk[3] - jumlah)
                         .hargaSatuan(hargaSatuan)
                         .total(subtotal)
-                        .build();
+                        .build());
             }
-            laporanProdukRepository.save(laporan);
         }
 
         pemesanan.setDetails(details);
         pemesanan.setTotalHarga(totalHarga);
         Pemesanan saved = pemesananRepository.save(pemesanan);
+        rekapPendapatanService.catat(saved, totalItem);
+        // Terakhir, karena kunci urutan versi ditahan sampai commit
+        perubahanProdukLog.catat(combinedItems.keySet(), PerubahanProdukLog.UPDATE);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                laporanCache.tandaiPerubahan();
+            }
+        });
 
         return PemesananResponse.builder()
                 .namaKasir(kasir.getNama())
@@ -150,6 +172,7 @@ public class PemesananServiceImpl implements PemesananService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PemesananResponse> getRiwayatPemesanan() {
         User kasir = getAuthorities.getAuthenticatedUser();
 
@@ -161,7 +184,7 @@ public class PemesananServiceImpl implements PemesananService {
 
             for (DetailPemesanan detail : pemesanan.getDetails()) {
                 detailList.add(DetailPemesananResponse.builder()
-                        .namaProduk(detail.getProduk().getNama())
+                        .namaProduk(detail.getNamaProduk())
                         .jumlah(detail.getJumlah())
                         .hargaSatuan(detail.getHargaSatuan())
                         .subtotal(detail.getSubtotal())
@@ -181,9 +204,9 @@ public class PemesananServiceImpl implements PemesananService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public ByteArrayOutputStream generateStrukPdf(Integer pemesananId) {
-        Pemesanan pemesanan = pemesananRepository.findById(pemesananId)
+        Pemesanan pemesanan = pemesananRepository.findStrukByPemesananId(pemesananId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pemesanan tidak ditemukan"));
 
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -295,7 +318,7 @@ public class PemesananServiceImpl implements PemesananService {
                     contentStream.beginText();
                     contentStream.setFont(regularFont, 10);
                     contentStream.newLineAtOffset(margin, yPosition);
-                    contentStream.showText(detail.getProduk().getNama());
+                    contentStream.showText(detail.getNamaProduk());
                     contentStream.endText();
 
                     contentStream.beginText();
@@ -0,0 +1,89 @@
+package com.example.hay_mart.services.produk;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.hay_mart.models.PerubahanProduk;
+import com.example.hay_mart.repositorys.PerubahanProdukRepository;
+import com.example.hay_mart.repositorys.ProdukRepository;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Log perubahan produk yang hanya ditambah (append-only). Kolom versi bertambah terus
+ * sehingga klien POS cukup meminta perubahan setelah versi terakhir yang dimilikinya.
+ *
+ * Versi diambil dari satu baris urutan_versi yang dikunci (SELECT ... FOR UPDATE) di
+ * transaksi pemanggil dan baru dilepas saat commit. Transaksi berikutnya menunggu kunci itu,
+ * sehingga versi yang lebih besar tidak pernah terlihat sebelum versi yang lebih kecil
+ * commit, dan klien tidak melewatkan perubahan saat sinkron dari watermark terakhirnya.
+ * Karena kunci ditahan sampai commit, pemanggil sebaiknya memanggil catat di akhir transaksi.
+ */
+@Component
+@Transactional
+public class PerubahanProdukLog implements ApplicationRunner {
+    private static final String URUTAN = "perubahan_produk";
+
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+
+    @Autowired
+    PerubahanProdukRepository perubahanProdukRepository;
+
+    @Autowired
+    ProdukRepository produkRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Produk yang dibuat sebelum log ini ada dicatat sekali sebagai CREATE
+        if (perubahanProdukRepository.count() == 0) {
+            catat(produkRepository.findAllIds(), CREATE);
+        }
+    }
+
+    public void catat(Integer produkId, String aksi) {
+        catat(List.of(produkId), aksi);
+    }
+
+    public void catat(Collection<Integer> produkIds, String aksi) {
+        if (produkIds.isEmpty()) {
+            return;
+        }
+        long versi = ambilVersi(produkIds.size());
+        LocalDateTime sekarang = LocalDateTime.now();
+        for (Integer produkId : produkIds) {
+            // persist langsung karena versi sudah terisi; save() akan melakukan merge (SELECT dulu)
+            entityManager.persist(PerubahanProduk.builder()
+                    .versi(++versi)
+                    .produkId(produkId)
+                    .aksi(aksi)
+                    .waktu(sekarang)
+                    .build());
+        }
+    }
+
+    /**
+     * Mengunci baris urutan dan memesan sejumlah versi. Mengembalikan versi terakhir sebelum
+     * pemesanan ini, jadi versi yang dipakai adalah hasil + 1 sampai hasil + jumlah.
+     */
+    private long ambilVersi(int jumlah) {
+        Number nilai = (Number) entityManager
+                .createNativeQuery("SELECT nilai FROM urutan_versi WHERE nama = :nama FOR UPDATE")
+                .setParameter("nama", URUTAN)
+                .getSingleResult();
+        entityManager.createNativeQuery("UPDATE urutan_versi SET nilai = nilai + :jumlah WHERE nama = :nama")
+                .setParameter("jumlah", jumlah)
+                .setParameter("nama", URUTAN)
+                .executeUpdate();
+        return nilai.longValue();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.hay_mart.services.produk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import com.example.hay_mart.dto.produk.HargaFacetResponse;
+import com.example.hay_mart.dto.produk.KategoriFacetResponse;
+import com.example.hay_mart.dto.produk.ProdukFacetResponse;
+import com.example.hay_mart.models.Produk;
+import com.example.hay_mart.repositorys.ProdukRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Index produk di memori untuk menghitung facet katalog (jumlah per kategori dan
+ * per rentang harga) tanpa query ke database.
+ *
+ * Setiap produk mendapat satu slot; kategori disimpan sebagai bitmap slot sehingga
+ * kombinasi filter cukup dihitung dengan operasi AND pada {@link BitSet}.
+ */
+@Component
+@Slf4j
+public class ProdukFacetIndex implements ApplicationRunner {
+
+    @Autowired
+    ProdukRepository produkRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, Integer> slotProduk = new HashMap<>();
+    private final Map<String, BitSet> kategoriBitmap = new LinkedHashMap<>();
+    private final BitSet aktif = new BitSet();
+
+    private int[] harga = new int[64];
+    private String[] nama = new String[64];
+    private String[] kategori = new String[64];
+    private int jumlahSlot = 0;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Object[]> rows = produkRepository.findFacetRows();
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                simpanRow(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Index facet produk dimuat: {} produk aktif", aktif.cardinality());
+    }
+
+    public void simpan(Produk produk) {
+        lock.writeLock().lock();
+        try {
+            simpanSlot(produk.getProdukId(), produk.getNama(), produk.getHarga(),
+                    produk.getKategori() != null ? produk.getKategori().getNama() : null,
+                    produk.getDeleted());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void refresh(Collection<Integer> produkIds) {
+        if (produkIds == null || produkIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = produkRepository.findFacetRowsByIds(produkIds);
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                simpanRow(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProdukFacetResponse hitung(String namaProduk, String namaKategori, Integer minPrice, Integer maxPrice,
+            int[] batasHarga) {
+        int[] batas = Arrays.stream(batasHarga).distinct().sorted().toArray();
+
+        lock.readLock().lock();
+        try {
+            BitSet cocokNama = (BitSet) aktif.clone();
+            if (namaProduk != null && !namaProduk.isBlank()) {
+                String cari = namaProduk.toLowerCase();
+                for (int i = cocokNama.nextSetBit(0); i >= 0; i = cocokNama.nextSetBit(i + 1)) {
+                    if (!nama[i].contains(cari)) {
+                        cocokNama.clear(i);
+                    }
+                }
+            }
+
+            BitSet cocokHarga = new BitSet(jumlahSlot);
+            for (int i = aktif.nextSetBit(0); i >= 0; i = aktif.nextSetBit(i + 1)) {
+                if ((minPrice == null || harga[i] >= minPrice) && (maxPrice == null || harga[i] <= maxPrice)) {
+                    cocokHarga.set(i);
+                }
+            }
+
+            // Sama seperti get-all-produks: kategori yang tidak dikenal tidak memfilter apa pun
+            BitSet filterKategori = namaKategori != null ? kategoriBitmap.get(namaKategori.toLowerCase()) : null;
+
+            BitSet dasarKategori = (BitSet) cocokNama.clone();
+            dasarKategori.and(cocokHarga);
+
+            List<KategoriFacetResponse> kategoriFacets = new ArrayList<>();
+            for (BitSet bitmap : kategoriBitmap.values()) {
+                int slotPertama = bitmap.nextSetBit(0);
+                if (slotPertama < 0) {
+                    continue;
+                }
+                BitSet irisan = (BitSet) dasarKategori.clone();
+                irisan.and(bitmap);
+                kategoriFacets.add(KategoriFacetResponse.builder()
+                        .kategori(kategori[slotPertama])
+                        .jumlah(irisan.cardinality())
+                        .build());
+            }
+
+            BitSet dasarHarga = (BitSet) cocokNama.clone();
+            if (filterKategori != null) {
+                dasarHarga.and(filterKategori);
+            }
+
+            long[] jumlahPerRentang = new long[batas.length + 1];
+            for (int i = dasarHarga.nextSetBit(0); i >= 0; i = dasarHarga.nextSetBit(i + 1)) {
+                int posisi = Arrays.binarySearch(batas, harga[i]);
+                int rentang = posisi >= 0 ? posisi + 1 : -posisi - 1;
+                jumlahPerRentang[rentang]++;
+            }
+
+            List<HargaFacetResponse> hargaFacets = new ArrayList<>();
+            for (int r = 0; r < jumlahPerRentang.length; r++) {
+                hargaFacets.add(HargaFacetResponse.builder()
+                        .minPrice(r == 0 ? 0 : batas[r - 1])
+                        .maxPrice(r == batas.length ? null : batas[r] - 1)
+                        .jumlah(jumlahPerRentang[r])
+                        .build());
+            }
+
+            BitSet total = dasarKategori;
+            if (filterKategori != null) {
+                total.and(filterKategori);
+            }
+
+            return ProdukFacetResponse.builder()
+                    .totalItem(total.cardinality())
+                    .kategori(kategoriFacets)
+                    .harga(hargaFacets)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void simpanRow(Object[] row) {
+        simpanSlot((Integer) row[0], (String) row[1], (Integer) row[2], (String) row[3], (Boolean) row[4]);
+    }
+
+    private void simpanSlot(Integer produkId, String namaProduk, Integer hargaProduk, String namaKategori,
+            Boolean deleted) {
+        Integer slot = slotProduk.get(produkId);
+        if (slot == null) {
+            slot = jumlahSlot++;
+            slotProduk.put(produkId, slot);
+            if (slot >= harga.length) {
+                int kapasitas = harga.length * 2;
+                harga = Arrays.copyOf(harga, kapasitas);
+                nama = Arrays.copyOf(nama, kapasitas);
+                kategori = Arrays.copyOf(kategori, kapasitas);
+            }
+        } else if (kategori[slot] != null) {
+            kategoriBitmap.get(kategori[slot].toLowerCase()).clear(slot);
+        }
+
+        harga[slot] = hargaProduk != null ? hargaProduk : 0;
+        nama[slot] = namaProduk != null ? namaProduk.toLowerCase() : "";
+        kategori[slot] = namaKategori;
+
+        // Sama seperti ProdukDaoImpl: hanya produk dengan deleted = false yang ikut dihitung
+        if (!Boolean.FALSE.equals(deleted) || namaKategori == null) {
+            aktif.clear(slot);
+            return;
+        }
+        aktif.set(slot);
+        kategoriBitmap.computeIfAbsent(namaKategori.toLowerCase(), k -> new BitSet()).set(slot);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.hay_mart.services.produk;
+
+import org.springframework.web.multipart.MultipartFile;
+import com.example.hay_mart.dto.produk.ImportProdukResponse;
+
+public interface ProdukImportService {
+    ImportProdukResponse importProduk(MultipartFile file);
+}
@@ -0,0 +1,444 @@
+package com.example.hay_mart.services.produk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import javax.sql.rowset.serial.SerialBlob;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import com.example.hay_mart.dto.produk.ImportProdukErrorResponse;
+import com.example.hay_mart.dto.produk.ImportProdukResponse;
+import com.example.hay_mart.models.Kategori;
+import com.example.hay_mart.models.LaporanProduk;
+import com.example.hay_mart.models.Produk;
+import com.example.hay_mart.repositorys.LaporanProdukRepository;
+import com.example.hay_mart.repositorys.ProdukRepository;
+import com.example.hay_mart.services.referensi.ReferensiDataCache;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Import produk massal dari file CSV atau XLSX.
+ *
+ * File dibaca baris per baris (XLSX memakai reader SAX dari POI sehingga workbook tidak
+ * pernah dimuat utuh ke memori), lalu produk beserta baris {@link LaporanProduk}-nya
+ * disimpan per batch dalam satu transaksi per batch.
+ *
+ * Urutan kolom: nama, harga, stok, keterangan, kategori. Baris pertama boleh berupa header.
+ */
+@Service
+@Slf4j
+public class ProdukImportServiceImpl implements ProdukImportService {
+    private static final int UKURAN_BATCH = 500;
+    private static final Pattern FORMAT_ANGKA = Pattern.compile("-?(\\d+|\\d{1,3}(\\.\\d{3})+|\\d{1,3}(,\\d{3})+)");
+
+    @Autowired
+    ProdukRepository produkRepository;
+
+    @Autowired
+    ReferensiDataCache referensiDataCache;
+
+    @Autowired
+    LaporanProdukRepository laporanProdukRepository;
+
+    @Autowired
+    ProdukFacetIndex produkFacetIndex;
+
+    @Autowired
+    PerubahanProdukLog perubahanProdukLog;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Override
+    public ImportProdukResponse importProduk(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File import tidak boleh kosong");
+        }
+
+        String namaFile = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
+        ImportBatch batch = new ImportBatch(muatKategori(), new HashSet<>(produkRepository.findAllNamaLowerAktif()),
+                muatProdukDihapus(), muatGambarDefault());
+
+        try {
+            if (namaFile.endsWith(".csv")) {
+                try (InputStream input = file.getInputStream()) {
+                    bacaCsv(input, batch::terima);
+                }
+            } else if (namaFile.endsWith(".xlsx")) {
+                bacaXlsx(file, batch::terima);
+            } else {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format file harus .csv atau .xlsx");
+            }
+        } catch (IOException e) {
+            log.error("Error membaca file import: {}", e.getMessage());
+            throw new RuntimeException("Gagal membaca file import: " + e.getMessage());
+        }
+        batch.simpan();
+
+        return ImportProdukResponse.builder()
+                .totalBaris(batch.totalBaris)
+                .berhasil(batch.berhasil)
+                .gagal(batch.errors.size())
+                .errors(batch.errors)
+                .build();
+    }
+
+    private Map<String, Kategori> muatKategori() {
+        Map<String, Kategori> kategoriMap = new HashMap<>();
+        for (Kategori kategori : referensiDataCache.getAllKategori()) {
+            kategoriMap.put(kategori.getNama().toLowerCase(), kategori);
+        }
+        return kategoriMap;
+    }
+
+    // Sama seperti ProdukService.create: nama produk yang pernah dihapus dipulihkan, bukan ditolak
+    private Map<String, Integer> muatProdukDihapus() {
+        Map<String, Integer> produkDihapus = new HashMap<>();
+        for (Object[] row : produkRepository.findNamaLowerDihapus()) {
+            produkDihapus.putIfAbsent((String) row[0], (Integer) row[1]);
+        }
+        return produkDihapus;
+    }
+
+    private byte[] muatGambarDefault() {
+        try (InputStream inputStream = new ClassPathResource("static/images/default.png").getInputStream()) {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Gagal memuat gambar default", e);
+        }
+    }
+
+    private void bacaCsv(InputStream input, Consumer<BarisImport> consumer) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        int nomor = 0;
+        char pemisah = ',';
+        while ((line = reader.readLine()) != null) {
+            nomor++;
+            if (nomor == 1) {
+                if (line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                // CSV dari Excel berlocale Indonesia memakai titik koma
+                if (line.indexOf(';') >= 0 && line.indexOf(',') < 0) {
+                    pemisah = ';';
+                }
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            consumer.accept(new BarisImport(nomor, pecahCsv(line, pemisah)));
+        }
+    }
+
+    private List<String> pecahCsv(String line, char pemisah) {
+        List<String> kolom = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean dalamKutip = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (dalamKutip) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    sb.append('"');
+                    i++;
+                } else if (c == '"') {
+                    dalamKutip = false;
+                } else {
+                    sb.append(c);
+                }
+            } else if (c == '"') {
+                dalamKutip = true;
+            } else if (c == pemisah) {
+                kolom.add(sb.toString());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        kolom.add(sb.toString());
+        return kolom;
+    }
+
+    private void bacaXlsx(MultipartFile file, Consumer<BarisImport> consumer) throws IOException {
+        Path temp = Files.createTempFile("import-produk-", ".xlsx");
+        try {
+            file.transferTo(temp);
+            try (OPCPackage pkg = OPCPackage.open(temp.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return;
+                }
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), strings,
+                            new XlsxRowHandler(consumer), new DataFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("File XLSX tidak valid: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static class XlsxRowHandler implements SheetContentsHandler {
+        private final Consumer<BarisImport> consumer;
+        private final List<String> kolom = new ArrayList<>();
+
+        XlsxRowHandler(Consumer<BarisImport> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            kolom.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (kolom.stream().anyMatch(k -> k != null && !k.isBlank())) {
+                consumer.accept(new BarisImport(rowNum + 1, new ArrayList<>(kolom)));
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = new CellReference(cellReference).getCol();
+            while (kolom.size() < col) {
+                kolom.add(null);
+            }
+            kolom.add(formattedValue);
+        }
+    }
+
+    private record BarisImport(int nomor, List<String> kolom) {
+        String get(int index) {
+            if (index >= kolom.size() || kolom.get(index) == null) {
+                return null;
+            }
+            String nilai = kolom.get(index).trim();
+            return nilai.isEmpty() ? null : nilai;
+        }
+    }
+
+    private class ImportBatch {
+        private final Map<String, Kategori> kategoriMap;
+        private final Set<String> namaTerpakai;
+        private final Map<String, Integer> produkDihapus;
+        private final byte[] gambarDefault;
+
+        private final List<Produk> produkBatch = new ArrayList<>();
+        private final List<Integer> nomorBatch = new ArrayList<>();
+        private final List<ImportProdukErrorResponse> errors = new ArrayList<>();
+        private int totalBaris = 0;
+        private int berhasil = 0;
+
+        ImportBatch(Map<String, Kategori> kategoriMap, Set<String> namaTerpakai, Map<String, Integer> produkDihapus,
+                byte[] gambarDefault) {
+            this.kategoriMap = kategoriMap;
+            this.namaTerpakai = namaTerpakai;
+            this.produkDihapus = produkDihapus;
+            this.gambarDefault = gambarDefault;
+        }
+
+        void terima(BarisImport baris) {
+            String nama = baris.get(0);
+            if (totalBaris == 0 && berhasil == 0 && errors.isEmpty() && "nama".equalsIgnoreCase(nama)) {
+                return;
+            }
+            totalBaris++;
+
+            try {
+                Produk produk = toProduk(baris, nama);
+                namaTerpakai.add(nama.toLowerCase());
+                produkBatch.add(produk);
+                nomorBatch.add(baris.nomor());
+            } catch (IllegalArgumentException e) {
+                errors.add(ImportProdukErrorResponse.builder()
+                        .baris(baris.nomor())
+                        .nama(nama)
+                        .pesan(e.getMessage())
+                        .build());
+            }
+
+            if (produkBatch.size() >= UKURAN_BATCH) {
+                simpan();
+            }
+        }
+
+        private Produk toProduk(BarisImport baris, String nama) {
+            if (nama == null) {
+                throw new IllegalArgumentException("Nama produk tidak boleh kosong");
+            }
+            if (namaTerpakai.contains(nama.toLowerCase())) {
+                throw new IllegalArgumentException("Produk dengan nama '" + nama + "' sudah ada!");
+            }
+            Integer harga = angka(baris.get(1), "Harga");
+            Integer stok = angka(baris.get(2), "Stok");
+
+            String namaKategori = baris.get(4);
+            if (namaKategori == null) {
+                throw new IllegalArgumentException("Kategori tidak boleh kosong!");
+            }
+            Kategori kategori = kategoriMap.get(namaKategori.toLowerCase());
+            if (kategori == null) {
+                throw new IllegalArgumentException("Kategori tidak ditemukan: " + namaKategori);
+            }
+
+            try {
+                return Produk.builder()
+                        .produkId(produkDihapus.get(nama.toLowerCase()))
+                        .nama(nama)
+                        .harga(harga)
+                        .stok(stok)
+                        .keterangan(baris.get(3))
+                        .fotoProduk(new SerialBlob(gambarDefault))
+                        .status(stok > 0 ? "Tersedia" : "Tidak Tersedia")
+                        .deleted(false)
+                        .kategori(kategori)
+                        .build();
+            } catch (SQLException e) {
+                throw new IllegalArgumentException("Gagal memproses gambar default: " + e.getMessage());
+            }
+        }
+
+        private Integer angka(String nilai, String label) {
+            if (nilai == null) {
+                throw new IllegalArgumentException(label + " tidak boleh kosong");
+            }
+            // Harga dan stok selalu bilangan bulat: "Rp" dan pemisah ribuan (titik atau koma, satu
+            // jenis dengan kelompok tiga digit) dibuang, nilai pecahan seperti 12.500,50 atau 1.5 ditolak
+            String bersih = nilai.replaceAll("(?i)rp|\\s", "");
+            if (!FORMAT_ANGKA.matcher(bersih).matches()) {
+                throw new IllegalArgumentException(label + " harus bilangan bulat: " + nilai);
+            }
+            bersih = bersih.replaceAll("[.,]", "");
+            try {
+                int hasil = Integer.parseInt(bersih);
+                if (hasil < 0) {
+                    throw new IllegalArgumentException(label + " tidak boleh negatif");
+                }
+                return hasil;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(label + " tidak valid: " + nilai);
+            }
+        }
+
+        private LaporanProduk laporanBaru(Produk produk) {
+            return LaporanProduk.builder()
+                    .produk(produk)
+                    .namaProduk(produk.getNama())
+                    .jumlahTerjual(0)
+                    .stok(produk.getStok())
+                    .hargaSatuan(produk.getHarga())
+                    .total(0)
+                    .deleted(false)
+                    .build();
+        }
+
+        void simpan() {
+            if (produkBatch.isEmpty()) {
+                return;
+            }
+            List<Produk> produks = new ArrayList<>(produkBatch);
+            List<Integer> nomors = new ArrayList<>(nomorBatch);
+            produkBatch.clear();
+            nomorBatch.clear();
+
+            List<Produk> baru = new ArrayList<>(produks.size());
+            List<Produk> dipulihkan = new ArrayList<>();
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    List<LaporanProduk> laporans = new ArrayList<>(produks.size());
+                    for (Produk produk : produks) {
+                        if (produk.getProdukId() == null) {
+                            baru.add(produk);
+                            continue;
+                        }
+                        // Foto lama tetap dipakai; kolom lain diisi dari file import
+                        Produk lama = produkRepository.findById(produk.getProdukId())
+                                .orElseThrow(() -> new IllegalStateException(
+                                        "Produk " + produk.getProdukId() + " tidak ditemukan"));
+                        lama.setNama(produk.getNama());
+                        lama.setHarga(produk.getHarga());
+                        lama.setStok(produk.getStok());
+                        lama.setKeterangan(produk.getKeterangan());
+                        lama.setKategori(produk.getKategori());
+                        lama.setStatus(produk.getStatus());
+                        lama.setDeleted(false);
+                        dipulihkan.add(lama);
+
+                        LaporanProduk laporan = laporanProdukRepository.findByProdukProdukId(lama.getProdukId());
+                        if (laporan != null) {
+                            laporan.setNamaProduk(lama.getNama());
+                            laporan.setStok(lama.getStok());
+                            laporan.setHargaSatuan(lama.getHarga());
+                            laporan.setDeleted(false);
+                            laporans.add(laporan);
+                        } else {
+                            laporans.add(laporanBaru(lama));
+                        }
+                    }
+                    produkRepository.saveAll(baru);
+                    for (Produk produk : baru) {
+                        laporans.add(laporanBaru(produk));
+                    }
+                    laporanProdukRepository.saveAll(laporans);
+                    perubahanProdukLog.catat(baru.stream().map(Produk::getProdukId).toList(),
+                            PerubahanProdukLog.CREATE);
+                    perubahanProdukLog.catat(dipulihkan.stream().map(Produk::getProdukId).toList(),
+                            PerubahanProdukLog.UPDATE);
+                });
+                baru.forEach(produkFacetIndex::simpan);
+                dipulihkan.forEach(produkFacetIndex::simpan);
+                berhasil += produks.size();
+            } catch (Exception e) {
+                log.error("Error menyimpan batch import produk: {}", e.getMessage());
+                for (int i = 0; i < produks.size(); i++) {
+                    namaTerpakai.remove(produks.get(i).getNama().toLowerCase());
+                    errors.add(ImportProdukErrorResponse.builder()
+                            .baris(nomors.get(i))
+                            .nama(produks.get(i).getNama())
+                            .pesan("Gagal menyimpan batch: " + e.getMessage())
+                            .build());
+                }
+            }
+        }
+    }
+}
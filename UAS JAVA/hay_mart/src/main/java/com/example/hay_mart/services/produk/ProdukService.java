@@ -2,6 +2,9 @@ package com.example.hay_mart.services.produk;
 
 import org.springframework.web.multipart.MultipartFile;
 import com.example.hay_mart.dto.PageResponse;
+import com.example.hay_mart.dto.produk.BulkAdjustRequest;
+import com.example.hay_mart.dto.produk.ProdukChangesResponse;
+import com.example.hay_mart.dto.produk.ProdukFacetResponse;
 import com.example.hay_mart.dto.produk.ProdukRequest;
 import com.example.hay_mart.dto.produk.ProdukResponse;
 
@@ -11,9 +14,18 @@ public interface ProdukService {
 
     Integer getProduksPage();
 
+    ProdukFacetResponse getFacets(String nama, String kategori, Integer minPrice, Integer maxPrice,
+            int[] batasHarga);
+
     void create(ProdukRequest pRequest, MultipartFile image);
 
     void update(int id, ProdukRequest uproduk, MultipartFile image);
 
     void softDeleteProduk(int id);
+
+    int bulkAdjust(BulkAdjustRequest request);
+
+    ProdukChangesResponse getChanges(long since, int limit);
+
+    byte[] getImage(int id);
 }
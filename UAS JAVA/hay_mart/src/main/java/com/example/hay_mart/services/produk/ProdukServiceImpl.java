@@ -2,24 +2,45 @@ package com.example.hay_mart.services.produk;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.sql.rowset.serial.SerialBlob;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import com.example.hay_mart.dao.ProdukDao;
 import com.example.hay_mart.dto.PageResponse;
+import com.example.hay_mart.dto.produk.BulkAdjustItemRequest;
+import com.example.hay_mart.dto.produk.BulkAdjustRequest;
+import com.example.hay_mart.dto.produk.ProdukChangeResponse;
+import com.example.hay_mart.dto.produk.ProdukChangesResponse;
+import com.example.hay_mart.dto.produk.ProdukFacetResponse;
 import com.example.hay_mart.dto.produk.ProdukRequest;
 import com.example.hay_mart.dto.produk.ProdukResponse;
+import com.example.hay_mart.dto.produk.ProdukSinkronResponse;
 import com.example.hay_mart.models.Kategori;
 import com.example.hay_mart.models.LaporanProduk;
+import com.example.hay_mart.models.PerubahanProduk;
 import com.example.hay_mart.models.Produk;
-import com.example.hay_mart.repositorys.KategoriRepository;
 import com.example.hay_mart.repositorys.LaporanProdukRepository;
+import com.example.hay_mart.repositorys.PerubahanProdukRepository;
 import com.example.hay_mart.repositorys.ProdukRepository;
 import com.example.hay_mart.services.image.ConvertImageService;
+import com.example.hay_mart.services.referensi.ReferensiDataCache;
 
 @Service
 @Slf4j
@@ -32,7 +53,7 @@ public class ProdukServiceImpl implements ProdukService {
     ProdukRepository produkRepository;
 
     @Autowired
-    KategoriRepository kategoriRepository;
+    ReferensiDataCache referensiDataCache;
 
     @Autowired
     LaporanProdukRepository laporanProdukRepository;
@@ -40,12 +61,32 @@ public class ProdukServiceImpl implements ProdukService {
     @Autowired
     ConvertImageService convertImage;
 
+    @Autowired
+    ProdukFacetIndex produkFacetIndex;
+
+    @Autowired
+    PerubahanProdukLog perubahanProdukLog;
+
+    @Autowired
+    PerubahanProdukRepository perubahanProdukRepository;
+
+    @Value("${app.produk.facet.batas-harga:10000,25000,50000,100000}")
+    int[] batasHargaDefault;
+
     @Override
     public Integer getProduksPage() {
         return (int) Math.ceil((double) produkRepository.count() / 3);
     }
 
     @Override
+    public ProdukFacetResponse getFacets(String nama, String kategori, Integer minPrice, Integer maxPrice,
+            int[] batasHarga) {
+        int[] batas = (batasHarga == null || batasHarga.length == 0) ? batasHargaDefault : batasHarga;
+        return produkFacetIndex.hitung(nama, kategori, minPrice, maxPrice, batas);
+    }
+
+    @Override
+    @Transactional
     public void create(ProdukRequest request, MultipartFile image) {
         try {
             System.out.println("PRODUK : " + request.getNama());
@@ -57,6 +98,8 @@ public class ProdukServiceImpl implements ProdukService {
 
             Produk produk = toProduk(request, image);
             produkRepository.save(produk);
+            produkFacetIndex.simpan(produk);
+            perubahanProdukLog.catat(produk.getProdukId(), PerubahanProdukLog.CREATE);
 
             LaporanProduk laporan = LaporanProduk.builder()
                     .produk(produk)
@@ -77,10 +120,11 @@ public class ProdukServiceImpl implements ProdukService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PageResponse<ProdukResponse> getAllProduks(String nama, String kategori, int page, int size, String sortBy,
             String sortOrder,
             Integer minPrice, Integer maxPrice) {
-        Kategori namaKategori = kategoriRepository.findKategoriByNama(kategori);
+        Kategori namaKategori = referensiDataCache.getKategori(kategori);
         PageResponse<Produk> produkPage = produkDao.getAll(nama, namaKategori, page, size, sortBy, sortOrder, minPrice,
                 maxPrice);
 
@@ -121,7 +165,7 @@ public class ProdukServiceImpl implements ProdukService {
                 throw new RuntimeException("Produk dengan nama '" + request.getNama() + "' sudah ada!");
             }
 
-            Kategori kategori = kategoriRepository.findKategoriByNama(request.getKategori());
+            Kategori kategori = referensiDataCache.getKategori(request.getKategori());
             if (kategori == null) {
                 throw new RuntimeException("Kategori tidak ditemukan: " + request.getKategori());
             }
@@ -144,6 +188,7 @@ public class ProdukServiceImpl implements ProdukService {
     }
 
     @Override
+    @Transactional
     public void update(int id, ProdukRequest uproduk, MultipartFile image) {
         try {
             Produk produk = produkRepository.findById(id)
@@ -154,7 +199,7 @@ public class ProdukServiceImpl implements ProdukService {
             if (uproduk.getKategori() == null || uproduk.getKategori().isBlank()) {
                 throw new RuntimeException("Kategori tidak boleh kosong! " + uproduk.getKategori());
             }
-            Kategori kategori = kategoriRepository.findKategoriByNama(uproduk.getKategori());
+            Kategori kategori = referensiDataCache.getKategori(uproduk.getKategori());
             if (kategori == null) {
                 throw new RuntimeException("Kategori tidak ditemukan: " + uproduk.getKategori());
             }
@@ -183,6 +228,8 @@ public class ProdukServiceImpl implements ProdukService {
             produk.setDeleted(false);
             produk.setKategori(kategori);
             produkRepository.save(produk);
+            produkFacetIndex.simpan(produk);
+            perubahanProdukLog.catat(produk.getProdukId(), PerubahanProdukLog.UPDATE);
 
             laporanProduk.setDeleted(false);
             laporanProduk.setStok(uproduk.getStok());
@@ -195,6 +242,7 @@ public class ProdukServiceImpl implements ProdukService {
         }
     }
 
+    @Transactional
     public void softDeleteProduk(int id) {
         Produk produk = produkRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Produk tidak ditemukan"));
@@ -205,5 +253,149 @@ public class ProdukServiceImpl implements ProdukService {
         laporanProduk.setDeleted(true);
         produkRepository.save(produk);
         laporanProdukRepository.save(laporanProduk);
+        produkFacetIndex.simpan(produk);
+        perubahanProdukLog.catat(produk.getProdukId(), PerubahanProdukLog.DELETE);
+    }
+
+    @Override
+    @Transactional
+    public int bulkAdjust(BulkAdjustRequest request) {
+        if (request == null || request.getItems() == null || request.getItems().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Daftar penyesuaian tidak boleh kosong");
+        }
+
+        // Kelompokkan per nilai agar satu UPDATE ... WHERE produk_id IN (...) mencakup banyak produk
+        Map<Integer, List<Integer>> setStok = new LinkedHashMap<>();
+        Map<Integer, List<Integer>> tambahStok = new LinkedHashMap<>();
+        Map<Integer, List<Integer>> setHarga = new LinkedHashMap<>();
+        Map<Integer, List<Integer>> tambahHarga = new LinkedHashMap<>();
+        Set<Integer> produkIds = new HashSet<>();
+
+        for (BulkAdjustItemRequest item : request.getItems()) {
+            if (item.getProdukId() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "produkId tidak boleh kosong");
+            }
+            if (!produkIds.add(item.getProdukId())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Produk dengan id " + item.getProdukId() + " muncul lebih dari sekali");
+            }
+            if (item.getStok() == null && item.getHarga() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Stok atau harga harus diisi untuk produk dengan id " + item.getProdukId());
+            }
+
+            boolean delta = "DELTA".equalsIgnoreCase(item.getMode());
+            if (!delta && item.getMode() != null && !"ABSOLUT".equalsIgnoreCase(item.getMode())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Mode tidak dikenal: " + item.getMode());
+            }
+
+            if (item.getStok() != null) {
+                (delta ? tambahStok : setStok).computeIfAbsent(item.getStok(), k -> new ArrayList<>())
+                        .add(item.getProdukId());
+            }
+            if (item.getHarga() != null) {
+                (delta ? tambahHarga : setHarga).computeIfAbsent(item.getHarga(), k -> new ArrayList<>())
+                        .add(item.getProdukId());
+            }
+        }
+
+        List<Integer> aktif = produkRepository.findAktifIds(produkIds);
+        if (aktif.size() != produkIds.size()) {
+            produkIds.removeAll(aktif);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Produk tidak ditemukan: " + produkIds);
+        }
+
+        setStok.forEach((nilai, ids) -> produkRepository.setStok(nilai, ids));
+        tambahStok.forEach((nilai, ids) -> produkRepository.tambahStok(nilai, ids));
+        setHarga.forEach((nilai, ids) -> produkRepository.setHarga(nilai, ids));
+        tambahHarga.forEach((nilai, ids) -> produkRepository.tambahHarga(nilai, ids));
+
+        if (produkRepository.countNilaiNegatif(produkIds) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Penyesuaian membuat stok atau harga produk menjadi negatif");
+        }
+
+        produkRepository.perbaruiStatus(produkIds);
+        laporanProdukRepository.sinkronStokHarga(produkIds);
+        perubahanProdukLog.catat(produkIds, PerubahanProdukLog.UPDATE);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                produkFacetIndex.refresh(produkIds);
+            }
+        });
+
+        return produkIds.size();
+    }
+
+    @Override
+    public ProdukChangesResponse getChanges(long since, int limit) {
+        int batas = Math.max(1, Math.min(limit, 1000));
+        List<PerubahanProduk> perubahan = perubahanProdukRepository.findByVersiGreaterThanOrderByVersiAsc(since,
+                PageRequest.of(0, batas + 1));
+
+        boolean adaLagi = perubahan.size() > batas;
+        if (adaLagi) {
+            perubahan = perubahan.subList(0, batas);
+        }
+        if (perubahan.isEmpty()) {
+            return ProdukChangesResponse.builder()
+                    .versi(since)
+                    .adaLagi(false)
+                    .items(List.of())
+                    .build();
+        }
+
+        // Beberapa perubahan pada produk yang sama cukup dikirim sekali dengan state terbarunya
+        Map<Integer, PerubahanProduk> terakhir = new LinkedHashMap<>();
+        for (PerubahanProduk p : perubahan) {
+            terakhir.remove(p.getProdukId());
+            terakhir.put(p.getProdukId(), p);
+        }
+
+        Map<Integer, ProdukSinkronResponse> produkMap = produkRepository.findSinkronByIds(terakhir.keySet()).stream()
+                .collect(Collectors.toMap(ProdukSinkronResponse::getId, Function.identity()));
+
+        List<ProdukChangeResponse> items = new ArrayList<>();
+        for (PerubahanProduk p : terakhir.values()) {
+            ProdukSinkronResponse produk = produkMap.get(p.getProdukId());
+            if (produk == null) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(produk.getDeleted())) {
+                items.add(ProdukChangeResponse.builder()
+                        .versi(p.getVersi())
+                        .aksi(PerubahanProdukLog.DELETE)
+                        .produk(ProdukSinkronResponse.builder().id(produk.getId()).deleted(true).build())
+                        .build());
+            } else {
+                items.add(ProdukChangeResponse.builder()
+                        .versi(p.getVersi())
+                        .aksi(PerubahanProdukLog.DELETE.equals(p.getAksi()) ? PerubahanProdukLog.UPDATE : p.getAksi())
+                        .produk(produk)
+                        .build());
+            }
+        }
+
+        return ProdukChangesResponse.builder()
+                .versi(perubahan.get(perubahan.size() - 1).getVersi())
+                .adaLagi(adaLagi)
+                .items(items)
+                .build();
+    }
+
+    @Override
+    public byte[] getImage(int id) {
+        Produk produk = produkRepository.findFotoProdukByProdukId(id);
+        if (produk == null || produk.getFotoProduk() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Foto produk tidak ditemukan");
+        }
+        try {
+            return produk.getFotoProduk().getBytes(1, (int) produk.getFotoProduk().length());
+        } catch (SQLException e) {
+            log.error("Error membaca foto produk: {}", e.getMessage());
+            throw new RuntimeException("Gagal membaca foto produk: " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,90 @@
+package com.example.hay_mart.services.referensi;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.example.hay_mart.models.Kategori;
+import com.example.hay_mart.models.Role;
+import com.example.hay_mart.repositorys.KategoriRepository;
+import com.example.hay_mart.repositorys.RoleRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache in-process untuk data referensi yang hampir tidak pernah berubah
+ * ({@link Kategori} dan {@link Role}), sehingga lookup berdasarkan nama tidak perlu
+ * query sama sekali.
+ *
+ * Isinya berupa map immutable yang diganti utuh saat {@link #refresh()} dipanggil,
+ * jadi pembaca tidak perlu lock.
+ */
+@Component
+@Slf4j
+public class ReferensiDataCache {
+
+    @Autowired
+    KategoriRepository kategoriRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    private volatile Map<String, Kategori> kategoriMap;
+    private volatile Map<String, Role> roleMap;
+
+    public Kategori getKategori(String nama) {
+        if (nama == null) {
+            return null;
+        }
+        return kategori().get(nama.toLowerCase());
+    }
+
+    public Collection<Kategori> getAllKategori() {
+        return kategori().values();
+    }
+
+    public Role getRole(String roleName) {
+        if (roleName == null) {
+            return null;
+        }
+        return role().get(roleName.toLowerCase());
+    }
+
+    @Scheduled(fixedDelayString = "${app.referensi.refresh-ms:600000}", initialDelayString = "${app.referensi.refresh-ms:600000}")
+    public synchronized void refresh() {
+        Map<String, Kategori> kategoriBaru = new HashMap<>();
+        for (Kategori kategori : kategoriRepository.findAll()) {
+            kategoriBaru.put(kategori.getNama().toLowerCase(), kategori);
+        }
+
+        Map<String, Role> roleBaru = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            roleBaru.put(role.getRoleName().toLowerCase(), role);
+        }
+
+        kategoriMap = Map.copyOf(kategoriBaru);
+        roleMap = Map.copyOf(roleBaru);
+        log.info("Data referensi dimuat: {} kategori, {} role", kategoriMap.size(), roleMap.size());
+    }
+
+    private Map<String, Kategori> kategori() {
+        if (kategoriMap == null) {
+            refreshSekali();
+        }
+        return kategoriMap;
+    }
+
+    private Map<String, Role> role() {
+        if (roleMap == null) {
+            refreshSekali();
+        }
+        return roleMap;
+    }
+
+    private synchronized void refreshSekali() {
+        if (kategoriMap == null || roleMap == null) {
+            refresh();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Log perubahan produk untuk sinkron delta klien POS. IF NOT EXISTS karena database yang
+-- di-baseline mungkin sudah membuatnya lewat ddl-auto sebelum skema dikelola Flyway.
+CREATE TABLE IF NOT EXISTS perubahan_produk (
+    produk_id INTEGER NOT NULL,
+    versi BIGINT NOT NULL AUTO_INCREMENT,
+    waktu DATETIME(6) NOT NULL,
+    aksi VARCHAR(255) NOT NULL,
+    PRIMARY KEY (versi)
+) ENGINE = InnoDB;
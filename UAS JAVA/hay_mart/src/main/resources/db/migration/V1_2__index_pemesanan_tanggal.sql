@@ -0,0 +1,8 @@
+-- Query laporan memfilter pemesanan dengan rentang tanggal_pembelian. Dibuat hanya bila
+-- belum ada (database yang di-baseline mungkin sudah membuatnya lewat ddl-auto).
+SET @sql = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_pemesanan_tanggal ON pemesanan (tanggal_pembelian)', 'DO 0')
+        FROM information_schema.statistics
+        WHERE table_schema = DATABASE() AND table_name = 'pemesanan' AND index_name = 'idx_pemesanan_tanggal');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,13 @@
+-- Rekap pendapatan per jam, hari dan bulan per kasir. IF NOT EXISTS karena database yang
+-- di-baseline mungkin sudah membuatnya lewat ddl-auto (beserta unique key yang sama).
+CREATE TABLE IF NOT EXISTS rekap_pendapatan (
+    kasir_id INTEGER NOT NULL,
+    grain VARCHAR(5) NOT NULL,
+    jumlah_item BIGINT NOT NULL,
+    jumlah_transaksi BIGINT NOT NULL,
+    pendapatan BIGINT NOT NULL,
+    periode DATETIME(6) NOT NULL,
+    rekap_id BIGINT NOT NULL AUTO_INCREMENT,
+    PRIMARY KEY (rekap_id),
+    CONSTRAINT uk_rekap_pendapatan UNIQUE (grain, periode, kasir_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,9 @@
+-- Salinan tanggal pemesanan di detail_pemesanan (kunci partisi dan filter laporan produk).
+-- Baris lama diisi oleh PartisiPemesananServiceImpl saat startup.
+SET @sql = (SELECT IF(COUNT(*) = 0,
+            'ALTER TABLE detail_pemesanan ADD COLUMN tanggal_pembelian DATETIME(6) NULL', 'DO 0')
+        FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = 'detail_pemesanan' AND column_name = 'tanggal_pembelian');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
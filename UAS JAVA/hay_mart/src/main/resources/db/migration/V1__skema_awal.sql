@@ -0,0 +1,82 @@
+-- Skema awal, sama dengan hasil ddl-auto: update sebelum skema dikelola Flyway.
+-- Database lama yang belum punya flyway_schema_history di-baseline pada versi ini dan
+-- tidak pernah menjalankan file ini, jadi semua tabel, kolom dan index yang ditambahkan
+-- sesudahnya harus berada di migrasi berikutnya (V1_1 dan seterusnya).
+
+CREATE TABLE role (
+    role_id INTEGER NOT NULL AUTO_INCREMENT,
+    role_name VARCHAR(255),
+    PRIMARY KEY (role_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user (
+    is_verified BIT,
+    role_id INTEGER NOT NULL,
+    star_date DATE,
+    user_id INTEGER NOT NULL AUTO_INCREMENT,
+    verification_code_expiry DATETIME(6),
+    email VARCHAR(255),
+    nama VARCHAR(255),
+    password VARCHAR(255),
+    status VARCHAR(255),
+    verification_code VARCHAR(255),
+    image LONGBLOB,
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE kategori (
+    kategori_id INTEGER NOT NULL AUTO_INCREMENT,
+    nama VARCHAR(255),
+    PRIMARY KEY (kategori_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE produk (
+    deleted BIT,
+    harga INTEGER,
+    kategori_id INTEGER NOT NULL,
+    produk_id INTEGER NOT NULL AUTO_INCREMENT,
+    stok INTEGER,
+    keterangan VARCHAR(255),
+    nama VARCHAR(255),
+    status VARCHAR(255),
+    foto_produk LONGBLOB,
+    PRIMARY KEY (produk_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE pemesanan (
+    kasir_id INTEGER NOT NULL,
+    pemesanan_id INTEGER NOT NULL AUTO_INCREMENT,
+    tanggal_pembelian DATETIME(6) NOT NULL,
+    total_harga BIGINT NOT NULL,
+    PRIMARY KEY (pemesanan_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE detail_pemesanan (
+    detail_pemesanan_id INTEGER NOT NULL AUTO_INCREMENT,
+    harga_satuan INTEGER NOT NULL,
+    jumlah INTEGER NOT NULL,
+    pemesanan_id INTEGER NOT NULL,
+    produk_id INTEGER NOT NULL,
+    subtotal INTEGER NOT NULL,
+    PRIMARY KEY (detail_pemesanan_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE laporan_produk (
+    deleted BIT,
+    harga_satuan INTEGER,
+    jumlah_terjual INTEGER,
+    laporan_produk_id INTEGER NOT NULL AUTO_INCREMENT,
+    produk_id INTEGER NOT NULL,
+    stok INTEGER,
+    total INTEGER,
+    nama_produk VARCHAR(255),
+    PRIMARY KEY (laporan_produk_id)
+) ENGINE = InnoDB;
+
+-- Nama constraint mengikuti yang dibuat Hibernate supaya skema lama dan baru identik
+ALTER TABLE user ADD CONSTRAINT FKn82ha3ccdebhokx3a8fgdqeyy FOREIGN KEY (role_id) REFERENCES role (role_id);
+ALTER TABLE produk ADD CONSTRAINT FK8s6nq4a8q2v1tdccxhsplt3ky FOREIGN KEY (kategori_id) REFERENCES kategori (kategori_id);
+ALTER TABLE pemesanan ADD CONSTRAINT FKdlharn8aa59jistye0oakk55v FOREIGN KEY (kasir_id) REFERENCES user (user_id);
+ALTER TABLE detail_pemesanan ADD CONSTRAINT FKf1t2efqa6a6htrbjlwkk832ip FOREIGN KEY (pemesanan_id) REFERENCES pemesanan (pemesanan_id);
+ALTER TABLE detail_pemesanan ADD CONSTRAINT FKa94y1m54x9pq53oqhaetxnwy8 FOREIGN KEY (produk_id) REFERENCES produk (produk_id);
+ALTER TABLE laporan_produk ADD CONSTRAINT FKtfgi7rdvbn6120rds70t2lsyc FOREIGN KEY (produk_id) REFERENCES produk (produk_id);
@@ -0,0 +1,32 @@
+-- Index untuk query yang paling sering jalan. Kolom yang hanya dibaca ikut dimasukkan
+-- di ujung index supaya query cukup membaca index tanpa kembali ke baris tabel.
+
+-- ringkasanPendapatan, rebuild rekap dan arsip: rentang tanggal + SUM(total_harga).
+-- Index lama (V1_2) hanya berisi tanggal_pembelian, diganti dengan versi covering.
+DROP INDEX idx_pemesanan_tanggal ON pemesanan;
+CREATE INDEX idx_pemesanan_tanggal ON pemesanan (tanggal_pembelian, total_harga);
+
+-- PemesananRepository.bulanan/tahunan/findByUserKasirAndTanggalPembelianBetween: kasir + rentang tanggal.
+-- Index ini juga dipakai foreign key kasir_id, jadi index bawaan FK tidak diperlukan lagi.
+CREATE INDEX idx_pemesanan_kasir_tanggal ON pemesanan (kasir_id, tanggal_pembelian, total_harga);
+
+-- LaporanProdukDao.getTerlaris: detail dalam rentang tanggal, dijumlahkan per produk
+CREATE INDEX idx_detail_tanggal ON detail_pemesanan (tanggal_pembelian, produk_id, pemesanan_id, jumlah, subtotal);
+
+-- Join detail dari pemesanan (getTerlaris, riwayat, arsip). Menggantikan index bawaan FK
+-- pemesanan_id, yang dihapus MySQL sendiri begitu index ini tersedia.
+CREATE INDEX idx_detail_pemesanan ON detail_pemesanan (pemesanan_id, tanggal_pembelian, produk_id, jumlah, subtotal);
+
+-- ProdukDaoImpl.getAll: deleted = false, kategori opsional, rentang/urutan harga
+CREATE INDEX idx_produk_filter ON produk (deleted, kategori_id, harga);
+
+-- existsByNamaIgnoreCase dan findByNamaIgnoreCaseAndDeletedTrue dibuat Spring Data sebagai
+-- upper(nama) = upper(?), sehingga index biasa pada nama tidak terpakai
+CREATE INDEX idx_produk_nama ON produk ((UPPER(nama)));
+
+-- UserRepository.findByEmail / findUsersByEmail (login, verifikasi, reset password)
+CREATE INDEX idx_user_email ON user (email);
+
+-- LaporanProdukRepository.findRingkasan: halaman laporan produk diurutkan per terjual atau total
+CREATE INDEX idx_laporan_produk_terjual ON laporan_produk (jumlah_terjual);
+CREATE INDEX idx_laporan_produk_total ON laporan_produk (total);
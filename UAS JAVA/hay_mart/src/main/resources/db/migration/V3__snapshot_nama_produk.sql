@@ -0,0 +1,7 @@
+-- Detail pemesanan menyimpan nama produk saat transaksi, sehingga riwayat dan struk
+-- tidak perlu memuat baris produk (dan tetap benar setelah produk diganti nama).
+ALTER TABLE detail_pemesanan ADD COLUMN nama_produk VARCHAR(255);
+
+UPDATE detail_pemesanan d
+JOIN produk p ON p.produk_id = d.produk_id
+SET d.nama_produk = p.nama;
@@ -0,0 +1,10 @@
+-- Versi perubahan_produk diambil dari baris ini di dalam transaksi penulis (SELECT ... FOR
+-- UPDATE), bukan dari AUTO_INCREMENT, supaya versi terlihat oleh pembaca sesuai urutannya.
+CREATE TABLE urutan_versi (
+    nama VARCHAR(50) NOT NULL,
+    nilai BIGINT NOT NULL,
+    PRIMARY KEY (nama)
+) ENGINE = InnoDB;
+
+INSERT INTO urutan_versi (nama, nilai)
+SELECT 'perubahan_produk', COALESCE(MAX(versi), 0) FROM perubahan_produk;
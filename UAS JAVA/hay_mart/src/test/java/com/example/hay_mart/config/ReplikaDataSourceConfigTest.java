@@ -0,0 +1,147 @@
+package com.example.hay_mart.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import com.example.hay_mart.dao.UserDao;
+import com.example.hay_mart.dto.kasir.KasirUpdateSatatusRequest;
+import com.example.hay_mart.dto.pemesanan.PemesananResponse;
+import com.example.hay_mart.services.email.EmailService;
+import com.example.hay_mart.services.image.ConvertImageService;
+import com.example.hay_mart.services.kasir.KasirService;
+import com.example.hay_mart.services.kasir.KasirServiceImpl;
+
+/**
+ * Menjalankan service JPA lewat susunan datasource aplikasi yang sebenarnya
+ * (ReplikaDataSourceConfig + JpaTransactionManager) di atas dua MySQL terpisah. Kedua
+ * database sengaja diisi nama kasir berbeda, jadi hasil bacaan menunjukkan instance mana
+ * yang melayaninya.
+ *
+ * Dilewati bila Docker tidak tersedia.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ReplikaDataSourceConfig.class, KasirServiceImpl.class })
+class ReplikaDataSourceConfigTest {
+    private static final int KASIR_ID = 1;
+
+    @Container
+    static final MySQLContainer<?> PRIMARY = new MySQLContainer<>("mysql:8.0")
+            .withUsername("root")
+            .withPassword("test");
+
+    @Container
+    static final MySQLContainer<?> REPLIKA = new MySQLContainer<>("mysql:8.0")
+            .withUsername("root")
+            .withPassword("test");
+
+    private static boolean terisi;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PRIMARY::getJdbcUrl);
+        registry.add("spring.datasource.username", PRIMARY::getUsername);
+        registry.add("spring.datasource.password", PRIMARY::getPassword);
+        registry.add("app.replika.enabled", () -> "true");
+        registry.add("app.replika.url", REPLIKA::getJdbcUrl);
+        registry.add("app.replika.username", REPLIKA::getUsername);
+        registry.add("app.replika.password", REPLIKA::getPassword);
+    }
+
+    @Autowired
+    KasirService kasirService;
+
+    @MockitoBean
+    UserDao userDao;
+
+    @MockitoBean
+    ConvertImageService convertImageService;
+
+    @MockitoBean
+    EmailService emailService;
+
+    @MockitoBean
+    PasswordEncoder passwordEncoder;
+
+    JdbcTemplate primary;
+    JdbcTemplate replika;
+
+    @BeforeEach
+    void isiData() {
+        // Langsung ke masing-masing instance: pool replika aplikasi read-only
+        primary = new JdbcTemplate(langsung(PRIMARY));
+        replika = new JdbcTemplate(langsung(REPLIKA));
+        if (terisi) {
+            return;
+        }
+        // Skema primary dibuat Flyway aplikasi; replika di test ini tidak mereplikasi apa pun
+        Flyway.configure().dataSource(langsung(REPLIKA)).load().migrate();
+        isi(primary, "Kasir Primary");
+        isi(replika, "Kasir Replika");
+        terisi = true;
+    }
+
+    @Test
+    void serviceReadOnlyMembacaReplika() {
+        assertThat(kasirService.getAllHistorysKasir())
+                .extracting(PemesananResponse::getNamaKasir)
+                .containsExactly("Kasir Replika");
+    }
+
+    @Test
+    void serviceReadOnlyDalamSegarMembacaPrimary() {
+        try (RuteDataSource.Penanda segar = RuteDataSource.segar()) {
+            assertThat(kasirService.getAllHistorysKasir())
+                    .extracting(PemesananResponse::getNamaKasir)
+                    .containsExactly("Kasir Primary");
+        }
+    }
+
+    @Test
+    void penulisanMembacaDanMenulisPrimary() {
+        KasirUpdateSatatusRequest request = new KasirUpdateSatatusRequest();
+        request.setStatus("NONAKTIF");
+
+        kasirService.update(KASIR_ID, request);
+
+        // Nama tetap milik primary: user dibaca dari primary, bukan salinan replika yang disimpan ulang
+        assertThat(primary.queryForMap("SELECT nama, status FROM user WHERE user_id = ?", KASIR_ID))
+                .containsEntry("nama", "Kasir Primary")
+                .containsEntry("status", "NONAKTIF");
+        assertThat(replika.queryForObject("SELECT status FROM user WHERE user_id = ?", String.class, KASIR_ID))
+                .isEqualTo("AKTIF");
+        primary.update("UPDATE user SET status = 'AKTIF' WHERE user_id = ?", KASIR_ID);
+    }
+
+    private static DataSource langsung(MySQLContainer<?> mysql) {
+        return new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+    }
+
+    private static void isi(JdbcTemplate jdbc, String namaKasir) {
+        jdbc.update("INSERT INTO role (role_id, role_name) VALUES (1, 'KASIR')");
+        jdbc.update("INSERT INTO user (user_id, role_id, email, nama, status, is_verified) "
+                + "VALUES (?, 1, 'kasir1@haymart.id', ?, 'AKTIF', 1)", KASIR_ID, namaKasir);
+        jdbc.update("INSERT INTO pemesanan (pemesanan_id, kasir_id, tanggal_pembelian, total_harga) "
+                + "VALUES (1, ?, '2024-03-01 10:00:00', 5000)", KASIR_ID);
+    }
+}
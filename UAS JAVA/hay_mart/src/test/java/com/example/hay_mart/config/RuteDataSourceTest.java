@@ -0,0 +1,137 @@
+package com.example.hay_mart.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Menjalankan transaksi lewat susunan yang sama dengan ReplikaDataSourceConfig
+ * (LazyConnectionDataSourceProxy di atas RuteDataSource) dan memeriksa datasource mana
+ * yang memberi koneksi.
+ */
+class RuteDataSourceTest {
+    private static final long LAG_MAKS_DETIK = 30;
+
+    private DataSource primary;
+    private DataSource replika;
+    private Connection koneksiPrimary;
+    private Connection koneksiReplika;
+    private RuteDataSource rute;
+    private DataSource dataSource;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replika = mock(DataSource.class);
+        koneksiPrimary = mock(Connection.class);
+        koneksiReplika = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(koneksiPrimary);
+        when(replika.getConnection()).thenReturn(koneksiReplika);
+
+        rute = new RuteDataSource(primary, replika, LAG_MAKS_DETIK);
+        rute.afterPropertiesSet();
+        dataSource = new LazyConnectionDataSourceProxy(rute);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @Test
+    void transaksiBiasaKePrimary() {
+        assertThat(koneksiDalamTransaksi(false)).isSameAs(koneksiPrimary);
+    }
+
+    @Test
+    void transaksiReadOnlyKeReplika() {
+        assertThat(koneksiDalamTransaksi(true)).isSameAs(koneksiReplika);
+    }
+
+    @Test
+    void bacaanSegarSelaluKePrimary() {
+        lagReplika(0L);
+
+        try (RuteDataSource.Penanda segar = RuteDataSource.segar()) {
+            assertThat(koneksiDalamTransaksi(true)).isSameAs(koneksiPrimary);
+        }
+        assertThat(koneksiDalamTransaksi(true)).isSameAs(koneksiReplika);
+    }
+
+    @Test
+    void lagMelebihiBatasKePrimary() {
+        lagReplika(LAG_MAKS_DETIK + 1);
+        assertThat(koneksiDalamTransaksi(true)).isSameAs(koneksiPrimary);
+
+        lagReplika(LAG_MAKS_DETIK);
+        assertThat(koneksiDalamTransaksi(true)).isSameAs(koneksiReplika);
+    }
+
+    @Test
+    void replikasiBerhentiKePrimary() {
+        lagReplika(null);
+
+        assertThat(rute.getLagDetik()).isEqualTo(Long.MAX_VALUE);
+        assertThat(koneksiDalamTransaksi(true)).isSameAs(koneksiPrimary);
+    }
+
+    @Test
+    void koneksiReplikaGagalDialihkanKePrimary() throws SQLException {
+        when(replika.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThat(koneksiDalamTransaksi(true)).isSameAs(koneksiPrimary);
+        assertThat(rute.isSehat()).isFalse();
+    }
+
+    @Test
+    void replikaPulihSetelahPemeriksaanBerhasil() throws SQLException {
+        when(replika.getConnection()).thenThrow(new SQLException("Connection refused"));
+        rute.periksa();
+        assertThat(rute.isSehat()).isFalse();
+        assertThat(koneksiDalamTransaksi(true)).isSameAs(koneksiPrimary);
+
+        doReturn(koneksiReplika).when(replika).getConnection();
+        lagReplika(0L);
+        assertThat(rute.isSehat()).isTrue();
+        assertThat(koneksiDalamTransaksi(true)).isSameAs(koneksiReplika);
+    }
+
+    private Connection koneksiDalamTransaksi(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> ((ConnectionProxy) DataSourceUtils.getConnection(dataSource))
+                .getTargetConnection());
+    }
+
+    /** Menjalankan pemeriksaan terjadwal dengan hasil SHOW REPLICA STATUS tertentu (null: thread berhenti). */
+    private void lagReplika(Long detik) {
+        try {
+            Statement statement = mock(Statement.class);
+            ResultSet hasil = mock(ResultSet.class);
+            ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+            when(koneksiReplika.createStatement()).thenReturn(statement);
+            when(statement.executeQuery(anyString())).thenReturn(hasil);
+            when(hasil.getMetaData()).thenReturn(metaData);
+            when(metaData.getColumnCount()).thenReturn(1);
+            when(metaData.getColumnLabel(1)).thenReturn("Seconds_Behind_Source");
+            when(hasil.next()).thenReturn(true, false);
+            when(hasil.getObject(1)).thenReturn(detik);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        rute.periksa();
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.hay_mart.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.hay_mart.dto.laporan.DeretPendapatan;
+import com.example.hay_mart.dto.laporan.RebuildRekapResponse;
+import com.example.hay_mart.services.arsip.ArsipPemesananService;
+import com.example.hay_mart.services.laporan.LaporanCache;
+import com.example.hay_mart.services.laporan.RekapPendapatanService;
+import com.example.hay_mart.services.laporan.RekapPendapatanServiceImpl;
+import com.example.hay_mart.support.MySqlExplainTest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deret mingguan, bulanan dan tahunan di atas pemesanan lima tahun yang direkap ulang
+ * dengan rebuild. Setiap deret harus sama dengan GROUP BY langsung atas tabel pemesanan,
+ * membaca rekap_pendapatan lewat rentang uk_rekap_pendapatan (grain, periode), dan
+ * waktunya dicatat di log.
+ *
+ * Jumlah pemesanan diatur dengan -Dlaporan.deret.pemesanan (bawaan 200 ribu; angka di
+ * commit diukur dengan 5 juta).
+ */
+@Slf4j
+@Import({ LaporanPendapatanDaoImpl.class, RekapPendapatanServiceImpl.class })
+class LaporanPendapatanDaoImplTest extends MySqlExplainTest {
+    private static final int JUMLAH_PEMESANAN = Integer.getInteger("laporan.deret.pemesanan", 200_000);
+    private static final int JUMLAH_KASIR = 20;
+    private static final int PENGULANGAN = 10;
+
+    private static final LocalDate SENIN_AWAL = LocalDate.now().with(DayOfWeek.MONDAY).minusWeeks(4);
+    private static final YearMonth BULAN_AWAL = YearMonth.now().minusMonths(10);
+    private static final int TAHUN_AWAL = LocalDate.now().getYear() - 4;
+    private static boolean terisi;
+
+    @Autowired
+    LaporanPendapatanDao laporanPendapatanDao;
+
+    @Autowired
+    RekapPendapatanService rekapPendapatanService;
+
+    @MockitoBean
+    LaporanCache laporanCache;
+
+    @MockitoBean
+    ArsipPemesananService arsipPemesananService;
+
+    @BeforeEach
+    void isiData() {
+        if (terisi) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO role (role_id, role_name) VALUES (1, 'KASIR')");
+        for (int i = 1; i <= JUMLAH_KASIR; i++) {
+            jdbcTemplate.update("INSERT INTO user (user_id, role_id, email, nama, status, is_verified) "
+                    + "VALUES (?, 1, ?, ?, 'AKTIF', 1)", i, "kasir" + i + "@haymart.id", "Kasir " + i);
+        }
+
+        // Pemesanan dibuat di MySQL dari tabel angka 0..999 supaya jutaan baris tidak lewat JDBC,
+        // tersebar merata dari awal tahun pertama deret tahunan sampai sekarang
+        LocalDateTime awal = LocalDateTime.of(TAHUN_AWAL, 1, 1, 0, 0);
+        long rentangDetik = java.time.Duration.between(awal, LocalDateTime.now()).toSeconds();
+        jdbcTemplate.execute("CREATE TABLE angka (n INT PRIMARY KEY)");
+        List<String> nilai = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            nilai.add("(" + i + ")");
+        }
+        jdbcTemplate.update("INSERT INTO angka (n) VALUES " + String.join(", ", nilai));
+
+        long mulai = System.nanoTime();
+        for (int blok = 0; blok < JUMLAH_PEMESANAN; blok += 1_000_000) {
+            jdbcTemplate.update("INSERT INTO pemesanan (kasir_id, tanggal_pembelian, total_harga) "
+                    + "SELECT x MOD ? + 1, ? + INTERVAL FLOOR(x * ? / ?) SECOND, 1000 + x * 7919 MOD 2000000 "
+                    + "FROM (SELECT ? + a.n * 1000 + b.n AS x FROM angka a CROSS JOIN angka b) s WHERE x < ?",
+                    JUMLAH_KASIR, awal, rentangDetik, JUMLAH_PEMESANAN, blok, JUMLAH_PEMESANAN);
+        }
+        jdbcTemplate.execute("DROP TABLE angka");
+        log.info("Mengisi {} pemesanan: {} ms", JUMLAH_PEMESANAN, (System.nanoTime() - mulai) / 1_000_000);
+
+        RebuildRekapResponse rebuild = rekapPendapatanService.rebuild();
+        log.info("Rebuild rekap {} bulan, {} baris per jam: {} ms", rebuild.getJumlahBulan(),
+                rebuild.getJumlahBarisJam(), rebuild.getDurasiMs());
+
+        for (String tabel : new String[] { "pemesanan", "rekap_pendapatan" }) {
+            jdbcTemplate.queryForList("ANALYZE TABLE `" + tabel + "`");
+        }
+        terisi = true;
+    }
+
+    @Test
+    void deretMingguanSamaDenganPemesanan() {
+        DeretPendapatan deret = ukur("mingguan", () -> laporanPendapatanDao.deretMingguan(SENIN_AWAL, 5));
+
+        for (int i = 0; i < 5; i++) {
+            assertPeriode(deret, i, SENIN_AWAL.plusWeeks(i).atStartOfDay(), SENIN_AWAL.plusWeeks(i + 1).atStartOfDay());
+        }
+    }
+
+    @Test
+    void deretBulananSamaDenganPemesanan() {
+        DeretPendapatan deret = ukur("bulanan", () -> laporanPendapatanDao.deretBulanan(BULAN_AWAL, 11));
+
+        for (int i = 0; i < 11; i++) {
+            assertPeriode(deret, i, BULAN_AWAL.plusMonths(i).atDay(1).atStartOfDay(),
+                    BULAN_AWAL.plusMonths(i + 1).atDay(1).atStartOfDay());
+        }
+    }
+
+    @Test
+    void deretTahunanSamaDenganPemesanan() {
+        DeretPendapatan deret = ukur("tahunan", () -> laporanPendapatanDao.deretTahunan(TAHUN_AWAL, 5));
+
+        for (int i = 0; i < 5; i++) {
+            assertPeriode(deret, i, LocalDateTime.of(TAHUN_AWAL + i, 1, 1, 0, 0),
+                    LocalDateTime.of(TAHUN_AWAL + i + 1, 1, 1, 0, 0));
+        }
+    }
+
+    @Test
+    void deretMingguanMembacaRentangRekapHarian() {
+        assertRentangRekap(sqlDari("FROM rekap_pendapatan r",
+                () -> laporanPendapatanDao.deretMingguan(SENIN_AWAL, 5)), "HARI");
+    }
+
+    @Test
+    void deretBulananMembacaRentangRekapBulanan() {
+        assertRentangRekap(sqlDari("FROM rekap_pendapatan r",
+                () -> laporanPendapatanDao.deretBulanan(BULAN_AWAL, 11)), "BULAN");
+    }
+
+    @Test
+    void deretTahunanMembacaRentangRekapBulanan() {
+        assertRentangRekap(sqlDari("FROM rekap_pendapatan r",
+                () -> laporanPendapatanDao.deretTahunan(TAHUN_AWAL, 5)), "BULAN");
+    }
+
+    // Hanya baris satu grain yang dibaca lewat index, bukan seluruh rekap (JAM jauh lebih banyak)
+    private void assertRentangRekap(String sql, String grain) {
+        Map<String, Map<String, Object>> rencana = explain(sql);
+        assertThat(rencana).as(sql).containsOnlyKeys("r");
+        Map<String, Object> rekap = rencana.get("r");
+        assertThat(rekap.get("key")).isEqualTo("uk_rekap_pendapatan");
+        assertThat(rekap.get("type")).isEqualTo("range");
+
+        long barisGrain = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM rekap_pendapatan WHERE grain = ?", Long.class, grain);
+        assertThat(Long.parseLong(String.valueOf(rekap.get("rows")))).isLessThanOrEqualTo(barisGrain * 2);
+    }
+
+    private void assertPeriode(DeretPendapatan deret, int periode, LocalDateTime awal, LocalDateTime akhir) {
+        Map<String, Object> langsung = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS jumlah, COALESCE(SUM(total_harga), 0) AS pendapatan FROM pemesanan "
+                        + "WHERE tanggal_pembelian >= ? AND tanggal_pembelian < ?", awal, akhir);
+        assertThat(deret.getJumlahTransaksi()[periode]).as("transaksi %s", awal)
+                .isEqualTo(((Number) langsung.get("jumlah")).longValue());
+        assertThat(deret.getPendapatan()[periode]).as("pendapatan %s", awal)
+                .isEqualTo(((Number) langsung.get("pendapatan")).longValue());
+    }
+
+    /** Menjalankan deret beberapa kali dalam transaksi read-only dan mencatat median waktunya. */
+    private DeretPendapatan ukur(String nama, Supplier<DeretPendapatan> deret) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+
+        template.execute(status -> deret.get());
+        long[] waktu = new long[PENGULANGAN];
+        DeretPendapatan hasil = null;
+        for (int i = 0; i < PENGULANGAN; i++) {
+            long mulai = System.nanoTime();
+            hasil = template.execute(status -> deret.get());
+            waktu[i] = System.nanoTime() - mulai;
+        }
+        Arrays.sort(waktu);
+        log.info("Deret {} atas {} pemesanan: median {} us, maks {} us", nama, JUMLAH_PEMESANAN,
+                waktu[PENGULANGAN / 2] / 1000, waktu[PENGULANGAN - 1] / 1000);
+        return hasil;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.hay_mart.repositorys;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.hay_mart.dao.LaporanProdukDao;
+import com.example.hay_mart.dao.LaporanProdukDaoImpl;
+import com.example.hay_mart.dao.ProdukDao;
+import com.example.hay_mart.dao.ProdukDaoImpl;
+import com.example.hay_mart.dto.laporan.ProdukTerlarisResponse;
+import com.example.hay_mart.models.User;
+import com.example.hay_mart.services.arsip.ArsipPemesananService;
+import com.example.hay_mart.support.MySqlExplainTest;
+
+/**
+ * Memastikan query yang paling sering jalan memakai index dari migrasi V2. Setiap test
+ * menjalankan method repository/DAO yang sebenarnya, mengambil SQL yang dibuat Hibernate
+ * dan memeriksa kolom key (dan Extra untuk index covering) pada EXPLAIN.
+ *
+ * Data contoh diisi cukup banyak lalu di-ANALYZE supaya optimizer memilih rencana seperti
+ * di produksi, bukan full scan yang murah karena tabelnya kosong.
+ */
+@Import({ LaporanProdukDaoImpl.class, ProdukDaoImpl.class })
+class IndexQueryUtamaTest extends MySqlExplainTest {
+    private static final YearMonth BULAN = YearMonth.now();
+    private static final int JUMLAH_PRODUK = 5000;
+    private static final int JUMLAH_PEMESANAN = 6000;
+    private static boolean terisi;
+
+    @Autowired
+    PemesananRepository pemesananRepository;
+
+    @Autowired
+    ProdukRepository produkRepository;
+
+    @Autowired
+    KategoriRepository kategoriRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    LaporanProdukRepository laporanProdukRepository;
+
+    @Autowired
+    LaporanProdukDao laporanProdukDao;
+
+    @Autowired
+    ProdukDao produkDao;
+
+    @MockitoBean
+    ArsipPemesananService arsipPemesananService;
+
+    @BeforeEach
+    void isiData() {
+        if (terisi) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO role (role_id, role_name) VALUES (1, 'KASIR')");
+        sisipkan("INSERT INTO user (user_id, role_id, email, nama, status, is_verified) VALUES ", 1, 50,
+                i -> "(" + i + ", 1, 'kasir" + i + "@haymart.id', 'Kasir " + i + "', 'AKTIF', 1)");
+        sisipkan("INSERT INTO kategori (kategori_id, nama) VALUES ", 1, 10, i -> "(" + i + ", 'Kategori " + i + "')");
+        sisipkan("INSERT INTO produk (produk_id, nama, harga, stok, kategori_id, status, deleted) VALUES ", 1,
+                JUMLAH_PRODUK, i -> "(" + i + ", 'Produk " + i + "', " + (i * 997 % 100_000) + ", 10, "
+                        + (i % 10 + 1) + ", 'Tersedia', " + (i % 10 == 0 ? 1 : 0) + ")");
+        sisipkan("INSERT INTO laporan_produk (produk_id, nama_produk, jumlah_terjual, stok, harga_satuan, total, "
+                + "deleted) VALUES ", 1, JUMLAH_PRODUK,
+                i -> "(" + i + ", 'Produk " + i + "', " + (i * 31 % 1000) + ", 10, 1000, " + (i * 7919 % 100_000)
+                        + ", 0)");
+
+        // Pemesanan tersebar merata selama dua tahun terakhir, dua detail per pemesanan
+        LocalDateTime awal = BULAN.minusMonths(23).atDay(1).atStartOfDay();
+        long rentangMenit = java.time.Duration.between(awal, BULAN.plusMonths(1).atDay(1).atStartOfDay()).toMinutes();
+        sisipkan("INSERT INTO pemesanan (pemesanan_id, kasir_id, tanggal_pembelian, total_harga) VALUES ", 1,
+                JUMLAH_PEMESANAN, i -> "(" + i + ", " + (i % 50 + 1) + ", '" + tanggal(awal, rentangMenit, i)
+                        + "', " + (i * 131 % 500_000) + ")");
+        sisipkan("INSERT INTO detail_pemesanan (pemesanan_id, produk_id, nama_produk, jumlah, harga_satuan, "
+                + "subtotal, tanggal_pembelian) VALUES ", 1, JUMLAH_PEMESANAN * 2, i -> {
+                    int pemesanan = (i + 1) / 2;
+                    int produk = i % JUMLAH_PRODUK + 1;
+                    return "(" + pemesanan + ", " + produk + ", 'Produk " + produk + "', 2, 1000, 2000, '"
+                            + tanggal(awal, rentangMenit, pemesanan) + "')";
+                });
+
+        for (String tabel : new String[] { "user", "produk", "laporan_produk", "pemesanan", "detail_pemesanan" }) {
+            jdbcTemplate.queryForList("ANALYZE TABLE `" + tabel + "`");
+        }
+        terisi = true;
+    }
+
+    @Test
+    void ringkasanPendapatanCukupMembacaIndexTanggal() {
+        String sql = sqlDari("from pemesanan", () -> pemesananRepository.ringkasanPendapatan(
+                BULAN.atDay(1).atStartOfDay(), BULAN.plusMonths(1).atDay(1).atStartOfDay()));
+
+        Map<String, Object> rencana = satuTabel(sql);
+        assertThat(rencana.get("key")).isEqualTo("idx_pemesanan_tanggal");
+        assertCovering(rencana);
+    }
+
+    @Test
+    void pemesananKasirPerRentangMemakaiIndexKasirTanggal() {
+        String sql = sqlDari("from pemesanan", () -> {
+            User kasir = userRepository.findById(7).orElseThrow();
+            pemesananRepository.tahunan(kasir, BULAN.atDay(1).atStartOfDay(),
+                    BULAN.plusMonths(1).atDay(1).atStartOfDay());
+        });
+
+        Map<String, Object> rencana = satuTabel(sql);
+        assertThat(rencana.get("key")).isEqualTo("idx_pemesanan_kasir_tanggal");
+        assertCovering(rencana);
+    }
+
+    @Test
+    void produkTerlarisMembacaDetailTanpaBarisTabel() {
+        LocalDate awal = BULAN.atDay(1);
+        String sql = sqlDari("FROM pemesanan o",
+                () -> laporanProdukDao.getTerlaris(awal, BULAN.atEndOfMonth(), 10, null));
+
+        // Optimizer boleh mulai dari rentang tanggal detail atau join dari pemesanan;
+        // keduanya harus cukup membaca index
+        Map<String, Object> detail = explain(sql).get("d");
+        assertThat(detail.get("key")).isIn("idx_detail_tanggal", "idx_detail_pemesanan");
+        assertCovering(detail);
+    }
+
+    @Test
+    void produkTerlarisMenggabungkanPenjualanBulanTerarsip() {
+        LocalDate awal = BULAN.atDay(1);
+        LocalDate akhir = BULAN.atEndOfMonth();
+        // Satu produk terjual di tabel dan di arsip, satu lagi hanya ada di arsip
+        Map<String, Object> tabel = jdbcTemplate.queryForMap("SELECT produk_id, SUM(jumlah) AS jumlah, "
+                + "COUNT(DISTINCT pemesanan_id) AS transaksi FROM detail_pemesanan "
+                + "WHERE tanggal_pembelian >= ? AND tanggal_pembelian < ? GROUP BY produk_id LIMIT 1",
+                awal.atStartOfDay(), akhir.plusDays(1).atStartOfDay());
+        int produkId = ((Number) tabel.get("produk_id")).intValue();
+        when(arsipPemesananService.penjualanProduk(awal.atStartOfDay(), akhir.plusDays(1).atStartOfDay()))
+                .thenReturn(new HashMap<>(Map.of(
+                        produkId, new Object[] { produkId, "Nama Lama", 1_000_000L, 10L, 2_000_000L },
+                        999_999, new Object[] { 999_999, "Produk Dihapus", 500_000L, 3L, 1_000L })));
+
+        // Hasil query dibaca sebagai stream, jadi perlu transaksi seperti di LaporanProdukServiceImpl
+        List<ProdukTerlarisResponse> terlaris = new TransactionTemplate(transactionManager).execute(
+                status -> laporanProdukDao.getTerlaris(awal, akhir, 2, LaporanProdukDaoImpl.URUT_JUMLAH));
+
+        assertThat(terlaris).extracting(ProdukTerlarisResponse::getProdukId).containsExactly(produkId, 999_999);
+        assertThat(terlaris.get(0).getNamaProduk()).isEqualTo("Produk " + produkId);
+        assertThat(terlaris.get(0).getJumlahTerjual())
+                .isEqualTo(1_000_000L + ((Number) tabel.get("jumlah")).longValue());
+        assertThat(terlaris.get(0).getJumlahTransaksi())
+                .isEqualTo(10L + ((Number) tabel.get("transaksi")).longValue());
+        assertThat(terlaris.get(1).getNamaProduk()).isEqualTo("Produk Dihapus");
+        assertThat(terlaris.get(1).getPendapatan()).isEqualTo(1_000L);
+    }
+
+    @Test
+    void katalogProdukMemakaiIndexFilterTanpaFilesort() {
+        String sql = sqlDari("order by", () -> produkDao.getAll(null, kategoriRepository.findById(3).orElseThrow(),
+                1, 4, "harga", "asc", 0, 100_000));
+
+        Map<String, Object> rencana = satuTabel(sql);
+        assertThat(rencana.get("key")).isEqualTo("idx_produk_filter");
+        assertThat(extra(rencana)).doesNotContain("Using filesort");
+    }
+
+    @Test
+    void cekNamaProdukTanpaHurufBesarKecilMemakaiIndexFungsional() {
+        String sql = sqlDari("from produk", () -> produkRepository.existsByNamaIgnoreCase("produk 42"));
+
+        assertThat(satuTabel(sql).get("key")).isEqualTo("idx_produk_nama");
+    }
+
+    @Test
+    void loginMencariUserLewatIndexEmail() {
+        String sql = sqlDari("from user", () -> userRepository.findByEmail("kasir7@haymart.id"));
+
+        assertThat(satuTabel(sql).get("key")).isEqualTo("idx_user_email");
+    }
+
+    @Test
+    void halamanLaporanProdukDiurutkanLewatIndexTanpaFilesort() {
+        String sql = sqlDari("order by", () -> laporanProdukRepository.findRingkasan(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "jumlahTerjual"))));
+
+        Map<String, Object> rencana = satuTabel(sql);
+        assertThat(rencana.get("key")).isEqualTo("idx_laporan_produk_terjual");
+        assertThat(extra(rencana)).doesNotContain("Using filesort");
+    }
+
+    private Map<String, Object> satuTabel(String sql) {
+        Map<String, Map<String, Object>> rencana = explain(sql);
+        assertThat(rencana).as(sql).hasSize(1);
+        return rencana.values().iterator().next();
+    }
+
+    // "Using index" tanpa "condition": seluruh kolom yang dibutuhkan ada di index
+    private void assertCovering(Map<String, Object> rencana) {
+        assertThat(extra(rencana)).contains("Using index").doesNotContain("Using index condition");
+    }
+
+    private String extra(Map<String, Object> rencana) {
+        Object extra = rencana.get("Extra");
+        return extra != null ? extra.toString() : "";
+    }
+
+    private static String tanggal(LocalDateTime awal, long rentangMenit, int i) {
+        return awal.plusMinutes(i * rentangMenit / JUMLAH_PEMESANAN).toString().replace('T', ' ');
+    }
+
+    private void sisipkan(String insert, int dari, int sampai, java.util.function.IntFunction<String> baris) {
+        List<String> nilai = new ArrayList<>();
+        for (int i = dari; i <= sampai; i++) {
+            nilai.add(baris.apply(i));
+            if (nilai.size() == 1000 || i == sampai) {
+                jdbcTemplate.update(insert + String.join(", ", nilai));
+                nilai.clear();
+            }
+        }
+    }
+}
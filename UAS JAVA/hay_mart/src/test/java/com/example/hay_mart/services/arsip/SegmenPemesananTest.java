@@ -0,0 +1,205 @@
+package com.example.hay_mart.services.arsip;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SegmenPemesananTest {
+    private static final YearMonth BULAN = YearMonth.of(2024, 3);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void semuaKolomKembaliSamaSetelahDitulisDanDibaca() throws IOException {
+        SegmenPemesanan.Isi isi = contoh();
+        Path file = dir.resolve("2024-03.seg");
+
+        SegmenPemesanan.tulis(file, BULAN, isi);
+        SegmenPemesanan segmen = SegmenPemesanan.buka(file);
+
+        assertThat(segmen.getBulan()).isEqualTo(BULAN);
+        assertThat(segmen.getJumlahPemesanan()).isEqualTo(3);
+        assertThat(segmen.getJumlahDetail()).isEqualTo(5);
+        assertThat(segmen.getMinId()).isEqualTo(10);
+        assertThat(segmen.getMaxId()).isEqualTo(25);
+        assertThat(segmen.getTotalHarga()).isEqualTo(15000 + 7000 + 42000);
+        assertThat(segmen.getUkuran()).isEqualTo(Files.size(file));
+
+        assertThat(segmen.kolomInt(SegmenPemesanan.P_ID)).containsExactly(isi.id());
+        assertThat(segmen.kolomLong(SegmenPemesanan.P_TANGGAL)).containsExactly(isi.tanggal());
+        assertThat(segmen.kolomInt(SegmenPemesanan.P_KASIR)).containsExactly(isi.kasir());
+        assertThat(segmen.kolomLong(SegmenPemesanan.P_TOTAL)).containsExactly(isi.total());
+        assertThat(segmen.kolomInt(SegmenPemesanan.P_DETAIL_AWAL)).containsExactly(isi.detailAwal());
+        assertThat(segmen.kolomInt(SegmenPemesanan.D_ID)).containsExactly(isi.detailId());
+        assertThat(segmen.kolomInt(SegmenPemesanan.D_PRODUK)).containsExactly(isi.produk());
+        assertThat(segmen.kolomInt(SegmenPemesanan.D_JUMLAH)).containsExactly(isi.jumlah());
+        assertThat(segmen.kolomInt(SegmenPemesanan.D_HARGA)).containsExactly(isi.harga());
+        assertThat(segmen.kolomInt(SegmenPemesanan.D_SUBTOTAL)).containsExactly(isi.subtotal());
+        assertThat(segmen.kolomString(SegmenPemesanan.D_NAMA)).containsExactly(isi.namaProduk());
+        assertThat(dir.resolve("2024-03.seg.tmp")).doesNotExist();
+    }
+
+    @Test
+    void kolomDeltaTetapBenarUntukSelisihNegatifDanBesar() throws IOException {
+        // Delta detail id dan tanggal bisa negatif bila urutan insert tidak sama dengan urutan id
+        int[] detailId = { 5, 2, Integer.MAX_VALUE, Integer.MIN_VALUE, 0 };
+        long[] tanggal = { 1_000_000_000_000L, -5L, Long.MAX_VALUE / 2 };
+        SegmenPemesanan.Isi isi = new SegmenPemesanan.Isi(new int[] { 1, 2, 3 }, tanggal, new int[] { 1, 1, 1 },
+                new long[] { 1, 2, 3 }, new int[] { 0, 2, 4, 5 }, detailId, new int[5], new int[5], new int[5],
+                new int[5], new String[5]);
+        Path file = dir.resolve("delta.seg");
+
+        SegmenPemesanan.tulis(file, BULAN, isi);
+        SegmenPemesanan segmen = SegmenPemesanan.buka(file);
+
+        assertThat(segmen.kolomInt(SegmenPemesanan.D_ID)).containsExactly(detailId);
+        assertThat(segmen.kolomLong(SegmenPemesanan.P_TANGGAL)).containsExactly(tanggal);
+    }
+
+    @Test
+    void segmenBesarTerkompresiDanTerbacaUtuh() throws IOException {
+        int n = 20_000;
+        Random random = new Random(42);
+        int[] id = new int[n];
+        long[] tanggal = new long[n];
+        int[] kasir = new int[n];
+        long[] total = new long[n];
+        int[] detailAwal = new int[n + 1];
+        long awal = SegmenPemesanan.dariTanggal(BULAN.atDay(1).atStartOfDay());
+        for (int i = 0; i < n; i++) {
+            id[i] = 1000 + i * 2;
+            tanggal[i] = awal + i * 60_000_000L + random.nextInt(1_000_000);
+            kasir[i] = 1 + random.nextInt(5);
+            total[i] = 1000 + random.nextInt(100_000);
+            detailAwal[i + 1] = i + 1;
+        }
+        int[] detail = new int[n];
+        String[] nama = new String[n];
+        for (int i = 0; i < n; i++) {
+            detail[i] = 5000 + i;
+            nama[i] = "Produk " + kasir[i];
+        }
+        SegmenPemesanan.Isi isi = new SegmenPemesanan.Isi(id, tanggal, kasir, total, detailAwal, detail, kasir,
+                kasir, kasir, kasir, nama);
+        Path file = dir.resolve("besar.seg");
+
+        SegmenPemesanan.tulis(file, BULAN, isi);
+        SegmenPemesanan segmen = SegmenPemesanan.buka(file);
+
+        long mentah = (long) n * (4 + 8 + 4 + 8 + 4) + (long) n * 4 * 5 + 4 + (long) n * "Produk 1".length();
+        assertThat(segmen.getUkuran()).isLessThan(mentah / 2);
+        assertThat(segmen.kolomInt(SegmenPemesanan.P_ID)).containsExactly(id);
+        assertThat(segmen.kolomLong(SegmenPemesanan.P_TANGGAL)).containsExactly(tanggal);
+        assertThat(segmen.kolomLong(SegmenPemesanan.P_TOTAL)).containsExactly(total);
+        assertThat(segmen.kolomString(SegmenPemesanan.D_NAMA)).containsExactly(nama);
+        assertThat(segmen.cari(id[n - 1])).isEqualTo(n - 1);
+    }
+
+    @Test
+    void namaProdukDisimpanSebagaiKamus() throws IOException {
+        Path file = dir.resolve("nama.seg");
+        SegmenPemesanan.tulis(file, BULAN, contoh());
+        SegmenPemesanan segmen = SegmenPemesanan.buka(file);
+
+        String[] nama = segmen.kolomString(SegmenPemesanan.D_NAMA);
+        assertThat(nama).containsExactly("Kopi Susu", "Teh Manis", "Kopi Susu", null, "Roti Cokelat \u00e9");
+        // Nama yang sama dari kamus yang sama, bukan salinan per detail
+        assertThat(nama[2]).isSameAs(nama[0]);
+    }
+
+    @Test
+    void segmenVersiLamaTanpaKolomNamaTetapTerbaca() throws IOException {
+        Path file = dir.resolve("versi1.seg");
+        SegmenPemesanan.tulis(file, BULAN, contoh());
+        // Header versi 1: 10 kolom, entri kolom nama di header diabaikan pembaca
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(2).putShort(0, (short) 1), 4);
+            channel.write(ByteBuffer.allocate(2).putShort(0, (short) 10), 34);
+        }
+        SegmenPemesanan segmen = SegmenPemesanan.buka(file);
+
+        assertThat(segmen.kolomInt(SegmenPemesanan.D_SUBTOTAL)).containsExactly(contoh().subtotal());
+        assertThat(segmen.kolomString(SegmenPemesanan.D_NAMA)).isNull();
+    }
+
+    @Test
+    void cariMemakaiRentangIdDanBinarySearch() throws IOException {
+        Path file = dir.resolve("cari.seg");
+        SegmenPemesanan.tulis(file, BULAN, contoh());
+        SegmenPemesanan segmen = SegmenPemesanan.buka(file);
+
+        assertThat(segmen.cari(10)).isZero();
+        assertThat(segmen.cari(17)).isEqualTo(1);
+        assertThat(segmen.cari(25)).isEqualTo(2);
+        assertThat(segmen.cari(11)).isEqualTo(-1);
+        assertThat(segmen.mungkinMemuat(9)).isFalse();
+        assertThat(segmen.mungkinMemuat(26)).isFalse();
+        assertThat(segmen.cari(26)).isEqualTo(-1);
+    }
+
+    @Test
+    void segmenKosongTidakMemuatApapun() throws IOException {
+        SegmenPemesanan.Isi isi = new SegmenPemesanan.Isi(new int[0], new long[0], new int[0], new long[0],
+                new int[] { 0 }, new int[0], new int[0], new int[0], new int[0], new int[0], new String[0]);
+        Path file = dir.resolve("kosong.seg");
+
+        SegmenPemesanan.tulis(file, BULAN, isi);
+        SegmenPemesanan segmen = SegmenPemesanan.buka(file);
+
+        assertThat(segmen.getJumlahPemesanan()).isZero();
+        assertThat(segmen.getTotalHarga()).isZero();
+        assertThat(segmen.kolomInt(SegmenPemesanan.P_ID)).isEmpty();
+        assertThat(segmen.kolomInt(SegmenPemesanan.P_DETAIL_AWAL)).containsExactly(0);
+        assertThat(segmen.kolomString(SegmenPemesanan.D_NAMA)).isEmpty();
+        assertThat(segmen.mungkinMemuat(0)).isFalse();
+        assertThat(segmen.cari(0)).isEqualTo(-1);
+    }
+
+    @Test
+    void fileBukanSegmenDitolak() throws IOException {
+        Path file = Files.write(dir.resolve("lain.seg"), new byte[64]);
+
+        assertThatThrownBy(() -> SegmenPemesanan.buka(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void konversiTanggalMempertahankanMikrodetik() {
+        LocalDateTime[] tanggal = {
+                LocalDateTime.of(2024, 3, 15, 13, 45, 7, 123_456_000),
+                LocalDateTime.of(1970, 1, 1, 0, 0),
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000)
+        };
+        for (LocalDateTime t : tanggal) {
+            assertThat(SegmenPemesanan.keTanggal(SegmenPemesanan.dariTanggal(t))).isEqualTo(t);
+        }
+        assertThat(SegmenPemesanan.dariTanggal(tanggal[2])).isEqualTo(-1);
+    }
+
+    private SegmenPemesanan.Isi contoh() {
+        long awal = SegmenPemesanan.dariTanggal(LocalDateTime.of(2024, 3, 1, 8, 0));
+        return new SegmenPemesanan.Isi(
+                new int[] { 10, 17, 25 },
+                new long[] { awal, awal + 3_600_000_000L, awal + 86_400_000_000L },
+                new int[] { 2, 1, 2 },
+                new long[] { 15000, 7000, 42000 },
+                new int[] { 0, 2, 3, 5 },
+                new int[] { 100, 101, 107, 120, 121 },
+                new int[] { 4, 9, 4, 1, 9 },
+                new int[] { 1, 2, 1, 3, 1 },
+                new int[] { 5000, 5000, 7000, 10000, 12000 },
+                new int[] { 5000, 10000, 7000, 30000, 12000 },
+                new String[] { "Kopi Susu", "Teh Manis", "Kopi Susu", null, "Roti Cokelat \u00e9" });
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.hay_mart.services.kasir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.hay_mart.dao.UserDao;
+import com.example.hay_mart.models.Pemesanan;
+import com.example.hay_mart.repositorys.PemesananRepository;
+import com.example.hay_mart.services.email.EmailService;
+import com.example.hay_mart.services.image.ConvertImageService;
+import com.example.hay_mart.support.MySqlExplainTest;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mengukur apa yang dihemat transaksi read-only pada riwayat kasir: snapshot dirty checking
+ * di persistence context, flush saat commit, serta byte yang dialokasikan dan waktu CPU
+ * thread pemanggil. Kondisi "sebelum" adalah query riwayat tanpa hint read-only di dalam
+ * transaksi biasa, seperti sebelum getAllHistorysKasir dibuat read-only.
+ *
+ * Jumlah pemesanan diatur dengan -Dkasir.riwayat.pemesanan (bawaan 20 ribu, tiga detail
+ * per pemesanan).
+ */
+@Slf4j
+@Import(KasirServiceImpl.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class KasirServiceImplReadOnlyTest extends MySqlExplainTest {
+    private static final int JUMLAH_PEMESANAN = Integer.getInteger("kasir.riwayat.pemesanan", 20_000);
+    private static final int DETAIL_PER_PEMESANAN = 3;
+    private static final int PEMANASAN = 2;
+    private static final int PENGULANGAN = 5;
+    private static boolean terisi;
+
+    @Autowired
+    KasirService kasirService;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @MockitoSpyBean
+    PemesananRepository pemesananRepository;
+
+    @MockitoBean
+    UserDao userDao;
+
+    @MockitoBean
+    ConvertImageService convertImageService;
+
+    @MockitoBean
+    EmailService emailService;
+
+    @MockitoBean
+    PasswordEncoder passwordEncoder;
+
+    /** Hasil satu pemanggilan: isi persistence context sebelum commit dan biaya seluruh transaksi. */
+    record Ukuran(int entity, int snapshot, long flush, long byteDialokasikan, long cpuNanos) {
+    }
+
+    @BeforeEach
+    void isiData() {
+        if (terisi) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO role (role_id, role_name) VALUES (1, 'KASIR')");
+        for (int i = 1; i <= 5; i++) {
+            jdbcTemplate.update("INSERT INTO user (user_id, role_id, email, nama, status, is_verified) "
+                    + "VALUES (?, 1, ?, ?, 'AKTIF', 1)", i, "kasir" + i + "@haymart.id", "Kasir " + i);
+        }
+        jdbcTemplate.update("INSERT INTO kategori (kategori_id, nama) VALUES (1, 'Kategori 1')");
+        for (int i = 1; i <= 10; i++) {
+            jdbcTemplate.update("INSERT INTO produk (produk_id, nama, harga, stok, kategori_id, status, deleted) "
+                    + "VALUES (?, ?, 1000, 1000, 1, 'Tersedia', 0)", i, "Produk " + i);
+        }
+        for (int awal = 1; awal <= JUMLAH_PEMESANAN; awal += 1000) {
+            StringBuilder pemesanan = new StringBuilder(
+                    "INSERT INTO pemesanan (pemesanan_id, kasir_id, tanggal_pembelian, total_harga) VALUES ");
+            StringBuilder detail = new StringBuilder("INSERT INTO detail_pemesanan (pemesanan_id, produk_id, "
+                    + "nama_produk, jumlah, harga_satuan, subtotal, tanggal_pembelian) VALUES ");
+            for (int i = awal; i < Math.min(JUMLAH_PEMESANAN + 1, awal + 1000); i++) {
+                String tanggal = "'2024-01-01' + INTERVAL " + i + " MINUTE";
+                pemesanan.append(i == awal ? "" : ", ").append("(").append(i).append(", ").append(i % 5 + 1)
+                        .append(", ").append(tanggal).append(", 3000)");
+                for (int d = 0; d < DETAIL_PER_PEMESANAN; d++) {
+                    int produk = (i + d) % 10 + 1;
+                    detail.append(i == awal && d == 0 ? "" : ", ").append("(").append(i).append(", ")
+                            .append(produk).append(", 'Produk ").append(produk).append("', 1, 1000, 1000, ")
+                            .append(tanggal).append(")");
+                }
+            }
+            jdbcTemplate.update(pemesanan.toString());
+            jdbcTemplate.update(detail.toString());
+        }
+        terisi = true;
+    }
+
+    @Test
+    void readOnlyTidakMenyimpanSnapshotDanTidakFlush() {
+        Ukuran sebelum = ukurMedian(false);
+        Ukuran sesudah = ukurMedian(true);
+        log.info("Riwayat {} pemesanan tanpa read-only: {} entity, {} snapshot, {} flush, {} KB, {} ms CPU",
+                JUMLAH_PEMESANAN, sebelum.entity(), sebelum.snapshot(), sebelum.flush(),
+                sebelum.byteDialokasikan() / 1024, sebelum.cpuNanos() / 1_000_000);
+        log.info("Riwayat {} pemesanan read-only: {} entity, {} snapshot, {} flush, {} KB, {} ms CPU",
+                JUMLAH_PEMESANAN, sesudah.entity(), sesudah.snapshot(), sesudah.flush(),
+                sesudah.byteDialokasikan() / 1024, sesudah.cpuNanos() / 1_000_000);
+
+        // Pemesanan, detail dan kasir dimuat di kedua mode
+        int entity = JUMLAH_PEMESANAN * (1 + DETAIL_PER_PEMESANAN) + 5;
+        assertThat(sebelum.entity()).isEqualTo(entity);
+        assertThat(sesudah.entity()).isEqualTo(entity);
+
+        assertThat(sebelum.snapshot()).isEqualTo(entity);
+        assertThat(sebelum.flush()).isEqualTo(1);
+        assertThat(sesudah.snapshot()).isZero();
+        assertThat(sesudah.flush()).isZero();
+        assertThat(sesudah.byteDialokasikan()).isLessThan(sebelum.byteDialokasikan());
+    }
+
+    private Ukuran ukurMedian(boolean readOnly) {
+        if (!readOnly) {
+            doAnswer(invocation -> riwayatTanpaHintReadOnly()).when(pemesananRepository).findAllRiwayat();
+        }
+        try {
+            for (int i = 0; i < PEMANASAN; i++) {
+                ukur(readOnly);
+            }
+            Ukuran[] hasil = new Ukuran[PENGULANGAN];
+            for (int i = 0; i < PENGULANGAN; i++) {
+                hasil[i] = ukur(readOnly);
+            }
+            Arrays.sort(hasil, (a, b) -> Long.compare(a.byteDialokasikan(), b.byteDialokasikan()));
+            Ukuran tengah = hasil[PENGULANGAN / 2];
+            long[] cpu = Arrays.stream(hasil).mapToLong(Ukuran::cpuNanos).sorted().toArray();
+            return new Ukuran(tengah.entity(), tengah.snapshot(), tengah.flush(), tengah.byteDialokasikan(),
+                    cpu[PENGULANGAN / 2]);
+        } finally {
+            reset(pemesananRepository);
+        }
+    }
+
+    /**
+     * Memanggil getAllHistorysKasir di dalam transaksi luar. Pada mode biasa transaksi
+     * read-only milik service ikut transaksi luar yang read-write, sama seperti sebelum
+     * anotasinya ditambahkan.
+     */
+    private Ukuran ukur(boolean readOnly) {
+        com.sun.management.ThreadMXBean thread = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+
+        statistics.clear();
+        long byteAwal = thread.getCurrentThreadAllocatedBytes();
+        long cpuAwal = thread.getCurrentThreadCpuTime();
+        int[] isi = template.execute(status -> {
+            assertThat(kasirService.getAllHistorysKasir()).hasSize(JUMLAH_PEMESANAN);
+            int entity = 0;
+            int snapshot = 0;
+            for (Map.Entry<Object, EntityEntry> entri : entityManager.unwrap(SessionImplementor.class)
+                    .getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+                entity++;
+                if (entri.getValue().getLoadedState() != null) {
+                    snapshot++;
+                }
+            }
+            return new int[] { entity, snapshot };
+        });
+        long cpu = thread.getCurrentThreadCpuTime() - cpuAwal;
+        long dialokasikan = thread.getCurrentThreadAllocatedBytes() - byteAwal;
+        return new Ukuran(isi[0], isi[1], statistics.getFlushCount(), dialokasikan, cpu);
+    }
+
+    // Query riwayat sebelum hint read-only: entity graph yang sama tanpa HINT_READ_ONLY
+    private Object riwayatTanpaHintReadOnly() {
+        EntityGraph<Pemesanan> graph = entityManager.createEntityGraph(Pemesanan.class);
+        graph.addAttributeNodes("userKasir", "details");
+        return entityManager.createQuery("SELECT p FROM Pemesanan p", Pemesanan.class)
+                .setHint("jakarta.persistence.fetchgraph", graph)
+                .getResultList();
+    }
+}
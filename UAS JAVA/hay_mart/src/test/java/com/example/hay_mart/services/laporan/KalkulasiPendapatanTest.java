@@ -0,0 +1,63 @@
+package com.example.hay_mart.services.laporan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+import com.example.hay_mart.dto.laporan.LaporanPendapatanResponse;
+
+class KalkulasiPendapatanTest {
+
+    @Test
+    void modalDanKeuntunganDalamSenTanpaPembulatan() {
+        assertThat(KalkulasiPendapatan.modalSen(1)).isEqualTo(85);
+        assertThat(KalkulasiPendapatan.keuntunganSen(1)).isEqualTo(15);
+        assertThat(KalkulasiPendapatan.modalSen(12345)).isEqualTo(1_049_325);
+        assertThat(KalkulasiPendapatan.keuntunganSen(12345)).isEqualTo(185_175);
+    }
+
+    @Test
+    void modalDitambahKeuntunganSamaDenganPendapatan() {
+        for (long pendapatan : new long[] { 0, 1, 7, 99, 12345, 999_999_999L }) {
+            assertThat(KalkulasiPendapatan.modalSen(pendapatan) + KalkulasiPendapatan.keuntunganSen(pendapatan))
+                    .isEqualTo(pendapatan * 100);
+        }
+    }
+
+    @Test
+    void responseMemakaiDuaDesimalDariSen() {
+        LaporanPendapatanResponse response = KalkulasiPendapatan.laporan("2025-01-01", 12345);
+
+        assertThat(response.getPeriode()).isEqualTo("2025-01-01");
+        assertThat(response.getPendapatan()).isEqualTo(new BigDecimal("12345.00"));
+        assertThat(response.getModal()).isEqualTo(new BigDecimal("10493.25"));
+        assertThat(response.getKeuntungan()).isEqualTo(new BigDecimal("1851.75"));
+        assertThat(response.getModal().add(response.getKeuntungan())).isEqualTo(response.getPendapatan());
+    }
+
+    @Test
+    void pendapatanSatuRupiahTidakHilangSaatDibulatkan() {
+        LaporanPendapatanResponse response = KalkulasiPendapatan.laporan("p", 1);
+
+        assertThat(response.getModal()).isEqualTo(new BigDecimal("0.85"));
+        assertThat(response.getKeuntungan()).isEqualTo(new BigDecimal("0.15"));
+    }
+
+    @Test
+    void pendapatanNolMenghasilkanNolDenganSkalaDua() {
+        LaporanPendapatanResponse response = KalkulasiPendapatan.laporan("p", 0);
+
+        assertThat(response.getPendapatan()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(response.getModal()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(response.getKeuntungan()).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void overflowDilaporkanBukanDibungkus() {
+        assertThatThrownBy(() -> KalkulasiPendapatan.modalSen(Long.MAX_VALUE / 10))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> KalkulasiPendapatan.laporan("p", Long.MAX_VALUE / 10))
+                .isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.hay_mart.services.laporan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.server.ResponseStatusException;
+import com.example.hay_mart.dto.laporan.LaporanJobRequest;
+import com.example.hay_mart.dto.laporan.LaporanJobResponse;
+import com.example.hay_mart.models.User;
+import com.example.hay_mart.services.GetAuthorities;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class LaporanJobServiceImplTest {
+    private static final String PEMILIK = "kasir@haymart.id";
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private LaporanJobServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        GetAuthorities getAuthorities = mock(GetAuthorities.class);
+        when(getAuthorities.getAuthenticatedUser()).thenReturn(User.builder().email(PEMILIK).build());
+
+        service = new LaporanJobServiceImpl();
+        service.getAuthorities = getAuthorities;
+        service.objectMapper = objectMapper;
+        service.direktori = dir.toString();
+        service.jumlahWorker = 1;
+        service.kapasitasAntrean = 1;
+        service.batasPerUser = 2;
+        service.ttlMs = 3_600_000;
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void jobSelesaiBisaDiunduhSetelahRestart() throws IOException {
+        tulisJob("a", LaporanJobService.SELESAI, LocalDateTime.now().minusMinutes(5));
+        Files.write(dir.resolve("a.xlsx"), new byte[] { 1, 2, 3 });
+
+        service.init();
+
+        LaporanJobResponse status = service.getStatus("a");
+        assertThat(status.getStatus()).isEqualTo(LaporanJobService.SELESAI);
+        assertThat(status.getProgress()).isEqualTo(100);
+        assertThat(service.getFile("a")).isEqualTo(dir.resolve("a.xlsx"));
+        assertThat(service.getNamaFile("a")).isEqualTo("laporan_harian.xlsx");
+    }
+
+    @Test
+    void jobYangTerputusDitandaiGagal() throws IOException {
+        tulisJob("b", LaporanJobService.BERJALAN, null);
+
+        service.init();
+
+        assertThat(service.getStatus("b").getStatus()).isEqualTo(LaporanJobService.GAGAL);
+        assertThatThrownBy(() -> service.getFile("b")).isInstanceOf(ResponseStatusException.class);
+        assertThat(objectMapper.readTree(dir.resolve("b.json").toFile()).get("status").asText())
+                .isEqualTo(LaporanJobService.GAGAL);
+    }
+
+    @Test
+    void fileKedaluwarsaDihapusSaatStart() throws IOException {
+        tulisJob("c", LaporanJobService.SELESAI, LocalDateTime.now().minusHours(2));
+        Files.write(dir.resolve("c.xlsx"), new byte[] { 1 });
+        Path yatim = Files.write(dir.resolve("d.xlsx"), new byte[] { 1 });
+        Files.setLastModifiedTime(yatim, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+
+        service.init();
+
+        assertThat(dir.resolve("c.json")).doesNotExist();
+        assertThat(dir.resolve("c.xlsx")).doesNotExist();
+        assertThat(yatim).doesNotExist();
+        assertThatThrownBy(() -> service.getStatus("c")).isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void jobMilikUserLainTidakTerlihat() throws IOException {
+        objectMapper.writeValue(dir.resolve("e.json").toFile(), new LaporanJobServiceImpl.MetadataJob("e",
+                "lain@haymart.id", request(), LaporanJobService.SELESAI, null, LocalDateTime.now(), LocalDateTime.now()));
+
+        service.init();
+
+        assertThatThrownBy(() -> service.getStatus("e")).isInstanceOf(ResponseStatusException.class);
+    }
+
+    private void tulisJob(String id, String status, LocalDateTime selesai) throws IOException {
+        objectMapper.writeValue(dir.resolve(id + ".json").toFile(), new LaporanJobServiceImpl.MetadataJob(id,
+                PEMILIK, request(), status, null, LocalDateTime.now().minusHours(3), selesai));
+    }
+
+    private LaporanJobRequest request() {
+        return LaporanJobRequest.builder().jenis(LaporanPendapatanService.HARIAN).build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.hay_mart.services.laporan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import com.example.hay_mart.dao.LaporanProdukDao;
+import com.example.hay_mart.dao.LaporanProdukDaoImpl;
+import com.example.hay_mart.repositorys.PemesananRepository;
+import com.example.hay_mart.services.arsip.ArsipPemesananService;
+import com.example.hay_mart.support.MySqlExplainTest;
+
+/**
+ * Memastikan query laporan dengan rentang satu bulan hanya membaca partisi bulan itu
+ * (kolom partitions pada EXPLAIN) setelah mode partisi memigrasikan tabel.
+ */
+@Import({ PartisiPemesananServiceImpl.class, LaporanProdukDaoImpl.class })
+@TestPropertySource(properties = "app.partisi.enabled=true")
+class PartisiPemesananServiceImplTest extends MySqlExplainTest {
+    private static final YearMonth BULAN = YearMonth.now();
+    private static final String PARTISI = BULAN.format(DateTimeFormatter.ofPattern("'p'yyyyMM"));
+
+    @Autowired
+    PartisiPemesananServiceImpl partisiPemesananService;
+
+    @Autowired
+    LaporanProdukDao laporanProdukDao;
+
+    @Autowired
+    PemesananRepository pemesananRepository;
+
+    @MockitoBean
+    ArsipPemesananService arsipPemesananService;
+
+    @BeforeEach
+    void siapkanPartisi() {
+        // Idempoten: tabel yang sudah dipartisi tidak dimigrasikan ulang
+        partisiPemesananService.run(null);
+    }
+
+    @Test
+    void keduaTabelDipartisiPerBulan() {
+        for (String tabel : new String[] { "pemesanan", "detail_pemesanan" }) {
+            assertThat(jdbcTemplate.queryForList("SELECT partition_name FROM information_schema.partitions "
+                    + "WHERE table_schema = DATABASE() AND table_name = ?", String.class, tabel))
+                    .as(tabel)
+                    .contains(PARTISI, BULAN.plusMonths(1).format(DateTimeFormatter.ofPattern("'p'yyyyMM")), "pmax");
+        }
+    }
+
+    @Test
+    void produkTerlarisSebulanHanyaMembacaPartisiBulanItu() {
+        LocalDate awal = BULAN.atDay(1);
+        String sql = sqlDari("FROM pemesanan o",
+                () -> laporanProdukDao.getTerlaris(awal, BULAN.atEndOfMonth(), 10, null));
+
+        Map<String, Map<String, Object>> rencana = explain(sql);
+        assertThat(rencana.get("o").get("partitions")).isEqualTo(PARTISI);
+        assertThat(rencana.get("d").get("partitions")).isEqualTo(PARTISI);
+    }
+
+    @Test
+    void ringkasanPendapatanSebulanHanyaMembacaPartisiBulanItu() {
+        String sql = sqlDari("from pemesanan", () -> pemesananRepository.ringkasanPendapatan(
+                BULAN.atDay(1).atStartOfDay(), BULAN.plusMonths(1).atDay(1).atStartOfDay()));
+
+        Map<String, Map<String, Object>> rencana = explain(sql);
+        assertThat(rencana).hasSize(1);
+        assertThat(rencana.values().iterator().next().get("partitions")).isEqualTo(PARTISI);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.hay_mart.services.laporan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(10)
+class SingleFlightTest {
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void pemanggilBersamaanMenerimaHasilYangSama() throws Exception {
+        CountDownLatch mulai = new CountDownLatch(1);
+        CountDownLatch lepas = new CountDownLatch(1);
+
+        Future<String> pertama = executor.submit(() -> singleFlight.jalankan("k", () -> {
+            mulai.countDown();
+            lepas.await();
+            return "hasil";
+        }));
+        mulai.await();
+        Future<String> kedua = executor.submit(() -> singleFlight.jalankan("k", () -> "tidak dipanggil"));
+        tungguDigabung(1);
+        lepas.countDown();
+
+        assertThat(pertama.get()).isEqualTo("hasil");
+        assertThat(kedua.get()).isEqualTo("hasil");
+        assertThat(singleFlight.getDijalankan()).isEqualTo(1);
+        assertThat(singleFlight.getSedangBerjalan()).isZero();
+    }
+
+    @Test
+    void exceptionDiteruskanKePemanggilYangMenunggu() throws Exception {
+        Future<String> kedua = gagalBersamaan(new IOException("disk penuh"));
+
+        assertThatThrownBy(kedua::get).cause().isInstanceOf(IOException.class).hasMessage("disk penuh");
+    }
+
+    @Test
+    void errorJugaMembangunkanPemanggilYangMenunggu() throws Exception {
+        Future<String> kedua = gagalBersamaan(new OutOfMemoryError("heap"));
+
+        assertThatThrownBy(() -> kedua.get(5, TimeUnit.SECONDS)).cause()
+                .isInstanceOf(OutOfMemoryError.class).hasMessage("heap");
+    }
+
+    @Test
+    void kunciDilepasSetelahGagalSehinggaPanggilanBerikutnyaMenghitungUlang() throws Exception {
+        assertThatThrownBy(() -> singleFlight.jalankan("k", () -> {
+            throw new IllegalStateException("gagal");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.getSedangBerjalan()).isZero();
+        assertThat(singleFlight.jalankan("k", () -> "pulih")).isEqualTo("pulih");
+        assertThat(singleFlight.getDijalankan()).isEqualTo(2);
+    }
+
+    // Pemanggil pertama menunggu sampai pemanggil kedua bergabung, lalu gagal dengan masalah
+    private Future<String> gagalBersamaan(Throwable masalah) throws Exception {
+        CountDownLatch mulai = new CountDownLatch(1);
+        CountDownLatch lepas = new CountDownLatch(1);
+
+        Future<String> pertama = executor.submit(() -> singleFlight.jalankan("k", () -> {
+            mulai.countDown();
+            lepas.await();
+            if (masalah instanceof Error e) {
+                throw e;
+            }
+            throw (Exception) masalah;
+        }));
+        mulai.await();
+        Future<String> kedua = executor.submit(() -> singleFlight.jalankan("k", () -> "tidak dipanggil"));
+        tungguDigabung(1);
+        lepas.countDown();
+
+        assertThatThrownBy(pertama::get).cause().isSameAs(masalah);
+        assertThat(singleFlight.getSedangBerjalan()).isZero();
+        return kedua;
+    }
+
+    private void tungguDigabung(long jumlah) throws InterruptedException {
+        while (singleFlight.getDigabung() < jumlah) {
+            Thread.sleep(5);
+        }
+    }
+}
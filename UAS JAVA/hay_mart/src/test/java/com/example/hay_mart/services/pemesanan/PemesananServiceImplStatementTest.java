@@ -0,0 +1,143 @@
+package com.example.hay_mart.services.pemesanan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import com.example.hay_mart.dto.pemesanan.ItemRequest;
+import com.example.hay_mart.dto.pemesanan.PemesananRequest;
+import com.example.hay_mart.models.User;
+import com.example.hay_mart.services.GetAuthorities;
+import com.example.hay_mart.services.arsip.ArsipPemesananService;
+import com.example.hay_mart.services.laporan.LaporanCache;
+import com.example.hay_mart.services.laporan.RekapPendapatanServiceImpl;
+import com.example.hay_mart.services.produk.PerubahanProdukLog;
+import com.example.hay_mart.support.MySqlExplainTest;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Menghitung statement yang disiapkan Hibernate untuk checkout dan riwayat pemesanan.
+ * Checkout tidak memuat maupun menyimpan entity Produk (dan Blob fotonya), dan riwayat
+ * memuat pemesanan beserta detailnya dalam satu query berapa pun jumlah pemesanannya.
+ */
+@Import({ PemesananServiceImpl.class, PerubahanProdukLog.class, RekapPendapatanServiceImpl.class })
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PemesananServiceImplStatementTest extends MySqlExplainTest {
+    private static final int KASIR_ID = 1;
+    private static boolean terisi;
+
+    @Autowired
+    PemesananService pemesananService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    GetAuthorities getAuthorities;
+
+    @MockitoBean
+    LaporanCache laporanCache;
+
+    @MockitoBean
+    ArsipPemesananService arsipPemesananService;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void isiData() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        when(getAuthorities.getAuthenticatedUser()).thenReturn(User.builder()
+                .userId(KASIR_ID)
+                .nama("Kasir 1")
+                .build());
+        if (terisi) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO role (role_id, role_name) VALUES (1, 'KASIR')");
+        jdbcTemplate.update("INSERT INTO user (user_id, role_id, email, nama, status, is_verified) "
+                + "VALUES (?, 1, 'kasir1@haymart.id', 'Kasir 1', 'AKTIF', 1)", KASIR_ID);
+        jdbcTemplate.update("INSERT INTO kategori (kategori_id, nama) VALUES (1, 'Kategori 1')");
+        for (int i = 1; i <= 10; i++) {
+            jdbcTemplate.update("INSERT INTO produk (produk_id, nama, harga, stok, kategori_id, status, deleted, "
+                    + "foto_produk) VALUES (?, ?, 1000, 1000, 1, 'Tersedia', 0, ?)", i, "Produk " + i,
+                    new byte[64 * 1024]);
+        }
+        terisi = true;
+    }
+
+    @Test
+    void checkoutTidakMenyimpanUlangProduk() {
+        // Produk 1 dan 2 sudah pernah terjual (laporan_produk sudah ada), produk 3 belum
+        pemesananService.buatPemesanan(pesanan(1, 2));
+        statistics.clear();
+
+        pemesananService.buatPemesanan(pesanan(1, 2, 3));
+
+        // SELECT kolom checkout semua produk (1), per produk UPDATE stok + UPDATE laporan_produk (6),
+        // INSERT laporan_produk produk 3 (1), INSERT pemesanan + detail, id IDENTITY jadi tidak
+        // di-batch (4), rekap JAM/HARI/BULAN (3), urutan versi SELECT ... FOR UPDATE + UPDATE (2),
+        // INSERT perubahan_produk di-batch (1)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(18);
+        // Produk (dan fotonya) maupun LaporanProduk tidak dimuat ke persistence context
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(8);
+    }
+
+    @Test
+    void stokTidakCukupDitolak() {
+        jdbcTemplate.update("UPDATE produk SET stok = 1 WHERE produk_id = 7");
+
+        PemesananRequest request = pesanan(7);
+        request.getItems().get(0).setJumlah(2);
+        assertThatThrownBy(() -> pemesananService.buatPemesanan(request))
+                .hasMessageContaining("tidak cukup");
+
+        pemesananService.buatPemesanan(pesanan(7));
+        assertThat(jdbcTemplate.queryForMap("SELECT stok, status FROM produk WHERE produk_id = 7"))
+                .containsEntry("stok", 0)
+                .containsEntry("status", "Tidak Tersedia");
+    }
+
+    @Test
+    void riwayatSatuQueryBerapaPunJumlahPemesanan() {
+        pemesananService.buatPemesanan(pesanan(4));
+        statistics.clear();
+        int jumlahSedikit = pemesananService.getRiwayatPemesanan().size();
+        long statementSedikit = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 5; i++) {
+            pemesananService.buatPemesanan(pesanan(5, 6));
+        }
+        statistics.clear();
+        int jumlahBanyak = pemesananService.getRiwayatPemesanan().size();
+
+        assertThat(jumlahBanyak).isEqualTo(jumlahSedikit + 5);
+        assertThat(statementSedikit).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    private static PemesananRequest pesanan(int... produkIds) {
+        List<ItemRequest> items = new ArrayList<>();
+        for (int produkId : produkIds) {
+            ItemRequest item = new ItemRequest();
+            item.setProdukId(produkId);
+            item.setJumlah(1);
+            items.add(item);
+        }
+        PemesananRequest request = new PemesananRequest();
+        request.setItems(items);
+        return request;
+    }
+}
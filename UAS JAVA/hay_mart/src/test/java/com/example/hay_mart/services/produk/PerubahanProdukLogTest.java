@@ -0,0 +1,70 @@
+package com.example.hay_mart.services.produk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import com.example.hay_mart.models.PerubahanProduk;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+class PerubahanProdukLogTest {
+    private EntityManager entityManager;
+    private Query kunci;
+    private Query naikkan;
+    private PerubahanProdukLog log;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        kunci = mock(Query.class);
+        naikkan = mock(Query.class);
+        when(entityManager.createNativeQuery(anyString())).thenAnswer(inv -> {
+            String sql = inv.getArgument(0);
+            return sql.startsWith("SELECT") ? kunci : naikkan;
+        });
+        when(kunci.setParameter(anyString(), any())).thenReturn(kunci);
+        when(naikkan.setParameter(anyString(), any())).thenReturn(naikkan);
+        when(kunci.getSingleResult()).thenReturn(41L);
+
+        log = new PerubahanProdukLog();
+        log.entityManager = entityManager;
+    }
+
+    @Test
+    void versiDiambilDariBarisUrutanYangDikunciLaluDinaikkan() {
+        log.catat(List.of(7, 8, 9), PerubahanProdukLog.UPDATE);
+
+        InOrder urutan = inOrder(entityManager, kunci, naikkan);
+        urutan.verify(entityManager).createNativeQuery(eq("SELECT nilai FROM urutan_versi WHERE nama = :nama FOR UPDATE"));
+        urutan.verify(kunci).getSingleResult();
+        urutan.verify(naikkan).setParameter("jumlah", 3);
+        urutan.verify(naikkan).executeUpdate();
+
+        ArgumentCaptor<PerubahanProduk> captor = ArgumentCaptor.forClass(PerubahanProduk.class);
+        verify(entityManager, times(3)).persist(captor.capture());
+        assertThat(captor.getAllValues()).extracting(PerubahanProduk::getVersi).containsExactly(42L, 43L, 44L);
+        assertThat(captor.getAllValues()).extracting(PerubahanProduk::getProdukId).containsExactly(7, 8, 9);
+        assertThat(captor.getAllValues()).extracting(PerubahanProduk::getAksi).containsOnly(PerubahanProdukLog.UPDATE);
+    }
+
+    @Test
+    void daftarKosongTidakMengambilKunci() {
+        log.catat(List.of(), PerubahanProdukLog.CREATE);
+
+        verify(entityManager, never()).createNativeQuery(anyString());
+        verify(entityManager, never()).persist(any());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.hay_mart.services.produk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.example.hay_mart.dto.produk.HargaFacetResponse;
+import com.example.hay_mart.dto.produk.ProdukFacetResponse;
+import com.example.hay_mart.models.Kategori;
+import com.example.hay_mart.models.Produk;
+import com.example.hay_mart.repositorys.ProdukRepository;
+
+class ProdukFacetIndexTest {
+    private static final int[] BATAS = { 10000, 25000, 50000 };
+
+    private ProdukFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProdukFacetIndex();
+        index.simpan(produk(1, "Teh Botol", 5000, "Minuman", false));
+        index.simpan(produk(2, "Kopi Susu", 30000, "Minuman", false));
+        index.simpan(produk(3, "Mie Goreng", 12000, "Makanan", false));
+        index.simpan(produk(4, "Mie Rebus", 60000, "Makanan", true));
+    }
+
+    @Test
+    void tanpaFilterMenghitungSemuaProdukAktif() {
+        ProdukFacetResponse facet = index.hitung(null, null, null, null, BATAS);
+
+        assertThat(facet.getTotalItem()).isEqualTo(3);
+        assertThat(jumlahKategori(facet)).containsExactly("Minuman=2", "Makanan=1");
+        assertThat(jumlahHarga(facet)).containsExactly(1L, 1L, 1L, 0L);
+    }
+
+    @Test
+    void rentangHargaMemakaiBatasBawahInklusif() {
+        ProdukFacetResponse facet = index.hitung(null, null, null, null, BATAS);
+
+        HargaFacetResponse pertama = facet.getHarga().get(0);
+        HargaFacetResponse terakhir = facet.getHarga().get(3);
+        assertThat(pertama.getMinPrice()).isZero();
+        assertThat(pertama.getMaxPrice()).isEqualTo(9999);
+        assertThat(terakhir.getMinPrice()).isEqualTo(50000);
+        assertThat(terakhir.getMaxPrice()).isNull();
+
+        index.simpan(produk(5, "Roti", 10000, "Makanan", false));
+        assertThat(jumlahHarga(index.hitung(null, null, null, null, BATAS))).containsExactly(1L, 2L, 1L, 0L);
+    }
+
+    @Test
+    void filterKategoriTidakMempersempitFacetKategoriItuSendiri() {
+        ProdukFacetResponse facet = index.hitung(null, "minuman", null, null, BATAS);
+
+        assertThat(facet.getTotalItem()).isEqualTo(2);
+        assertThat(jumlahKategori(facet)).containsExactly("Minuman=2", "Makanan=1");
+        assertThat(jumlahHarga(facet)).containsExactly(1L, 0L, 1L, 0L);
+    }
+
+    @Test
+    void filterHargaTidakMempersempitFacetHarga() {
+        ProdukFacetResponse facet = index.hitung(null, null, 10000, 40000, BATAS);
+
+        assertThat(facet.getTotalItem()).isEqualTo(2);
+        assertThat(jumlahKategori(facet)).containsExactly("Minuman=1", "Makanan=1");
+        assertThat(jumlahHarga(facet)).containsExactly(1L, 1L, 1L, 0L);
+    }
+
+    @Test
+    void filterNamaTidakPekaHurufBesar() {
+        ProdukFacetResponse facet = index.hitung("MIE", null, null, null, BATAS);
+
+        assertThat(facet.getTotalItem()).isEqualTo(1);
+        assertThat(jumlahKategori(facet)).containsExactly("Minuman=0", "Makanan=1");
+    }
+
+    @Test
+    void kategoriTidakDikenalTidakMemfilter() {
+        assertThat(index.hitung(null, "elektronik", null, null, BATAS).getTotalItem()).isEqualTo(3);
+    }
+
+    @Test
+    void perubahanProdukMemindahkanSlotnya() {
+        index.simpan(produk(1, "Teh Botol", 5000, "Makanan", false));
+        assertThat(jumlahKategori(index.hitung(null, null, null, null, BATAS)))
+                .containsExactly("Minuman=1", "Makanan=2");
+
+        index.simpan(produk(2, "Kopi Susu", 30000, "Minuman", true));
+        ProdukFacetResponse facet = index.hitung(null, null, null, null, BATAS);
+        assertThat(facet.getTotalItem()).isEqualTo(2);
+        assertThat(jumlahKategori(facet)).containsExactly("Makanan=2");
+    }
+
+    @Test
+    void runMemuatSemuaBarisDariRepository() {
+        ProdukRepository produkRepository = mock(ProdukRepository.class);
+        when(produkRepository.findFacetRows()).thenReturn(List.of(
+                new Object[] { 1, "Teh", 5000, "Minuman", false },
+                new Object[] { 2, "Kopi", 30000, "Minuman", null },
+                new Object[] { 3, "Mie", 12000, "Makanan", false }));
+        ProdukFacetIndex dariDatabase = new ProdukFacetIndex();
+        dariDatabase.produkRepository = produkRepository;
+
+        dariDatabase.run(null);
+
+        // deleted = null tidak ikut, sama seperti filter deleted = false di ProdukDaoImpl
+        ProdukFacetResponse facet = dariDatabase.hitung(null, null, null, null, BATAS);
+        assertThat(facet.getTotalItem()).isEqualTo(2);
+        assertThat(jumlahKategori(facet)).containsExactly("Minuman=1", "Makanan=1");
+    }
+
+    private static Produk produk(int id, String nama, int harga, String kategori, boolean deleted) {
+        return Produk.builder()
+                .produkId(id)
+                .nama(nama)
+                .harga(harga)
+                .kategori(Kategori.builder().nama(kategori).build())
+                .deleted(deleted)
+                .build();
+    }
+
+    private static List<String> jumlahKategori(ProdukFacetResponse facet) {
+        return facet.getKategori().stream().map(k -> k.getKategori() + "=" + k.getJumlah()).toList();
+    }
+
+    private static List<Long> jumlahHarga(ProdukFacetResponse facet) {
+        return facet.getHarga().stream().map(HargaFacetResponse::getJumlah).toList();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.hay_mart.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Basis test yang menjalankan query aplikasi di MySQL sungguhan (skema dari migrasi Flyway)
+ * lalu memeriksa rencana eksekusinya dengan EXPLAIN. SQL yang diperiksa adalah SQL yang
+ * benar-benar dikirim Hibernate, diambil dari general log MySQL, bukan salinan manual.
+ *
+ * Dilewati bila Docker tidak tersedia.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+// DDL (partisi) di MySQL selalu commit implisit, jadi test tidak dibungkus transaksi rollback
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public abstract class MySqlExplainTest {
+    // root diperlukan untuk SET GLOBAL general_log dan membaca mysql.general_log
+    @Container
+    @ServiceConnection
+    protected static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withUsername("root")
+            .withPassword("test");
+
+    @Autowired
+    protected DataSource dataSource;
+
+    @Autowired
+    protected PlatformTransactionManager transactionManager;
+
+    protected JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void siapkanJdbc() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Menjalankan aksi dalam transaksi read-only dan mengembalikan statement terakhir yang
+     * dikirim ke MySQL dan memuat potongan teks tertentu, lengkap dengan nilai parameternya.
+     */
+    protected String sqlDari(String potongan, Runnable aksi) {
+        jdbcTemplate.execute("SET GLOBAL general_log = 'OFF'");
+        jdbcTemplate.execute("TRUNCATE TABLE mysql.general_log");
+        jdbcTemplate.execute("SET GLOBAL log_output = 'TABLE'");
+        jdbcTemplate.execute("SET GLOBAL general_log = 'ON'");
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> aksi.run());
+        } finally {
+            jdbcTemplate.execute("SET GLOBAL general_log = 'OFF'");
+        }
+
+        List<String> sql = jdbcTemplate.queryForList(
+                "SELECT CONVERT(argument USING utf8mb4) FROM mysql.general_log "
+                        + "WHERE command_type = 'Query' AND CONVERT(argument USING utf8mb4) LIKE ? "
+                        + "ORDER BY event_time",
+                String.class, "%" + potongan + "%");
+        assertThat(sql).as("statement yang memuat '%s'", potongan).isNotEmpty();
+        return sql.get(sql.size() - 1);
+    }
+
+    /** Baris EXPLAIN per alias tabel (kolom table). */
+    protected Map<String, Map<String, Object>> explain(String sql) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql).stream()
+                .filter(row -> row.get("table") != null)
+                .collect(Collectors.toMap(row -> row.get("table").toString(), row -> row, (a, b) -> a));
+    }
+}
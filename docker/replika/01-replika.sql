@@ -0,0 +1,12 @@
+-- Dijalankan sekali saat volume mysql-replika pertama kali dibuat.
+-- Dengan auto position replika memutar ulang seluruh binlog primary, termasuk
+-- pembuatan db_hay_mart dan user aplikasi.
+CHANGE REPLICATION SOURCE TO
+    SOURCE_HOST = 'mysql-db',
+    SOURCE_PORT = 3306,
+    SOURCE_USER = 'root',
+    SOURCE_PASSWORD = 'root',
+    SOURCE_AUTO_POSITION = 1,
+    GET_SOURCE_PUBLIC_KEY = 1;
+
+START REPLICA;